@@ -10,4 +10,37 @@ if [ -n "$INSPECTIONCONFIG" ]
     INSPECTIONCONFIGFILE=/var/ci/Project_Default.xml
 fi
 
+if [ -n "$EA_AUTOFIX" ]
+    then if [ -z "$EA_THREADS" ]
+        then EA_THREADS=`nproc`
+    fi
+    `ls -d /PhpStorm-*/`bin/phpstorm.sh ea-fix /var/ci/project --threads=${EA_THREADS}
+    exit $?
+fi
+
+if [ -n "$EA_HOTSPOTS" ]
+    then if [ -z "$EA_THREADS" ]
+        then EA_THREADS=`nproc`
+    fi
+    EA_HOTSPOTS_FORMAT=csv
+    case "$EA_HOTSPOTS" in *.json) EA_HOTSPOTS_FORMAT=json ;; esac
+    `ls -d /PhpStorm-*/`bin/phpstorm.sh ea-hotspots /var/ci/project ${EA_HOTSPOTS} --format=${EA_HOTSPOTS_FORMAT} --threads=${EA_THREADS}
+    exit $?
+fi
+
+if [ -n "$EA_BATCH_ANALYZER" ]
+    then if [ -z "$EA_THREADS" ]
+        then EA_THREADS=`nproc`
+    fi
+    if [ -z "$EA_FORMAT" ]
+        then EA_FORMAT=checkstyle
+    fi
+    EA_OPTIONS="--format=${EA_FORMAT} --threads=${EA_THREADS}"
+    if [ -n "$EA_CACHE" ]
+        then EA_OPTIONS="${EA_OPTIONS} --cache=${EA_CACHE}"
+    fi
+    `ls -d /PhpStorm-*/`bin/phpstorm.sh ea-inspect /var/ci/project ${INSPECTIONRESULTFILE} ${EA_OPTIONS}
+    exit $?
+fi
+
 /vendor/bin/phpstorm-inspect `ls -d /PhpStorm-*/`bin/inspect.sh /root/.PhpStorm${PHPSTORMVERSION}/system /var/ci ${INSPECTIONCONFIGFILE} /var/ci/project checkstyle > ${INSPECTIONRESULTFILE}
@@ -3,16 +3,21 @@ package com.kalessil.phpStorm.phpInspectionsEA;
 import com.intellij.openapi.options.Configurable;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.TestContextPatterns;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EAApplicationConfiguration implements Configurable {
     private boolean SEND_CRASH_REPORTS;
     private boolean COMPARISON_STYLE_REGULAR;
     private boolean COMPARISON_STYLE_YODA;
+    private final List<String> TEST_PATHS      = new ArrayList<>();
+    private final List<String> TEST_NAMESPACES = new ArrayList<>();
 
     @Nullable
     @Override
@@ -24,6 +29,12 @@ public class EAApplicationConfiguration implements Configurable {
         COMPARISON_STYLE_REGULAR              = comparisonStyle == ComparisonStyle.REGULAR;
         COMPARISON_STYLE_YODA                 = comparisonStyle == ComparisonStyle.YODA;
 
+        final TestContextPatterns testContextPatterns = settings.getTestContextPatterns();
+        TEST_PATHS.clear();
+        TEST_PATHS.addAll(testContextPatterns.getPaths());
+        TEST_NAMESPACES.clear();
+        TEST_NAMESPACES.addAll(testContextPatterns.getNamespaces());
+
         return OptionsComponent.create(component -> {
             component.addPanel("Anonymous data collect", panelComponent ->
                 panelComponent.addCheckbox("Automatically collect crash-reports", SEND_CRASH_REPORTS, (isSelected) -> SEND_CRASH_REPORTS = isSelected)
@@ -36,6 +47,26 @@ public class EAApplicationConfiguration implements Configurable {
                     radioComponent.addOption("Yoda comparison style", COMPARISON_STYLE_YODA, (isSelected) -> COMPARISON_STYLE_YODA = isSelected);
                 }
             ));
+
+            /* test context: inspections are skipping or relaxing checks in tests */
+            component.addPanel("Test context ('*' matches anything)", panelComponent -> {
+                panelComponent.addList(
+                    "Test file paths:",
+                    TEST_PATHS,
+                    () -> TestContextPatterns.DEFAULT_PATHS,
+                    null,
+                    "Adding test file path pattern...",
+                    "Examples: '*Test.php' or '*/tests/*'"
+                );
+                panelComponent.addList(
+                    "Test class names:",
+                    TEST_NAMESPACES,
+                    () -> TestContextPatterns.DEFAULT_NAMESPACES,
+                    null,
+                    "Adding test class name pattern...",
+                    "Examples: '*Test' or '*\\Tests\\*'"
+                );
+            });
         });
     }
 
@@ -44,8 +75,12 @@ public class EAApplicationConfiguration implements Configurable {
         final EASettings      settings        = EASettings.getInstance();
         final ComparisonStyle comparisonStyle = settings.getComparisonStyle();
 
+        final TestContextPatterns testContextPatterns = settings.getTestContextPatterns();
+
         return SEND_CRASH_REPORTS != settings.getSendCrashReports() ||
-               COMPARISON_STYLE_YODA != (comparisonStyle == ComparisonStyle.YODA);
+               COMPARISON_STYLE_YODA != (comparisonStyle == ComparisonStyle.YODA) ||
+               !TEST_PATHS.equals(testContextPatterns.getPaths()) ||
+               !TEST_NAMESPACES.equals(testContextPatterns.getNamespaces());
     }
 
     @Override
@@ -53,6 +88,7 @@ public class EAApplicationConfiguration implements Configurable {
         final EASettings settings = EASettings.getInstance();
         settings.setSendCrashReports(SEND_CRASH_REPORTS);
         settings.setComparisonStyle(COMPARISON_STYLE_REGULAR ? ComparisonStyle.REGULAR : ComparisonStyle.YODA);
+        settings.setTestContextPatterns(new TestContextPatterns(TEST_PATHS, TEST_NAMESPACES));
     }
 
     @Override
@@ -4,17 +4,25 @@ import com.intellij.openapi.components.PersistentStateComponent;
 import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.SimpleModificationTracker;
 import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.TestContextPatterns;
 import org.jdom.Element;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @State(name = "EASettings", storages = @Storage(file = "$APP_CONFIG$/ea_extended.xml"))
 public class EASettings implements PersistentStateComponent<Element> {
     private ComparisonStyle comparisonStyle;
     private String sendCrashReports;
+    private TestContextPatterns testContextPatterns = new TestContextPatterns(TestContextPatterns.DEFAULT_PATHS, TestContextPatterns.DEFAULT_NAMESPACES);
+    private final SimpleModificationTracker testContextTracker = new SimpleModificationTracker();
 
     private String versionOldest;
     private String version;
@@ -44,6 +52,8 @@ public class EASettings implements PersistentStateComponent<Element> {
         if (this.comparisonStyle != null) {
             element.setAttribute("comparisonStyle", this.comparisonStyle.getValue());
         }
+        element.addContent(this.listElement("testPaths", this.testContextPatterns.getPaths()));
+        element.addContent(this.listElement("testNamespaces", this.testContextPatterns.getNamespaces()));
 
         return element;
     }
@@ -71,6 +81,42 @@ public class EASettings implements PersistentStateComponent<Element> {
         this.comparisonStyle              = comparisonStyleValue == null || comparisonStyleValue.equals(ComparisonStyle.REGULAR.getValue())
                                                 ? ComparisonStyle.REGULAR
                                                 : ComparisonStyle.YODA;
+
+        /* test context patterns */
+        final List<String> testPaths      = this.readList(element, "testPaths");
+        final List<String> testNamespaces = this.readList(element, "testNamespaces");
+        this.setTestContextPatterns(new TestContextPatterns(
+                testPaths == null ? TestContextPatterns.DEFAULT_PATHS : testPaths,
+                testNamespaces == null ? TestContextPatterns.DEFAULT_NAMESPACES : testNamespaces
+        ));
+    }
+
+    /* patterns can contain commas, hence an <option value="..."/> child per pattern */
+    @NotNull
+    private Element listElement(@NotNull String name, @NotNull List<String> values) {
+        final Element list = new Element(name);
+        for (final String value : values) {
+            list.addContent(new Element("option").setAttribute("value", value));
+        }
+        return list;
+    }
+
+    /* null if not configured; settings stored by older versions are comma-separated attributes */
+    @Nullable
+    private List<String> readList(@NotNull Element element, @NotNull String name) {
+        final Element list = element.getChild(name);
+        if (list != null) {
+            final List<String> result = new ArrayList<>();
+            for (final Element option : list.getChildren("option")) {
+                final String value = option.getAttributeValue("value");
+                if (value != null) {
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+        final String legacy = element.getAttributeValue(name);
+        return legacy == null ? null : (legacy.isEmpty() ? new ArrayList<>() : Arrays.asList(legacy.split(",")));
     }
 
     public void setVersion(@NotNull String version) {
@@ -100,4 +146,24 @@ public class EASettings implements PersistentStateComponent<Element> {
     public ComparisonStyle getComparisonStyle() {
         return this.comparisonStyle;
     }
+
+    @NotNull
+    public TestContextPatterns getTestContextPatterns() {
+        return this.testContextPatterns;
+    }
+
+    public void setTestContextPatterns(@NotNull TestContextPatterns testContextPatterns) {
+        final boolean isChanged = !this.testContextPatterns.getPaths().equals(testContextPatterns.getPaths()) ||
+                                  !this.testContextPatterns.getNamespaces().equals(testContextPatterns.getNamespaces());
+        if (isChanged) {
+            this.testContextPatterns = testContextPatterns;
+            this.testContextTracker.incModificationCount();
+        }
+    }
+
+    /* bumped when test context patterns are changed: a dependency of values cached with the patterns */
+    @NotNull
+    public ModificationTracker getTestContextTracker() {
+        return this.testContextTracker;
+    }
 }
@@ -0,0 +1,252 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.codeHighlighting.HighlightDisplayLevel;
+import com.intellij.codeInsight.daemon.HighlightDisplayKey;
+import com.intellij.codeInspection.*;
+import com.intellij.codeInspection.ex.InspectionProfileImpl;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.intellij.psi.*;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocType;
+import com.jetbrains.php.lang.psi.elements.ClassReference;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpReference;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* runs EA inspections (respecting the project inspection profile) over PHP files, a file per task */
+final public class BatchAnalyzer {
+    static final String inspectionsPackage = "com.kalessil.phpStorm.phpInspectionsEA.";
+
+    private final Project project;
+    private final int threads;
+    private final List<LocalInspectionEP> inspections = new ArrayList<>();
+
+    public BatchAnalyzer(@NotNull Project project, int threads) {
+        this.project = project;
+        this.threads = Math.max(1, threads);
+        for (final LocalInspectionEP extension : LocalInspectionEP.LOCAL_INSPECTION.getExtensions()) {
+            if (extension.implementationClass != null && extension.implementationClass.startsWith(inspectionsPackage)) {
+                this.inspections.add(extension);
+            }
+        }
+    }
+
+    @NotNull
+    public Collection<VirtualFile> getProjectFiles() {
+        return ApplicationManager.getApplication().runReadAction(
+                (Computable<Collection<VirtualFile>>) () ->
+                        FileTypeIndex.getFiles(PhpFileType.INSTANCE, GlobalSearchScope.projectScope(this.project))
+        );
+    }
+
+    /*
+     * The consumer is invoked as soon as a file has been inspected, from a worker thread but never concurrently.
+     * Returns the number of failed files: inspections or the consumer have thrown, failures are in the file results.
+     */
+    public int analyze(@NotNull Collection<VirtualFile> files, @NotNull BiConsumer<VirtualFile, BatchFileResult> consumer)
+            throws InterruptedException
+    {
+        final ForkJoinPool pool    = new ForkJoinPool(this.threads);
+        final Object lock          = new Object();
+        final AtomicInteger failed = new AtomicInteger();
+        try {
+            for (final VirtualFile file : files) {
+                pool.execute(() -> {
+                    BatchFileResult result;
+                    try {
+                        result = ApplicationManager.getApplication().runReadAction(
+                                (Computable<BatchFileResult>) () -> this.inspect(file)
+                        );
+                    } catch (final Throwable failure) {
+                        result = BatchFileResult.empty();
+                        recordFailure(result, "analysis", failure);
+                    }
+                    boolean isFailed = !result.failures.isEmpty();
+                    synchronized (lock) {
+                        try {
+                            consumer.accept(file, result);
+                        } catch (final Throwable failure) {
+                            System.err.println(String.format("Unable to process results of %s", file.getPath()));
+                            failure.printStackTrace();
+                            isFailed = true;
+                        }
+                    }
+                    if (isFailed) {
+                        failed.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        return failed.get();
+    }
+
+    @NotNull
+    public BatchFileResult inspect(@NotNull VirtualFile virtualFile) {
+        final BatchFileResult fileResult = BatchFileResult.empty();
+        final List<BatchProblem> result  = fileResult.problems;
+        final PsiFile file               = virtualFile.isValid() ? PsiManager.getInstance(this.project).findFile(virtualFile) : null;
+        final Document document          = file == null ? null : PsiDocumentManager.getInstance(this.project).getDocument(file);
+        if (file == null || document == null) {
+            return fileResult;
+        }
+
+        /* collect the elements once, they are getting offered to every inspection visitor */
+        final List<PsiElement> elements = new ArrayList<>();
+        file.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(PsiElement element) {
+                elements.add(element);
+                collectDependencies(element, fileResult);
+                super.visitElement(element);
+            }
+        });
+
+        final InspectionProfile profile = InspectionProjectProfileManager.getInstance(this.project).getInspectionProfile();
+        /* the report is not offering quick-fixes: skip creating them */
+        LazyFix.withoutFixes(() -> this.run(file, elements, false, (shortName, failure) -> recordFailure(fileResult, shortName, failure), (shortName, descriptors) -> {
+            final HighlightDisplayKey key = HighlightDisplayKey.find(shortName);
+            final String severity         = severity(key == null ? HighlightDisplayLevel.WARNING : profile.getErrorLevel(key, file));
+            for (final ProblemDescriptor descriptor : descriptors) {
+                final PsiElement target = descriptor.getPsiElement();
+                if (target != null) {
+                    final TextRange range = descriptor.getTextRangeInElement();
+                    final int offset      = target.getTextRange().getStartOffset() + (range == null ? 0 : range.getStartOffset());
+                    final int line        = document.getLineNumber(Math.min(offset, document.getTextLength()));
+                    result.add(new BatchProblem(
+                            shortName,
+                            severity,
+                            ProblemDescriptorUtil.renderDescriptionMessage(descriptor, target),
+                            line + 1,
+                            offset - document.getLineStartOffset(line) + 1
+                    ));
+                }
+            }
+        }));
+        elements.clear();
+
+        result.sort(Comparator.comparingInt((BatchProblem problem) -> problem.line).thenComparingInt(problem -> problem.column));
+        return fileResult;
+    }
+
+    /*
+     * Offers the elements (the file elements in the tree order) to the enabled inspections visitors, the consumer
+     * receives the problems per inspection short name. A failing inspection is reported to the failures consumer,
+     * its problems are dropped and the remaining inspections are still running.
+     */
+    void run(
+            @NotNull PsiFile file,
+            @NotNull List<PsiElement> elements,
+            boolean onTheFly,
+            @NotNull BiConsumer<String, Throwable> failures,
+            @NotNull BiConsumer<String, List<ProblemDescriptor>> consumer
+    ) {
+        final InspectionProfile profile          = InspectionProjectProfileManager.getInstance(this.project).getInspectionProfile();
+        final InspectionManager manager          = InspectionManager.getInstance(this.project);
+        final LocalInspectionToolSession session = new LocalInspectionToolSession(file, 0, file.getTextLength());
+        for (final LocalInspectionEP extension : this.inspections) {
+            final HighlightDisplayKey key = HighlightDisplayKey.find(extension.getShortName());
+            if (key == null || !profile.isToolEnabled(key, file)) {
+                continue;
+            }
+            final LocalInspectionTool tool = this.getTool(profile, extension, file);
+            if (tool == null) {
+                continue;
+            }
+
+            final ProblemsHolder holder = new ProblemsHolder(manager, file, onTheFly);
+            try {
+                final PsiElementVisitor visitor = tool.buildVisitor(holder, onTheFly, session);
+                tool.inspectionStarted(session, onTheFly);
+                for (final PsiElement element : elements) {
+                    element.accept(visitor);
+                }
+                tool.inspectionFinished(session, holder);
+            } catch (final ProcessCanceledException cancellation) {
+                throw cancellation;
+            } catch (final Throwable failure) {
+                failures.accept(extension.getShortName(), failure);
+                continue;
+            }
+
+            if (holder.hasResults()) {
+                consumer.accept(extension.getShortName(), holder.getResults());
+            }
+        }
+    }
+
+    /* the failure is reported at the file beginning, so it lands in the report and fails the build */
+    private static void recordFailure(@NotNull BatchFileResult result, @NotNull String source, @NotNull Throwable failure) {
+        System.err.println(String.format("%s failed:", source));
+        failure.printStackTrace();
+        result.failures.add(source + ": " + failure);
+        result.problems.add(0, new BatchProblem(source, "error", "EA analysis failed: " + failure, 1, 1));
+    }
+
+    /* class-level dependencies: used for invalidating results of dependent files in incremental mode */
+    private static void collectDependencies(@NotNull PsiElement element, @NotNull BatchFileResult result) {
+        if (element instanceof PhpClass) {
+            final PhpClass clazz      = (PhpClass) element;
+            final Set<String> parents = new HashSet<>();
+            final String superFqn     = clazz.getSuperFQN();
+            if (superFqn != null && !superFqn.isEmpty()) {
+                parents.add(superFqn.toLowerCase());
+            }
+            for (final String name : clazz.getInterfaceNames()) {
+                parents.add(name.toLowerCase());
+            }
+            result.declared.put(clazz.getFQN().toLowerCase(), parents);
+        } else if (element instanceof PhpReference && (element instanceof ClassReference || element instanceof PhpDocType)) {
+            final String fqn = ((PhpReference) element).getFQN();
+            if (fqn != null && !fqn.isEmpty()) {
+                result.references.add(fqn.toLowerCase());
+            }
+        }
+    }
+
+    @Nullable
+    private LocalInspectionTool getTool(@NotNull InspectionProfile profile, @NotNull LocalInspectionEP extension, @NotNull PsiFile file) {
+        /* use the profile-configured instance, so inspection options from the profile are respected */
+        final InspectionProfileEntry configured = profile instanceof InspectionProfileImpl
+                ? ((InspectionProfileImpl) profile).getUnwrappedTool(extension.getShortName(), file)
+                : null;
+        final InspectionProfileEntry tool = configured == null ? extension.instantiateTool() : configured;
+        return tool instanceof LocalInspectionTool ? (LocalInspectionTool) tool : null;
+    }
+
+    @NotNull
+    private static String severity(@NotNull HighlightDisplayLevel level) {
+        if (level == HighlightDisplayLevel.ERROR) {
+            return "error";
+        }
+        return level == HighlightDisplayLevel.WARNING ? "warning" : "info";
+    }
+}
@@ -0,0 +1,270 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.codeInspection.InspectionProfileEntry;
+import com.intellij.codeInspection.ex.InspectionProfileImpl;
+import com.intellij.codeInspection.ex.ScopeToolState;
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarterEx;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.JDOMUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.ComparisonStyle;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.TestContextPatterns;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiPlatformUtil;
+import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Headless entry point: <ide launcher> ea-inspect <project path> <report path> [--format=checkstyle|sarif] [--threads=N]
+ *                                                 [--cache=<results store path>]
+ * With the results store only new/changed files and the files depending on them (via class references) are analyzed.
+ * The exit code is 0 when no problems were found, 1 when problems were reported and 2 on failures (including files
+ * failed to analyze, they are reported with an error at their beginning).
+ */
+public class BatchAnalyzerStarter extends ApplicationStarterEx {
+    @Override
+    public String getCommandName() {
+        return "ea-inspect";
+    }
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void premain(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: ea-inspect <project path> <report path> [--format=checkstyle|sarif] [--threads=N] [--cache=<path>]");
+            System.exit(2);
+        }
+    }
+
+    @Override
+    public void main(String[] args) {
+        final Map<String, String> options = parseOptions(args);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            int exitCode;
+            try {
+                exitCode = this.run(args[1], args[2], options);
+            } catch (final Throwable failure) {
+                failure.printStackTrace();
+                exitCode = 2;
+            }
+            System.exit(exitCode);
+        });
+    }
+
+    private int run(@NotNull String projectPath, @NotNull String reportPath, @NotNull Map<String, String> options)
+            throws IOException, InterruptedException
+    {
+        final Project project = openProject(projectPath);
+        if (project == null) {
+            System.err.println("Unable to open the project: " + projectPath);
+            return 2;
+        }
+        DumbService.getInstance(project).waitForSmartMode();
+
+        final int threads = options.containsKey("threads")
+                ? Integer.parseInt(options.get("threads"))
+                : Runtime.getRuntime().availableProcessors();
+        final BatchAnalyzer analyzer        = new BatchAnalyzer(project, threads);
+        final Collection<VirtualFile> files = analyzer.getProjectFiles();
+        final String basePath               = project.getBasePath();
+
+        final BatchResultsStore store         = options.containsKey("cache") ? loadStore(project, options.get("cache")) : null;
+        final Map<String, String> hashes      = new HashMap<>();
+        final Map<String, VirtualFile> byPath = new LinkedHashMap<>();
+        for (final VirtualFile file : files) {
+            final String path = relativePath(basePath, file);
+            byPath.put(path, file);
+            if (store != null) {
+                hashes.put(path, BatchResultsStore.hash(file.contentsToByteArray()));
+            }
+        }
+
+        final AtomicInteger problemsCount = new AtomicInteger();
+        final AtomicInteger analyzedCount = new AtomicInteger();
+        final AtomicInteger failedCount   = new AtomicInteger();
+        final Writer output               = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportPath), StandardCharsets.UTF_8));
+        try (final BatchReportWriter report = BatchReportWriter.create(options.getOrDefault("format", "checkstyle"), output)) {
+            final long start = System.currentTimeMillis();
+
+            final Set<String> analyzed = new HashSet<>(store == null ? byPath.keySet() : store.getOutdated(hashes));
+            final Set<String> declared = new HashSet<>();
+            final BiConsumer<VirtualFile, BatchFileResult> consumer = (file, result) -> {
+                final String path = relativePath(basePath, file);
+                if (store != null) {
+                    if (result.failures.isEmpty()) {
+                        /* classes introduced by the file might be referenced by unchanged files */
+                        final BatchFileResult previous = store.get(path);
+                        result.declared.keySet().stream()
+                                .filter(fqn -> previous == null || !previous.declared.containsKey(fqn))
+                                .forEach(declared::add);
+                        store.put(path, hashes.get(path), result);
+                    } else {
+                        /* the stored results are outdated (e.g. of a dependent file): the next run re-analyzes it */
+                        store.remove(path);
+                    }
+                }
+                analyzedCount.incrementAndGet();
+                problemsCount.addAndGet(result.problems.size());
+                try {
+                    report.write(path, result.problems);
+                } catch (final IOException failure) {
+                    throw new UncheckedIOException(failure);
+                }
+            };
+            failedCount.addAndGet(analyzer.analyze(select(byPath, analyzed), consumer));
+
+            if (store != null) {
+                final Set<String> dependents = store.getDependents(declared);
+                dependents.removeAll(analyzed);
+                failedCount.addAndGet(analyzer.analyze(select(byPath, dependents), consumer));
+                analyzed.addAll(dependents);
+
+                /* unchanged files: re-use the stored results */
+                for (final String path : byPath.keySet()) {
+                    final BatchFileResult known = analyzed.contains(path) ? null : store.get(path);
+                    if (known != null) {
+                        problemsCount.addAndGet(known.problems.size());
+                        report.write(path, known.problems);
+                    }
+                }
+                store.save();
+            }
+
+            System.out.println(String.format(
+                    "Inspected %d of %d files in %d ms using %d threads, %d problems found, %d files failed.",
+                    analyzedCount.get(),
+                    files.size(),
+                    System.currentTimeMillis() - start,
+                    threads,
+                    problemsCount.get(),
+                    failedCount.get()
+            ));
+        }
+
+        if (failedCount.get() > 0) {
+            return 2;
+        }
+        return problemsCount.get() == 0 ? 0 : 1;
+    }
+
+    @NotNull
+    private static List<VirtualFile> select(@NotNull Map<String, VirtualFile> files, @NotNull Set<String> paths) {
+        return files.entrySet().stream()
+                .filter(entry -> paths.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    /* results are valid for the same plugin version, EA and inspection settings and PHP language level only */
+    @NotNull
+    private static BatchResultsStore loadStore(@NotNull Project project, @NotNull String location) throws IOException {
+        final IdeaPluginDescriptor plugin    = OpenapiPlatformUtil.getPluginById("com.kalessil.phpStorm.phpInspectionsEA");
+        final ByteArrayOutputStream settings = new ByteArrayOutputStream();
+
+        final EASettings eaSettings        = EASettings.getInstance();
+        final ComparisonStyle style        = eaSettings.getComparisonStyle();
+        final TestContextPatterns patterns = eaSettings.getTestContextPatterns();
+        settings.write(String.format(
+                "%s|%s|%s\n",
+                style == null ? "" : style.getValue(),
+                String.join(",", patterns.getPaths()),
+                String.join(",", patterns.getNamespaces())
+        ).getBytes(StandardCharsets.UTF_8));
+        settings.write(
+                ApplicationManager.getApplication().runReadAction((Computable<String>) () -> profileSettings(project))
+                        .getBytes(StandardCharsets.UTF_8)
+        );
+
+        final String basePath    = project.getBasePath();
+        final File languageLevel = basePath == null ? null : new File(basePath, ".idea/php.xml");
+        if (languageLevel != null && languageLevel.isFile()) {
+            settings.write(Files.readAllBytes(languageLevel.toPath()));
+        }
+        return BatchResultsStore.load(
+                new File(location),
+                plugin == null ? "unknown" : plugin.getVersion(),
+                BatchResultsStore.hash(settings.toByteArray())
+        );
+    }
+
+    /* the effective profile (it might be an application-level one): EA inspections states, levels, scopes and options */
+    @NotNull
+    private static String profileSettings(@NotNull Project project) {
+        final InspectionProfileImpl profile = InspectionProjectProfileManager.getInstance(project).getCurrentProfile();
+        final List<String> tools            = new ArrayList<>();
+        for (final ScopeToolState state : profile.getAllTools()) {
+            final InspectionProfileEntry tool = state.getTool().getTool();
+            if (tool.getClass().getName().startsWith(BatchAnalyzer.inspectionsPackage)) {
+                final Element options = new Element("options");
+                tool.writeSettings(options);
+                tools.add(String.format(
+                        "%s|%s|%s|%s|%s",
+                        state.getTool().getShortName(),
+                        state.isEnabled(),
+                        state.getLevel(),
+                        state.getScopeName(),
+                        JDOMUtil.writeElement(options)
+                ));
+            }
+        }
+        tools.sort(Comparator.naturalOrder());
+        return String.join("\n", tools);
+    }
+
+    @Nullable
+    static Project openProject(@NotNull String projectPath) {
+        final Project[] project = new Project[1];
+        ApplicationManager.getApplication().invokeAndWait(
+                () -> project[0] = ProjectUtil.openOrImport(new File(projectPath).getAbsolutePath(), null, false),
+                ModalityState.defaultModalityState()
+        );
+        return project[0];
+    }
+
+    @NotNull
+    static String relativePath(String basePath, @NotNull VirtualFile file) {
+        final String path = file.getPath();
+        return basePath != null && path.startsWith(basePath + '/') ? path.substring(basePath.length() + 1) : path;
+    }
+
+    @NotNull
+    static Map<String, String> parseOptions(@NotNull String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (final String argument : args) {
+            if (argument.startsWith("--")) {
+                final String[] parts = argument.substring(2).split("=", 2);
+                options.put(parts[0], parts.length == 2 ? parts[1] : "");
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,38 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* inspection results of a file together with its class-level dependencies (all FQNs are lower-cased) */
+final public class BatchFileResult {
+    public final List<BatchProblem> problems;
+    public final Map<String, Set<String>> declared;
+    public final Set<String> references;
+    /* "<inspection short name>: <error>" entries, results with failures are not getting stored */
+    public final List<String> failures = new ArrayList<>();
+
+    public BatchFileResult(
+            @NotNull List<BatchProblem> problems,
+            @NotNull Map<String, Set<String>> declared,
+            @NotNull Set<String> references
+    ) {
+        this.problems   = problems;
+        this.declared   = declared;
+        this.references = references;
+    }
+
+    @NotNull
+    public static BatchFileResult empty() {
+        return new BatchFileResult(new ArrayList<>(), new HashMap<>(), new HashSet<>());
+    }
+}
@@ -0,0 +1,268 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.QuickFix;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Applies the safe EA quick-fixes (suggested replacements, unnecessary else, methods dropping, PHPUnit asserts) to
+ * PHP files. Problems are collected in parallel, a file per task; fixes of a file are applied bottom-up in one write
+ * command followed by one document commit and save. Fixes touching an already edited range are skipped, they are
+ * getting reported again by the next run. Failures of inspections and fixes are reported per file, the remaining
+ * fixes of the file are still applied.
+ */
+final public class BatchFixer {
+    private final Project project;
+    private final BatchAnalyzer analyzer;
+    private final int threads;
+
+    private final AtomicInteger fixedFiles   = new AtomicInteger();
+    private final AtomicInteger appliedFixes = new AtomicInteger();
+    private final AtomicInteger skippedFixes = new AtomicInteger();
+    private final AtomicInteger failedFiles  = new AtomicInteger();
+
+    public BatchFixer(@NotNull Project project, int threads) {
+        this.project  = project;
+        this.threads  = Math.max(1, threads);
+        this.analyzer = new BatchAnalyzer(project, this.threads);
+    }
+
+    @NotNull
+    public Collection<VirtualFile> getProjectFiles() {
+        return this.analyzer.getProjectFiles();
+    }
+
+    public int getFixedFiles() {
+        return this.fixedFiles.get();
+    }
+
+    public int getAppliedFixes() {
+        return this.appliedFixes.get();
+    }
+
+    /* overlapping with fixes applied before */
+    public int getSkippedFixes() {
+        return this.skippedFixes.get();
+    }
+
+    /* inspections or fixes have thrown, the files might be fixed partially */
+    public int getFailedFiles() {
+        return this.failedFiles.get();
+    }
+
+    public void fix(@NotNull Collection<VirtualFile> files) throws InterruptedException {
+        final ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            for (final VirtualFile file : files) {
+                pool.execute(() -> this.fix(file));
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /* collects the fixes in a read action and applies them on the dispatch thread */
+    void fix(@NotNull VirtualFile file) {
+        final List<String> failures = new ArrayList<>();
+        try {
+            final List<Edit> edits = ApplicationManager.getApplication().runReadAction(
+                    (Computable<List<Edit>>) () -> this.collect(file, failures)
+            );
+            if (!edits.isEmpty()) {
+                ApplicationManager.getApplication().invokeAndWait(() -> {
+                    try {
+                        this.apply(file, edits, failures);
+                    } catch (final Throwable failure) {
+                        recordFailure(file, failures, "fixing", failure);
+                    }
+                });
+            }
+        } catch (final Throwable failure) {
+            recordFailure(file, failures, "analysis", failure);
+        }
+        if (!failures.isEmpty()) {
+            this.failedFiles.incrementAndGet();
+        }
+    }
+
+    /* non-overlapping edits, bottom-up */
+    @NotNull
+    private List<Edit> collect(@NotNull VirtualFile virtualFile, @NotNull List<String> failures) {
+        final List<Edit> result = new ArrayList<>();
+        final PsiFile file      = virtualFile.isValid() ? PsiManager.getInstance(this.project).findFile(virtualFile) : null;
+        if (file == null) {
+            return result;
+        }
+
+        final List<PsiElement> elements = new ArrayList<>();
+        file.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(PsiElement element) {
+                elements.add(element);
+                super.visitElement(element);
+            }
+        });
+        final List<Edit> candidates = new ArrayList<>();
+        this.analyzer.run(file, elements, true, (shortName, failure) -> recordFailure(virtualFile, failures, shortName, failure), (shortName, descriptors) -> {
+            for (final ProblemDescriptor descriptor : descriptors) {
+                final LocalQuickFix fix = safeFix(descriptor);
+                final TextRange range   = fix == null ? null : affectedRange(fix, descriptor.getPsiElement());
+                if (range != null) {
+                    candidates.add(new Edit(descriptor, fix, range));
+                }
+            }
+        });
+        elements.clear();
+
+        candidates.sort(Comparator.comparingInt((Edit edit) -> edit.range.getStartOffset()).thenComparingInt(edit -> -edit.range.getLength()));
+        int editedUntil = -1;
+        for (final Edit edit : candidates) {
+            if (edit.range.getStartOffset() < editedUntil) {
+                this.skippedFixes.incrementAndGet();
+                continue;
+            }
+            result.add(edit);
+            editedUntil = edit.range.getEndOffset();
+        }
+        candidates.clear();
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void apply(@NotNull VirtualFile virtualFile, @NotNull List<Edit> edits, @NotNull List<String> failures) {
+        final PsiFile file = virtualFile.isValid() ? PsiManager.getInstance(this.project).findFile(virtualFile) : null;
+        if (file == null || this.project.isDisposed()) {
+            return;
+        }
+        final PsiDocumentManager manager = PsiDocumentManager.getInstance(this.project);
+        final Document document          = manager.getDocument(file);
+        if (document == null) {
+            return;
+        }
+
+        WriteCommandAction.runWriteCommandAction(this.project, () -> {
+            int applied = 0;
+            for (final Edit edit : edits) {
+                final PsiElement target = edit.descriptor.getPsiElement();
+                if (target != null && target.isValid()) {
+                    try {
+                        edit.fix.applyFix(this.project, edit.descriptor);
+                        ++applied;
+                    } catch (final ProcessCanceledException cancellation) {
+                        throw cancellation;
+                    } catch (final Throwable failure) {
+                        recordFailure(virtualFile, failures, edit.fix.getFamilyName(), failure);
+                    }
+                }
+            }
+            manager.doPostponedOperationsAndUnblockDocument(document);
+            manager.commitDocument(document);
+            FileDocumentManager.getInstance().saveDocument(document);
+
+            if (applied > 0) {
+                this.appliedFixes.addAndGet(applied);
+                this.fixedFiles.incrementAndGet();
+            }
+        });
+    }
+
+    private static void recordFailure(
+            @NotNull VirtualFile file,
+            @NotNull List<String> failures,
+            @NotNull String source,
+            @NotNull Throwable failure
+    ) {
+        System.err.println(String.format("%s failed on %s:", source, file.getPath()));
+        failure.printStackTrace();
+        failures.add(source + ": " + failure);
+    }
+
+    /* the safe fixes are holding no PSI and are not lazy: LazyFix instances are never matching and not getting built */
+    @Nullable
+    private static LocalQuickFix safeFix(@NotNull ProblemDescriptor descriptor) {
+        final QuickFix[] fixes = descriptor.getFixes();
+        if (fixes != null) {
+            for (final QuickFix candidate : fixes) {
+                if (
+                    candidate instanceof UseSuggestedReplacementFixer || candidate instanceof UnnecessaryElseFixer ||
+                    candidate instanceof DropMethodFix || candidate instanceof PhpUnitAssertFixer
+                ) {
+                    return (LocalQuickFix) candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /* the range the fix is modifying, as implemented by the fixes */
+    @Nullable
+    private static TextRange affectedRange(@NotNull LocalQuickFix fix, @Nullable PsiElement target) {
+        if (target == null) {
+            return null;
+        }
+        if (fix instanceof DropMethodFix) {
+            /* the method, its doc-block and the whitespace after it */
+            final PsiElement method   = target.getParent();
+            final PsiElement previous = method == null ? null : method.getPrevSibling();
+            final PsiElement before   = previous instanceof PsiWhiteSpace ? previous.getPrevSibling() : previous;
+            final PsiElement next     = method == null ? null : method.getNextSibling();
+            final PsiElement from     = before instanceof PhpDocComment ? before : method;
+            final PsiElement to       = next instanceof PsiWhiteSpace ? next : method;
+            return from == null || to == null ? null : new TextRange(from.getTextRange().getStartOffset(), to.getTextRange().getEndOffset());
+        } else if (fix instanceof UnnecessaryElseFixer) {
+            /* the if-statement holding the else/elseif branch, and the whitespace after it */
+            final PsiElement branch    = target.getParent();
+            final PsiElement statement = branch == null ? null : branch.getParent();
+            final PsiElement next      = statement == null ? null : statement.getNextSibling();
+            final PsiElement to        = next instanceof PsiWhiteSpace ? next : statement;
+            return statement == null ? null : new TextRange(statement.getTextRange().getStartOffset(), to.getTextRange().getEndOffset());
+        }
+        return target.getTextRange();
+    }
+
+    private static final class Edit {
+        private final ProblemDescriptor descriptor;
+        private final LocalQuickFix fix;
+        private final TextRange range;
+
+        private Edit(@NotNull ProblemDescriptor descriptor, @NotNull LocalQuickFix fix, @NotNull TextRange range) {
+            this.descriptor = descriptor;
+            this.fix        = fix;
+            this.range      = range;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarterEx;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Headless entry point: <ide launcher> ea-fix <project path> [--threads=N]
+ * Applies the safe quick-fixes (see BatchFixer) in place. The exit code is 0 when nothing was changed, 1 when files
+ * were fixed and 2 on failures.
+ */
+public class BatchFixerStarter extends ApplicationStarterEx {
+    @Override
+    public String getCommandName() {
+        return "ea-fix";
+    }
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void premain(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ea-fix <project path> [--threads=N]");
+            System.exit(2);
+        }
+    }
+
+    @Override
+    public void main(String[] args) {
+        final Map<String, String> options = BatchAnalyzerStarter.parseOptions(args);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            int exitCode;
+            try {
+                exitCode = this.run(args[1], options);
+            } catch (final Throwable failure) {
+                failure.printStackTrace();
+                exitCode = 2;
+            }
+            System.exit(exitCode);
+        });
+    }
+
+    private int run(@NotNull String projectPath, @NotNull Map<String, String> options) throws InterruptedException {
+        final Project project = BatchAnalyzerStarter.openProject(projectPath);
+        if (project == null) {
+            System.err.println("Unable to open the project: " + projectPath);
+            return 2;
+        }
+        DumbService.getInstance(project).waitForSmartMode();
+
+        final int threads = options.containsKey("threads")
+                ? Integer.parseInt(options.get("threads"))
+                : Runtime.getRuntime().availableProcessors();
+        final BatchFixer fixer              = new BatchFixer(project, threads);
+        final Collection<VirtualFile> files = fixer.getProjectFiles();
+
+        final long start = System.currentTimeMillis();
+        fixer.fix(files);
+        final long duration = Math.max(1, System.currentTimeMillis() - start);
+
+        System.out.println(String.format(
+                "Processed %d files in %d ms (%.1f files/sec) using %d threads: %d fixes applied in %d files, %d overlapping fixes skipped, %d files failed.",
+                files.size(),
+                duration,
+                files.size() * 1000.0 / duration,
+                threads,
+                fixer.getAppliedFixes(),
+                fixer.getFixedFiles(),
+                fixer.getSkippedFixes(),
+                fixer.getFailedFiles()
+        ));
+
+        if (fixer.getFailedFiles() > 0) {
+            return 2;
+        }
+        return fixer.getFixedFiles() == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,28 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class BatchProblem {
+    public final String inspection;
+    public final String severity;
+    public final String message;
+    public final int line;
+    public final int column;
+
+    public BatchProblem(@NotNull String inspection, @NotNull String severity, @NotNull String message, int line, int column) {
+        this.inspection = inspection;
+        this.severity   = severity;
+        this.message    = message;
+        this.line       = line;
+        this.column     = column;
+    }
+}
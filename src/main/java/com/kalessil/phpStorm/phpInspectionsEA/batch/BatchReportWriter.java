@@ -0,0 +1,144 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* reports are streamed file by file, implementations are expected to be called under the analyzer lock */
+public abstract class BatchReportWriter implements Closeable {
+    protected final Writer output;
+
+    protected BatchReportWriter(@NotNull Writer output) {
+        this.output = output;
+    }
+
+    @NotNull
+    public static BatchReportWriter create(@NotNull String format, @NotNull Writer output) throws IOException {
+        final BatchReportWriter writer = format.equals("sarif") ? new Sarif(output) : new Checkstyle(output);
+        writer.start();
+        return writer;
+    }
+
+    protected abstract void start() throws IOException;
+
+    public abstract void write(@NotNull String path, @NotNull List<BatchProblem> problems) throws IOException;
+
+    protected abstract void finish() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        this.finish();
+        this.output.close();
+    }
+
+    @NotNull
+    static String escapeXml(@NotNull String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    @NotNull
+    static String escapeJson(@NotNull String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (final char character : value.toCharArray()) {
+            if (character == '"' || character == '\\') {
+                result.append('\\').append(character);
+            } else if (character < 0x20) {
+                result.append(String.format("\\u%04x", (int) character));
+            } else {
+                result.append(character);
+            }
+        }
+        return result.toString();
+    }
+
+    private static final class Checkstyle extends BatchReportWriter {
+        Checkstyle(@NotNull Writer output) {
+            super(output);
+        }
+
+        @Override
+        protected void start() throws IOException {
+            this.output.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<checkstyle version=\"4.3\">\n");
+        }
+
+        @Override
+        public void write(@NotNull String path, @NotNull List<BatchProblem> problems) throws IOException {
+            if (!problems.isEmpty()) {
+                this.output.write(String.format("  <file name=\"%s\">\n", escapeXml(path)));
+                for (final BatchProblem problem : problems) {
+                    this.output.write(String.format(
+                            "    <error line=\"%d\" column=\"%d\" severity=\"%s\" message=\"%s\" source=\"%s\"/>\n",
+                            problem.line,
+                            problem.column,
+                            problem.severity,
+                            escapeXml(problem.message),
+                            escapeXml(problem.inspection)
+                    ));
+                }
+                this.output.write("  </file>\n");
+                this.output.flush();
+            }
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            this.output.write("</checkstyle>\n");
+        }
+    }
+
+    private static final class Sarif extends BatchReportWriter {
+        private boolean isFirst = true;
+
+        Sarif(@NotNull Writer output) {
+            super(output);
+        }
+
+        @Override
+        protected void start() throws IOException {
+            this.output.write(
+                    "{\"version\": \"2.1.0\", \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\", \"runs\": [{\n" +
+                    "  \"tool\": {\"driver\": {\"name\": \"Php Inspections (EA Extended)\"}},\n" +
+                    "  \"results\": ["
+            );
+        }
+
+        @Override
+        public void write(@NotNull String path, @NotNull List<BatchProblem> problems) throws IOException {
+            for (final BatchProblem problem : problems) {
+                this.output.write(this.isFirst ? "\n" : ",\n");
+                this.output.write(String.format(
+                        "    {\"ruleId\": \"%s\", \"level\": \"%s\", \"message\": {\"text\": \"%s\"}, " +
+                        "\"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": \"%s\"}, " +
+                        "\"region\": {\"startLine\": %d, \"startColumn\": %d}}}]}",
+                        escapeJson(problem.inspection),
+                        problem.severity.equals("info") ? "note" : problem.severity,
+                        escapeJson(problem.message),
+                        escapeJson(path),
+                        problem.line,
+                        problem.column
+                ));
+                this.isFirst = false;
+            }
+            if (!problems.isEmpty()) {
+                this.output.flush();
+            }
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            this.output.write("\n  ]\n}]}\n");
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * On-disk per-file results for incremental batch runs. Entries are keyed by the relative path and validated with
+ * the content hash; the whole store is dropped when the plugin version or the inspection settings fingerprint differ.
+ */
+final public class BatchResultsStore {
+    private static final int FORMAT_VERSION = 1;
+
+    private final File location;
+    private final String fingerprint;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private BatchResultsStore(@NotNull File location, @NotNull String fingerprint) {
+        this.location    = location;
+        this.fingerprint = fingerprint;
+    }
+
+    @NotNull
+    public static BatchResultsStore load(@NotNull File location, @NotNull String pluginVersion, @NotNull String settingsHash) {
+        final BatchResultsStore store = new BatchResultsStore(location, pluginVersion + ':' + settingsHash);
+        if (location.isFile()) {
+            try (final DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(location))))) {
+                if (input.readInt() == FORMAT_VERSION && input.readUTF().equals(store.fingerprint)) {
+                    for (int count = input.readInt(); count > 0; --count) {
+                        final String path = input.readUTF();
+                        store.entries.put(path, Entry.read(input));
+                    }
+                }
+            } catch (final IOException failure) {
+                /* a broken store is not a problem: everything gets re-analyzed */
+                store.entries.clear();
+            }
+        }
+        return store;
+    }
+
+    public void save() throws IOException {
+        final File parent = this.location.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(this.location))))) {
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(this.fingerprint);
+            output.writeInt(this.entries.size());
+            for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                output.writeUTF(entry.getKey());
+                entry.getValue().write(output);
+            }
+        }
+    }
+
+    /*
+     * Decides which files need to be (re-)analyzed: new or modified files and the files depending on classes declared
+     * in modified or deleted files. Classes declared by new files are known only after analysis, see getDependents().
+     */
+    @NotNull
+    public Set<String> getOutdated(@NotNull Map<String, String> currentHashes) {
+        final Set<String> outdated = new HashSet<>();
+        final Set<String> changed  = new HashSet<>();
+        for (final Map.Entry<String, String> file : currentHashes.entrySet()) {
+            final Entry known = this.entries.get(file.getKey());
+            if (known == null || !known.hash.equals(file.getValue())) {
+                outdated.add(file.getKey());
+                if (known != null) {
+                    changed.addAll(known.result.declared.keySet());
+                }
+            }
+        }
+        for (final Map.Entry<String, Entry> known : this.entries.entrySet()) {
+            if (!currentHashes.containsKey(known.getKey())) {
+                changed.addAll(known.getValue().result.declared.keySet());
+            }
+        }
+        this.entries.keySet().retainAll(currentHashes.keySet());
+
+        outdated.addAll(this.getDependents(changed));
+        return outdated;
+    }
+
+    /* files referencing or declaring the classes (or their children): inherited members could be affected as well */
+    @NotNull
+    public Set<String> getDependents(@NotNull Set<String> classes) {
+        final Set<String> result = new HashSet<>();
+        if (!classes.isEmpty()) {
+            final Map<String, Set<String>> children = new HashMap<>();
+            for (final Entry entry : this.entries.values()) {
+                for (final Map.Entry<String, Set<String>> declaration : entry.result.declared.entrySet()) {
+                    for (final String parent : declaration.getValue()) {
+                        children.computeIfAbsent(parent, key -> new HashSet<>()).add(declaration.getKey());
+                    }
+                }
+            }
+            final Set<String> affected = new HashSet<>(classes);
+            final Deque<String> queue  = new ArrayDeque<>(classes);
+            while (!queue.isEmpty()) {
+                for (final String child : children.getOrDefault(queue.poll(), Collections.emptySet())) {
+                    if (affected.add(child)) {
+                        queue.add(child);
+                    }
+                }
+            }
+
+            for (final Map.Entry<String, Entry> known : this.entries.entrySet()) {
+                final BatchFileResult entry = known.getValue().result;
+                final boolean isAffected    = entry.references.stream().anyMatch(affected::contains) ||
+                                              entry.declared.keySet().stream().anyMatch(affected::contains);
+                if (isAffected) {
+                    result.add(known.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    public BatchFileResult get(@NotNull String path) {
+        final Entry entry = this.entries.get(path);
+        return entry == null ? null : entry.result;
+    }
+
+    public void put(@NotNull String path, @NotNull String hash, @NotNull BatchFileResult result) {
+        this.entries.put(path, new Entry(hash, result));
+    }
+
+    public void remove(@NotNull String path) {
+        this.entries.remove(path);
+    }
+
+    @NotNull
+    public static String hash(@NotNull byte[] content) {
+        try {
+            return new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(content)).toString(16);
+        } catch (final NoSuchAlgorithmException failure) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    private static final class Entry {
+        private final String hash;
+        private final BatchFileResult result;
+
+        Entry(@NotNull String hash, @NotNull BatchFileResult result) {
+            this.hash   = hash;
+            this.result = result;
+        }
+
+        void write(@NotNull DataOutputStream output) throws IOException {
+            output.writeUTF(this.hash);
+            output.writeInt(this.result.problems.size());
+            for (final BatchProblem problem : this.result.problems) {
+                output.writeUTF(problem.inspection);
+                output.writeUTF(problem.severity);
+                output.writeUTF(problem.message);
+                output.writeInt(problem.line);
+                output.writeInt(problem.column);
+            }
+            output.writeInt(this.result.declared.size());
+            for (final Map.Entry<String, Set<String>> declaration : this.result.declared.entrySet()) {
+                output.writeUTF(declaration.getKey());
+                writeStrings(output, declaration.getValue());
+            }
+            writeStrings(output, this.result.references);
+        }
+
+        @NotNull
+        static Entry read(@NotNull DataInputStream input) throws IOException {
+            final String hash            = input.readUTF();
+            final BatchFileResult result = BatchFileResult.empty();
+            for (int count = input.readInt(); count > 0; --count) {
+                result.problems.add(new BatchProblem(input.readUTF(), input.readUTF(), input.readUTF(), input.readInt(), input.readInt()));
+            }
+            for (int count = input.readInt(); count > 0; --count) {
+                final String fqn = input.readUTF();
+                result.declared.put(fqn, readStrings(input));
+            }
+            result.references.addAll(readStrings(input));
+            return new Entry(hash, result);
+        }
+
+        private static void writeStrings(@NotNull DataOutputStream output, @NotNull Set<String> values) throws IOException {
+            output.writeInt(values.size());
+            for (final String value : values) {
+                output.writeUTF(value);
+            }
+        }
+
+        @NotNull
+        private static Set<String> readStrings(@NotNull DataInputStream input) throws IOException {
+            final Set<String> values = new HashSet<>();
+            for (int count = input.readInt(); count > 0; --count) {
+                values.add(input.readUTF());
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassDependenciesUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Coupling and inheritance metrics of all project classes, read from ClassDependenciesIndexer only: no PSI gets
+ * loaded. Classes are processed in parallel, a chunk per task and read action; inheritance depths are memoized, so
+ * the shared parts of hierarchies are walked once.
+ */
+final public class HotSpotsAnalyzer {
+    private static final int CHUNK_SIZE = 256;
+
+    private final Project project;
+    private final int threads;
+    private final GlobalSearchScope projectScope;
+    private final GlobalSearchScope allScope;
+
+    /* lower-cased FQN -> number of parent classes */
+    private final Map<String, Integer> depths = new ConcurrentHashMap<>();
+
+    public HotSpotsAnalyzer(@NotNull Project project, int threads) {
+        this.project      = project;
+        this.threads      = Math.max(1, threads);
+        this.projectScope = GlobalSearchScope.projectScope(project);
+        this.allScope     = GlobalSearchScope.allScope(project);
+    }
+
+    /* lower-cased FQNs of the indexed classes, declarations in libraries are dropped in analyze */
+    @NotNull
+    public List<String> getClasses() {
+        return ApplicationManager.getApplication().runReadAction(
+                (Computable<List<String>>) () -> ClassDependenciesUtil.getIndexedClasses(this.project)
+        );
+    }
+
+    @NotNull
+    public List<HotSpot> analyze(@NotNull List<String> classes) throws InterruptedException {
+        final Queue<HotSpot> result = new ConcurrentLinkedQueue<>();
+        final ForkJoinPool pool     = new ForkJoinPool(this.threads);
+        try {
+            for (int offset = 0; offset < classes.size(); offset += CHUNK_SIZE) {
+                final List<String> chunk = classes.subList(offset, Math.min(classes.size(), offset + CHUNK_SIZE));
+                pool.execute(() -> ApplicationManager.getApplication().runReadAction(() -> {
+                    for (final String fqn : chunk) {
+                        if (!this.project.isDisposed()) {
+                            final HotSpot row = this.measure(fqn);
+                            if (row != null) {
+                                result.add(row);
+                            }
+                        }
+                    }
+                }));
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        return new ArrayList<>(result);
+    }
+
+    @Nullable
+    private HotSpot measure(@NotNull String fqn) {
+        final ClassDependenciesUtil.Declaration declaration = ClassDependenciesUtil.getDeclaration(fqn, this.projectScope);
+        if (declaration == null) {
+            return null;
+        }
+        final int efferent = ClassDependenciesUtil.getEfferentReferences(this.project, fqn).size();
+        final int afferent = ClassDependenciesUtil.getAfferentReferences(this.project, fqn).size();
+        return new HotSpot(declaration.getFQN(), declaration.isAbstract(), efferent, afferent, this.depth(fqn));
+    }
+
+    /* the walked chain gets memoized, super classes outside of the index (e.g. not installed vendors) end it */
+    private int depth(@NotNull String fqn) {
+        final List<String> chain = new ArrayList<>();
+        String current           = fqn;
+        int parentDepth          = -1;
+        while (current != null) {
+            final Integer known = this.depths.get(current);
+            if (known != null) {
+                parentDepth = known;
+                break;
+            }
+            /* cycles are broken like missing super classes, PHP rejects them anyway */
+            final ClassDependenciesUtil.Declaration declaration = chain.contains(current)
+                    ? null
+                    : ClassDependenciesUtil.getDeclaration(current, this.allScope);
+            if (declaration == null) {
+                parentDepth = chain.isEmpty() ? -1 : 0;
+                break;
+            }
+            chain.add(current);
+            final String superFqn = declaration.getSuperFQN();
+            current               = superFqn == null ? null : superFqn.toLowerCase();
+        }
+        for (int index = chain.size() - 1; index >= 0; --index) {
+            this.depths.put(chain.get(index), ++parentDepth);
+        }
+        return Math.max(0, parentDepth);
+    }
+
+    /* the worst offenders first, ties are broken by FQN to keep reports diff-able */
+    @NotNull
+    public static Comparator<HotSpot> order(@NotNull String sort) {
+        final Comparator<HotSpot> primary;
+        switch (sort) {
+            case "afferent":
+                primary = Comparator.comparingInt((HotSpot row) -> row.afferent);
+                break;
+            case "depth":
+                primary = Comparator.comparingInt((HotSpot row) -> row.depth);
+                break;
+            case "instability":
+                primary = Comparator.comparingDouble(HotSpot::getInstability);
+                break;
+            default:
+                primary = Comparator.comparingInt((HotSpot row) -> row.efferent);
+                break;
+        }
+        return primary.reversed()
+                .thenComparing(Comparator.comparingInt((HotSpot row) -> row.efferent + row.afferent).reversed())
+                .thenComparing(Comparator.comparingInt((HotSpot row) -> row.depth).reversed())
+                .thenComparing(row -> row.fqn);
+    }
+
+    public static void write(@NotNull String format, @NotNull List<HotSpot> rows, @NotNull Writer output) throws IOException {
+        if (format.equals("json")) {
+            output.write("[\n");
+            for (int index = 0; index < rows.size(); ++index) {
+                final HotSpot row = rows.get(index);
+                output.write(String.format(
+                        Locale.ROOT,
+                        "  {\"class\": \"%s\", \"abstract\": %s, \"efferent\": %d, \"afferent\": %d, \"instability\": %.3f, \"depth\": %d}%s\n",
+                        BatchReportWriter.escapeJson(row.fqn),
+                        row.isAbstract,
+                        row.efferent,
+                        row.afferent,
+                        row.getInstability(),
+                        row.depth,
+                        index + 1 < rows.size() ? "," : ""
+                ));
+            }
+            output.write("]\n");
+        } else {
+            output.write("class,abstract,efferent,afferent,instability,depth\n");
+            for (final HotSpot row : rows) {
+                /* FQNs have no commas or quotes, no CSV escaping needed */
+                output.write(String.format(
+                        Locale.ROOT,
+                        "%s,%d,%d,%d,%.3f,%d\n",
+                        row.fqn,
+                        row.isAbstract ? 1 : 0,
+                        row.efferent,
+                        row.afferent,
+                        row.getInstability(),
+                        row.depth
+                ));
+            }
+        }
+    }
+
+    public static final class HotSpot {
+        public final String fqn;
+        public final boolean isAbstract;
+        public final int efferent;
+        public final int afferent;
+        public final int depth;
+
+        HotSpot(@NotNull String fqn, boolean isAbstract, int efferent, int afferent, int depth) {
+            this.fqn        = fqn;
+            this.isAbstract = isAbstract;
+            this.efferent   = efferent;
+            this.afferent   = afferent;
+            this.depth      = depth;
+        }
+
+        /* Ce / (Ca + Ce), 0 stands for a stable class and 1 for an unstable one */
+        public double getInstability() {
+            final int total = this.efferent + this.afferent;
+            return total == 0 ? 0.0 : (double) this.efferent / total;
+        }
+    }
+}
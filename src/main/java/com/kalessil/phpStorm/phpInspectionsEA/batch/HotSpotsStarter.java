@@ -0,0 +1,98 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarterEx;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Headless entry point: <ide launcher> ea-hotspots <project path> <report path> [--format=csv|json]
+ *                                      [--sort=efferent|afferent|instability|depth] [--threads=N]
+ * Reports coupling and inheritance depth of every project class (see HotSpotsAnalyzer), the worst offenders first.
+ * The exit code is 0 on success and 2 on failures.
+ */
+public class HotSpotsStarter extends ApplicationStarterEx {
+    @Override
+    public String getCommandName() {
+        return "ea-hotspots";
+    }
+
+    @Override
+    public boolean isHeadless() {
+        return true;
+    }
+
+    @Override
+    public void premain(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: ea-hotspots <project path> <report path> [--format=csv|json] [--sort=efferent|afferent|instability|depth] [--threads=N]");
+            System.exit(2);
+        }
+    }
+
+    @Override
+    public void main(String[] args) {
+        final Map<String, String> options = BatchAnalyzerStarter.parseOptions(args);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            int exitCode;
+            try {
+                exitCode = this.run(args[1], args[2], options);
+            } catch (final Throwable failure) {
+                failure.printStackTrace();
+                exitCode = 2;
+            }
+            System.exit(exitCode);
+        });
+    }
+
+    private int run(@NotNull String projectPath, @NotNull String reportPath, @NotNull Map<String, String> options)
+            throws IOException, InterruptedException
+    {
+        final Project project = BatchAnalyzerStarter.openProject(projectPath);
+        if (project == null) {
+            System.err.println("Unable to open the project: " + projectPath);
+            return 2;
+        }
+        DumbService.getInstance(project).waitForSmartMode();
+
+        final int threads = options.containsKey("threads")
+                ? Integer.parseInt(options.get("threads"))
+                : Runtime.getRuntime().availableProcessors();
+        final HotSpotsAnalyzer analyzer = new HotSpotsAnalyzer(project, threads);
+
+        final long start                          = System.currentTimeMillis();
+        final List<String> classes                = analyzer.getClasses();
+        final List<HotSpotsAnalyzer.HotSpot> rows = analyzer.analyze(classes);
+        rows.sort(HotSpotsAnalyzer.order(options.getOrDefault("sort", "efferent")));
+
+        try (final Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportPath), StandardCharsets.UTF_8))) {
+            HotSpotsAnalyzer.write(options.getOrDefault("format", "csv"), rows, output);
+        }
+        final long duration = Math.max(1, System.currentTimeMillis() - start);
+
+        System.out.println(String.format(
+                "Measured %d project classes in %d ms (%.1f classes/sec) using %d threads.",
+                rows.size(),
+                duration,
+                rows.size() * 1000.0 / duration,
+                threads
+        ));
+
+        return 0;
+    }
+}
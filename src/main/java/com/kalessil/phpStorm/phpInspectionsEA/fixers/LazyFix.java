@@ -0,0 +1,247 @@
+package com.kalessil.phpStorm.phpInspectionsEA.fixers;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.QuickFix;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Defers a quick-fix construction (replacement code, fixes own state) until the fix is applied: most of reported
+ * problems never get fixed. Neither PSI nor smart pointers are kept, only the elements offsets and classes: when the
+ * fix is applied, the elements are located relatively to the problem element (descriptor.getPsiElement()), which
+ * the platform keeps track of. The fix is not built when any of the elements can not be located anymore. Fixes are
+ * not created at all while the batch analyzer is inspecting, its reports are not offering them.
+ */
+final public class LazyFix implements LocalQuickFix {
+    /* set by the batch analyzer for the inspecting thread */
+    private static final ThreadLocal<Boolean> isBatchMode = ThreadLocal.withInitial(() -> false);
+
+    private final String name;
+    private final String familyName;
+    private final Factory factory;
+    private final long stamp;
+    private final int[] starts;
+    private final int[] ends;
+    private final Class<?>[] classes;
+
+    /* the problem element start offset, known once the inspection has finished (see LazyFix.anchor) */
+    private volatile int anchor = -1;
+
+    @FunctionalInterface
+    public interface Factory {
+        @NotNull
+        LocalQuickFix create(@NotNull Elements elements);
+    }
+
+    private LazyFix(
+            @NotNull PsiFile file,
+            @NotNull String name,
+            @NotNull String familyName,
+            @NotNull Factory factory,
+            @NotNull PsiElement[] elements
+    ) {
+        this.name       = name;
+        this.familyName = familyName;
+        this.factory    = factory;
+        this.stamp      = file.getModificationStamp();
+        this.starts     = new int[elements.length];
+        this.ends       = new int[elements.length];
+        this.classes    = new Class<?>[elements.length];
+        for (int index = 0; index < elements.length; ++index) {
+            if (elements[index] != null) {
+                final TextRange range = elements[index].getTextRange();
+                this.starts[index]    = range.getStartOffset();
+                this.ends[index]      = range.getEndOffset();
+                this.classes[index]   = elements[index].getClass();
+            }
+        }
+    }
+
+    /* the name is the EA-prefixed title, the family name is the same; the factory must not capture PSI nor the holder */
+    @Nullable
+    public static LocalQuickFix of(
+            @NotNull ProblemsHolder holder,
+            @NotNull String title,
+            @NotNull Factory factory,
+            @NotNull PsiElement... elements
+    ) {
+        final String name = MessagesPresentationUtil.prefixWithEa(title);
+        return of(holder, name, name, factory, elements);
+    }
+
+    /* the elements must belong to the inspected file */
+    @Nullable
+    public static LocalQuickFix of(
+            @NotNull ProblemsHolder holder,
+            @NotNull String name,
+            @NotNull String familyName,
+            @NotNull Factory factory,
+            @NotNull PsiElement... elements
+    ) {
+        return isBatchMode.get() ? null : new LazyFix(holder.getFile(), name, familyName, factory, elements);
+    }
+
+    /* fixes not referencing PSI (e.g. replacement code) are cheap: created right away, unless in batch mode */
+    @Nullable
+    public static LocalQuickFix create(@NotNull ProblemsHolder holder, @NotNull Supplier<? extends LocalQuickFix> provider) {
+        return isBatchMode.get() ? null : provider.get();
+    }
+
+    /* runs the batch analyzer inspections: no fixes are created in the current thread meanwhile */
+    public static void withoutFixes(@NotNull Runnable runnable) {
+        isBatchMode.set(true);
+        try {
+            runnable.run();
+        } finally {
+            isBatchMode.set(false);
+        }
+    }
+
+    /* remembers the problem elements offsets, so the fixes survive the file modifications: called when inspection has finished */
+    public static void anchor(@NotNull Collection<ProblemDescriptor> descriptors) {
+        for (final ProblemDescriptor descriptor : descriptors) {
+            final QuickFix<?>[] fixes = descriptor.getFixes();
+            if (fixes != null) {
+                for (final QuickFix<?> fix : fixes) {
+                    if (fix instanceof LazyFix && ((LazyFix) fix).anchor < 0) {
+                        final PsiElement target = descriptor.getPsiElement();
+                        if (target != null) {
+                            ((LazyFix) fix).anchor = target.getTextRange().getStartOffset();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /* the wrapped fix for the problem element, null if any of the elements can not be located */
+    @Nullable
+    private LocalQuickFix getFix(@NotNull Project project, @NotNull PsiElement target) {
+        final PsiFile file = target.getContainingFile();
+        if (file == null) {
+            return null;
+        }
+
+        /* unless the file is unchanged, the elements moved together with the problem element */
+        final int shift;
+        if (file.getModificationStamp() == this.stamp) {
+            shift = 0;
+        } else if (this.anchor >= 0) {
+            shift = target.getTextRange().getStartOffset() - this.anchor;
+        } else {
+            return null;
+        }
+
+        final PsiElement[] elements = new PsiElement[this.classes.length];
+        for (int index = 0; index < this.classes.length; ++index) {
+            if (this.classes[index] != null) {
+                elements[index] = locate(file, this.starts[index] + shift, this.ends[index] + shift, this.classes[index]);
+                if (elements[index] == null) {
+                    return null;
+                }
+            }
+        }
+        return this.factory.create(new Elements(project, elements));
+    }
+
+    /* the element of exactly the same class and range, empty ones included */
+    @Nullable
+    private static PsiElement locate(@NotNull PsiFile file, int start, int end, @NotNull Class<?> clazz) {
+        if (start < 0 || end > file.getTextLength()) {
+            return null;
+        }
+        final int[] offsets = start == end && start > 0 ? new int[]{start, start - 1} : new int[]{start};
+        for (final int offset : offsets) {
+            for (PsiElement current = file.findElementAt(offset); current != null && current != file; current = current.getParent()) {
+                if (matches(current, start, end, clazz)) {
+                    return current;
+                }
+                if (start == end) {
+                    for (PsiElement child = current.getFirstChild(); child != null; child = child.getNextSibling()) {
+                        if (matches(child, start, end, clazz)) {
+                            return child;
+                        }
+                    }
+                } else if (current.getTextRange().getStartOffset() < start || current.getTextRange().getEndOffset() > end) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(@NotNull PsiElement element, int start, int end, @NotNull Class<?> clazz) {
+        final TextRange range = element.getTextRange();
+        return element.getClass() == clazz && range.getStartOffset() == start && range.getEndOffset() == end;
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @NotNull
+    @Override
+    public String getFamilyName() {
+        return this.familyName;
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        /* the problem is outdated: the fix would be applied to invalidated elements */
+        final PsiElement target = descriptor.getPsiElement();
+        final LocalQuickFix fix = target != null && target.isValid() && !project.isDisposed() ? this.getFix(project, target) : null;
+        if (fix != null) {
+            fix.applyFix(project, descriptor);
+        }
+    }
+
+    /* the located elements, in the order they were passed to LazyFix.of */
+    final public static class Elements {
+        private final Project project;
+        private final PsiElement[] elements;
+
+        private Elements(@NotNull Project project, @NotNull PsiElement[] elements) {
+            this.project  = project;
+            this.elements = elements;
+        }
+
+        @NotNull
+        public Project getProject() {
+            return this.project;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T extends PsiElement> T get(int index) {
+            return (T) this.elements[index];
+        }
+
+        @NotNull
+        public List<PsiElement> from(int index) {
+            return new ArrayList<>(Arrays.asList(this.elements).subList(index, this.elements.length));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.kalessil.phpStorm.phpInspectionsEA.gui;
+
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import com.intellij.ui.table.JBTable;
+import com.kalessil.phpStorm.phpInspectionsEA.profiler.InspectionsProfiler;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+public class InspectionsProfilerToolWindowFactory implements ToolWindowFactory, DumbAware {
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        final StatisticsModel model = new StatisticsModel();
+        final JBTable table         = new JBTable(model);
+        table.setAutoCreateRowSorter(true);
+
+        final JCheckBox enabled = new JCheckBox("Collect statistics", InspectionsProfiler.isEnabled());
+        enabled.addActionListener(event -> InspectionsProfiler.setEnabled(enabled.isSelected()));
+
+        final JButton refresh = new JButton("Refresh");
+        refresh.addActionListener(event -> model.refresh());
+
+        final JButton reset = new JButton("Reset");
+        reset.addActionListener(event -> {
+            InspectionsProfiler.reset();
+            model.refresh();
+        });
+
+        final JButton export = new JButton("Export JSON...");
+        export.addActionListener(event -> {
+            final FileSaverDescriptor descriptor = new FileSaverDescriptor("Export Inspections Profile", "", "json");
+            final VirtualFileWrapper target      = FileChooserFactory.getInstance()
+                    .createSaveFileDialog(descriptor, project)
+                    .save(null, "ea-inspections-profile.json");
+            if (target != null) {
+                try {
+                    Files.write(target.getFile().toPath(), InspectionsProfiler.exportJson().getBytes(StandardCharsets.UTF_8));
+                } catch (final IOException failure) {
+                    Messages.showErrorDialog(project, failure.getMessage(), "Export Inspections Profile");
+                }
+            }
+        });
+
+        final JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(enabled);
+        controls.add(refresh);
+        controls.add(reset);
+        controls.add(export);
+
+        final JPanel panel = new JPanel(new BorderLayout());
+        panel.add(controls, BorderLayout.NORTH);
+        panel.add(new JBScrollPane(table), BorderLayout.CENTER);
+
+        final Content content = ContentFactory.SERVICE.getInstance().createContent(panel, "", false);
+        toolWindow.getContentManager().addContent(content);
+        model.refresh();
+    }
+
+    private static final class StatisticsModel extends AbstractTableModel {
+        private static final String[] columns = {"Inspection", "Invocations", "Total, ms", "Allocated, KB", "Slowest elements"};
+
+        private List<InspectionsProfiler.Statistics> rows = new ArrayList<>();
+
+        void refresh() {
+            this.rows = InspectionsProfiler.getStatistics();
+            this.fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return this.rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 || column == 4 ? String.class : Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            final InspectionsProfiler.Statistics entry = this.rows.get(row);
+            switch (column) {
+                case 0:
+                    return entry.getShortName();
+                case 1:
+                    return entry.getInvocations();
+                case 2:
+                    return entry.getTotalNanos() / 1_000_000;
+                case 3:
+                    return entry.getAllocatedBytes() / 1024;
+                default:
+                    return entry.getSlowest().stream()
+                            .map(element -> String.format("%s %.3f ms", element.location, element.nanos / 1_000_000.0))
+                            .collect(Collectors.joining("; "));
+            }
+        }
+    }
+}
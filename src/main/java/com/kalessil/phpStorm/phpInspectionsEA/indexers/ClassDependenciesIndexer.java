@@ -0,0 +1,120 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.ClassReference;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpNamedElement;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Class-level dependencies graph, keys are lower-cased (PHP resolves names case-insensitively):
+ *  - "class:<fqn>" -> "abstract:<0|1>;fqn:<fqn as declared>;super:<super class fqn, empty if none>"
+ *  - "out:<fqn>"   -> comma-separated distinct FQNs of classes referenced by the class, can be empty (efferent edges)
+ *  - "in:<fqn>"    -> comma-separated FQNs of classes declared in the file and referencing the class (afferent edges)
+ */
+public class ClassDependenciesIndexer extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.class_dependencies");
+    private final KeyDescriptor<String> descriptor  = new EnumeratorStringDescriptor();
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return file -> {
+            final PsiFile psiFile = file.getPsiFile();
+            if (psiFile instanceof PhpFile) {
+                final Map<String, String> result = new THashMap<>();
+                for (final PhpNamedElement element : ((PhpFile) psiFile).getTopLevelDefs().values()) {
+                    if (element instanceof PhpClass) {
+                        extractMeta(result, (PhpClass) element);
+                    }
+                }
+                return result;
+            }
+
+            return new THashMap<>();
+        };
+    }
+
+    static private void extractMeta(@NotNull Map<String, String> storage, @NotNull PhpClass clazz) {
+        final String fqn      = clazz.getFQN();
+        final String key      = fqn.toLowerCase();
+        final String superFqn = clazz.getSuperFQN();
+        storage.put(
+                "class:" + key,
+                String.format("abstract:%s;fqn:%s;super:%s", clazz.isAbstract() ? 1 : 0, fqn, superFqn == null ? "" : superFqn)
+        );
+
+        final Set<String> references = new LinkedHashSet<>();
+        for (final ClassReference reference : PsiTreeUtil.findChildrenOfType(clazz, ClassReference.class)) {
+            final String referenceFqn = reference.getFQN();
+            if (referenceFqn != null && !referenceFqn.isEmpty()) {
+                references.add(referenceFqn);
+            }
+        }
+        storage.put("out:" + key, String.join(",", references));
+        if (!references.isEmpty()) {
+            for (final String reference : references) {
+                final String referenced = reference.toLowerCase();
+                if (!referenced.equals(key)) {
+                    storage.merge("in:" + referenced, fqn, (known, added) -> known + ',' + added);
+                }
+            }
+            references.clear();
+        }
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return descriptor;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == PhpFileType.INSTANCE;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+package com.kalessil.phpStorm.phpInspectionsEA.indexers;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.jetbrains.php.lang.PhpFileType;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.Method;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.jetbrains.php.lang.psi.elements.PhpNamedElement;
+import gnu.trove.THashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Direct inheritance edges with own methods, all names are lower-cased (PHP resolves them case-insensitively):
+ *  - "<parent fqn>"               -> comma-separated FQNs of direct children declared in the file
+ *  - "<parent fqn>.<method name>" -> comma-separated FQNs of direct children declaring the method
+ */
+public class OverriddenMethodsIndexer extends FileBasedIndexExtension<String, String> {
+    public static final ID<String, String> identity = ID.create("kalessil.phpStorm.phpInspectionsEA.overridden_methods");
+    private final KeyDescriptor<String> descriptor  = new EnumeratorStringDescriptor();
+
+    @NotNull
+    @Override
+    public ID<String, String> getName() {
+        return identity;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, String, FileContent> getIndexer() {
+        return file -> {
+            final PsiFile psiFile = file.getPsiFile();
+            if (psiFile instanceof PhpFile) {
+                final Map<String, String> result = new THashMap<>();
+                for (final PhpNamedElement element : ((PhpFile) psiFile).getTopLevelDefs().values()) {
+                    if (element instanceof PhpClass && !((PhpClass) element).isTrait()) {
+                        extractMeta(result, (PhpClass) element);
+                    }
+                }
+                return result;
+            }
+
+            return new THashMap<>();
+        };
+    }
+
+    static private void extractMeta(@NotNull Map<String, String> storage, @NotNull PhpClass clazz) {
+        final List<String> parents = new ArrayList<>();
+        final String superFqn      = clazz.getSuperFQN();
+        if (superFqn != null && !superFqn.isEmpty()) {
+            parents.add(superFqn.toLowerCase());
+        }
+        for (final String interfaceFqn : clazz.getInterfaceNames()) {
+            parents.add(interfaceFqn.toLowerCase());
+        }
+
+        if (!parents.isEmpty()) {
+            final String fqn = clazz.getFQN().toLowerCase();
+            for (final String parent : parents) {
+                storage.merge(parent, fqn, (known, added) -> known + ',' + added);
+                for (final Method method : clazz.getOwnMethods()) {
+                    storage.merge(
+                            String.format("%s.%s", parent, method.getName().toLowerCase()),
+                            fqn,
+                            (known, added) -> known + ',' + added
+                    );
+                }
+            }
+            parents.clear();
+        }
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return descriptor;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<String> getValueExternalizer() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return file -> file.getFileType() == PhpFileType.INSTANCE;
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -1,21 +1,17 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors;
 
 import com.intellij.codeInspection.ProblemsHolder;
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
-import com.jetbrains.php.lang.psi.elements.ArrayHashElement;
-import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
-import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
+import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ArrayKeysAnalysisUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.List;
+import javax.swing.*;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -27,6 +23,9 @@ import java.util.List;
  */
 
 final public class PackedHashtableOptimizationInspector extends BasePhpInspection {
+    // Inspection options.
+    public int ENTRIES_LIMIT = 100000;
+
     private static final String messageReorder        = "Reordering keys in natural ascending order would enable array optimizations here.";
     private static final String messageUseNumericKeys = "Using integer keys would enable array optimizations here.";
 
@@ -54,9 +53,9 @@ final public class PackedHashtableOptimizationInspector extends BasePhpInspectio
                 if (PhpLanguageLevel.get(holder.getProject()).below(PhpLanguageLevel.PHP700)) {
                     return;
                 }
-                /* requires at least 3 children - let array to grow enough */
-                final PsiElement[] children = expression.getChildren();
-                if (children.length < 3) {
+                /* requires at least 3 children - let array to grow enough; generated huge arrays are skipped */
+                final int entries = ArrayKeysAnalysisUtil.countEntries(expression, ENTRIES_LIMIT);
+                if (entries < 3 || entries > ENTRIES_LIMIT) {
                     return;
                 }
 
@@ -65,59 +64,13 @@ final public class PackedHashtableOptimizationInspector extends BasePhpInspectio
                     return;
                 }
 
-                /* step 1: collect indexes and verify array structure */
-                final List<PhpPsiElement> indexes = new ArrayList<>();
-                for (final PsiElement pairCandidate : children) {
-                    if (pairCandidate instanceof ArrayHashElement) {
-                        final PhpPsiElement key = ((ArrayHashElement) pairCandidate).getKey();
-                        if ((key instanceof StringLiteralExpression && key.getFirstPsiChild() == null) || OpenapiTypesUtil.isNumber(key)) {
-                            indexes.add(key);
-                            continue;
-                        }
-                    }
-                    break;
-                }
-                if (indexes.size() != children.length) {
-                    indexes.clear();
+                /* all keys must be integers or integer-like strings ('01' and etc cases can not be converted) */
+                final ArrayKeysAnalysisUtil.Summary summary = ArrayKeysAnalysisUtil.getSummary(expression);
+                if (!summary.hasIntegerKeys()) {
                     return;
                 }
-
-                /* step 2: analyze collected indexes */
-                // if string literal is not numeric => stop
-                boolean hasStringIndexes       = false;
-                boolean hasIncreasingIndexes   = true;
-                int lastIndex                  = Integer.MIN_VALUE;
-                for (PhpPsiElement index : indexes) {
-                    final String numericIndex;
-                    final int integerIndex;
-
-                    /* extract text representation of the index */
-                    if (index instanceof StringLiteralExpression) {
-                        hasStringIndexes = true;
-                        numericIndex     = ((StringLiteralExpression) index).getContents();
-
-                        /* '01' and etc cases can not be converted */
-                        if (numericIndex.length() > 1 && '0' == numericIndex.charAt(0)) {
-                            indexes.clear();
-                            return;
-                        }
-                    } else {
-                        numericIndex = index.getText().replaceAll("\\s+", "");
-                    }
-
-                    /* try converting into integer */
-                    try {
-                        integerIndex = Integer.parseInt(numericIndex);
-                    } catch (NumberFormatException error) {
-                        indexes.clear();
-                        return;
-                    }
-
-                    if (integerIndex < lastIndex) {
-                        hasIncreasingIndexes = false;
-                    }
-                    lastIndex = integerIndex;
-                }
+                final boolean hasIncreasingIndexes = summary.hasIncreasingKeys();
+                final boolean hasStringIndexes     = summary.hasStringKeys();
 
                 /* report if criteria are met */
                 if (!hasIncreasingIndexes) {
@@ -135,4 +88,10 @@ final public class PackedHashtableOptimizationInspector extends BasePhpInspectio
             }
         };
     }
+
+    public JComponent createOptionsPanel() {
+        return OptionsComponent.create((component) ->
+            component.addSpinner("Skip arrays with more entries than:", ENTRIES_LIMIT, (input) -> ENTRIES_LIMIT = input)
+        );
+    }
 }
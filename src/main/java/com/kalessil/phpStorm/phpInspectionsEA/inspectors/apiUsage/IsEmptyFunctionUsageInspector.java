@@ -6,7 +6,6 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
-import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
@@ -16,8 +15,6 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
-import java.util.HashSet;
-import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -68,13 +65,9 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
                     final boolean isInverted   = OpenapiTypesUtil.is(operation, PhpTokenTypes.opNOT);
 
                     /* extract types */
-                    final Set<String> resolvedTypes = new HashSet<>();
-                    if (subject instanceof PhpTypedElement) {
-                        final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) subject, holder.getProject());
-                        if (resolved != null) {
-                            resolved.filterUnknown().getTypes().forEach(t -> resolvedTypes.add(Types.getType(t)));
-                        }
-                    }
+                    final TypeSet resolvedTypes = subject instanceof PhpTypedElement
+                            ? OpenapiResolveUtil.resolveTypeSet((PhpTypedElement) subject, holder.getProject())
+                            : TypeSet.EMPTY;
 
                     /* Case 1: empty(array) - hidden logic - empty array */
                     if (this.isArrayType(resolvedTypes)) {
@@ -90,8 +83,6 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
                                     new UseCountFix(replacement)
                             );
                         }
-                        resolvedTypes.clear();
-
                         return;
                     }
 
@@ -118,12 +109,8 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
                                 );
                             }
                         }
-                        resolvedTypes.clear();
-
                         return;
                     }
-
-                    resolvedTypes.clear();
                 }
 
                 if (REPORT_EMPTY_USAGE) {
@@ -136,18 +123,14 @@ public class IsEmptyFunctionUsageInspector extends BasePhpInspection {
             }
 
             /** check if only array type possible */
-            private boolean isArrayType(@NotNull Set<String> resolvedTypesSet) {
-                return resolvedTypesSet.size() == 1 && resolvedTypesSet.contains(Types.strArray);
+            private boolean isArrayType(@NotNull TypeSet resolvedTypesSet) {
+                return resolvedTypesSet.isExactly(TypeSet.ARRAY);
             }
 
-            private boolean isNullableCoreType(@NotNull Set<String> resolvedTypesSet) {
+            private boolean isNullableCoreType(@NotNull TypeSet resolvedTypesSet) {
                 boolean result = false;
-                if (resolvedTypesSet.size() == 2 && resolvedTypesSet.contains(Types.strNull)) {
-                    result = resolvedTypesSet.contains(Types.strInteger) ||
-                             resolvedTypesSet.contains(Types.strFloat)   ||
-                             resolvedTypesSet.contains(Types.strBoolean) ||
-                             resolvedTypesSet.contains(Types.strResource);
-
+                if (resolvedTypesSet.size() == 2 && resolvedTypesSet.has(TypeSet.NULL)) {
+                    result = resolvedTypesSet.hasAny(TypeSet.INTEGER | TypeSet.FLOAT | TypeSet.BOOLEAN | TypeSet.RESOURCE);
                 }
                 return result;
             }
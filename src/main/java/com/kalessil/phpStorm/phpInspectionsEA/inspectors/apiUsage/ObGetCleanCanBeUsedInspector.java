@@ -11,6 +11,7 @@ import com.intellij.psi.SmartPsiElementPointer;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
@@ -61,7 +62,7 @@ public class ObGetCleanCanBeUsedInspector extends BasePhpInspection {
                                             holder.registerProblem(
                                                     call,
                                                     MessagesPresentationUtil.prefixWithEa(message),
-                                                    new SimplifyFixer(holder.getProject(), parent)
+                                                    LazyFix.of(holder, SimplifyFixer.title, elements -> new SimplifyFixer(elements.getProject(), elements.get(0)), parent)
                                             );
                                         }
                                         return;
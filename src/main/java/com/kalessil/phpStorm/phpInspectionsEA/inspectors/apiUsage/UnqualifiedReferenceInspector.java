@@ -47,6 +47,7 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
     final private static Set<String> falsePositives              = new HashSet<>();
     final private static Set<String> advancedOpcode              = new HashSet<>();
     final private static Map<String, Integer> callbacksPositions = new HashMap<>();
+    final private static Set<String> handledFunctions            = new HashSet<>();
     static {
         falsePositives.add("true");
         falsePositives.add("TRUE");
@@ -111,6 +112,9 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
         advancedOpcode.add("constant");
         advancedOpcode.add("define");
         advancedOpcode.add("array_key_exists");
+
+        handledFunctions.addAll(advancedOpcode);
+        handledFunctions.addAll(callbacksPositions.keySet());
     }
 
     final private static Condition<PsiElement> PARENT_NAMESPACE = new Condition<PsiElement>() {
@@ -130,6 +134,12 @@ public class UnqualifiedReferenceInspector extends BasePhpInspection {
         return "Unqualified function/constant reference";
     }
 
+    @Nullable
+    @Override
+    protected Set<String> getHandledFunctionNames() {
+        return REPORT_ALL_FUNCTIONS ? null : handledFunctions;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
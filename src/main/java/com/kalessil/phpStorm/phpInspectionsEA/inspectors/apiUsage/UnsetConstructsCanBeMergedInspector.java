@@ -11,6 +11,7 @@ import com.intellij.psi.SmartPsiElementPointer;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.PhpUnset;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
@@ -59,7 +60,7 @@ public class UnsetConstructsCanBeMergedInspector extends BasePhpInspection {
                     holder.registerProblem(
                             unsetStatement,
                             MessagesPresentationUtil.prefixWithEa(message),
-                            new TheLocalFix(holder.getProject(), unsetStatement)
+                            LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0)), unsetStatement)
                     );
                 }
             }
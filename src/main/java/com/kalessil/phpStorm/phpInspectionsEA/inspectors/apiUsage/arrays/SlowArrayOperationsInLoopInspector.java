@@ -15,6 +15,7 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
@@ -22,6 +23,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -67,6 +69,12 @@ public class SlowArrayOperationsInLoopInspector extends BasePhpInspection {
         slowFunctions.add("mb_strlen");
     }
 
+    @Nullable
+    @Override
+    protected Set<String> getHandledFunctionNames() {
+        return greedyFunctions;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
@@ -74,7 +82,7 @@ public class SlowArrayOperationsInLoopInspector extends BasePhpInspection {
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && greedyFunctions.contains(functionName)) {
+                if (functionName != null) {
                     final PsiElement[] arguments = reference.getParameters();
                     if (arguments.length > 1 && !(arguments[0] instanceof ArrayAccessExpression)) {
                         PsiElement parent = reference.getParent();
@@ -131,7 +139,13 @@ public class SlowArrayOperationsInLoopInspector extends BasePhpInspection {
                                         condition,
                                         String.format(MessagesPresentationUtil.prefixWithEa(messageSlowPattern), functionName),
                                         ProblemHighlightType.GENERIC_ERROR,
-                                        new ReduceRepetitiveCallsInForFix(holder.getProject(), forStatement, condition)
+                                        LazyFix.of(
+                                                holder,
+                                                ReduceRepetitiveCallsInForFix.title,
+                                                elements -> new ReduceRepetitiveCallsInForFix(elements.getProject(), elements.get(0), elements.get(1)),
+                                                forStatement,
+                                                condition
+                                        )
                                 );
                             }
                         });
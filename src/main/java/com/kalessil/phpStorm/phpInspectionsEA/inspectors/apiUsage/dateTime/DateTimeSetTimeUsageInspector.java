@@ -13,6 +13,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -26,6 +30,9 @@ import org.jetbrains.annotations.NotNull;
 public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
     private static final String message = "The call will return false ('microseconds' parameter is available in PHP 7.1+).";
 
+    private static final Set<String> functions = Collections.singleton("date_time_set");
+    private static final Set<String> methods   = Collections.singleton("setTime");
+
     @NotNull
     @Override
     public String getShortName() {
@@ -38,6 +45,18 @@ public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
         return "'DateTime::setTime(...)' usage correctness";
     }
 
+    @Nullable
+    @Override
+    protected Set<String> getHandledFunctionNames() {
+        return functions;
+    }
+
+    @Nullable
+    @Override
+    protected Set<String> getHandledMethodNames() {
+        return methods;
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
@@ -45,17 +64,14 @@ public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
             @Override
             public void visitPhpMethodReference(@NotNull MethodReference reference) {
                 if (PhpLanguageLevel.get(holder.getProject()).below(PhpLanguageLevel.PHP710)) {
-                    final String methodName = reference.getName();
-                    if (methodName != null && methodName.equals("setTime")) {
-                        final PsiElement[] arguments = reference.getParameters();
-                        if (arguments.length == 4 && arguments[3] instanceof PhpPsiElement) {
-                            final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
-                            if (resolved instanceof Method && ((Method) resolved).getFQN().equals("\\DateTime.setTime")) {
-                                holder.registerProblem(
-                                        arguments[3],
-                                        MessagesPresentationUtil.prefixWithEa(message)
-                                );
-                            }
+                    final PsiElement[] arguments = reference.getParameters();
+                    if (arguments.length == 4 && arguments[3] instanceof PhpPsiElement) {
+                        final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
+                        if (resolved instanceof Method && ((Method) resolved).getFQN().equals("\\DateTime.setTime")) {
+                            holder.registerProblem(
+                                    arguments[3],
+                                    MessagesPresentationUtil.prefixWithEa(message)
+                            );
                         }
                     }
                 }
@@ -64,15 +80,12 @@ public class DateTimeSetTimeUsageInspector extends BasePhpInspection {
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 if (PhpLanguageLevel.get(holder.getProject()).below(PhpLanguageLevel.PHP710)) {
-                    final String functionName = reference.getName();
-                    if (functionName != null && functionName.equals("date_time_set")) {
-                        final PsiElement[] arguments = reference.getParameters();
-                        if (arguments.length == 5 && this.isFromRootNamespace(reference)) {
-                            holder.registerProblem(
-                                    arguments[4],
-                                    MessagesPresentationUtil.prefixWithEa(message)
-                            );
-                        }
+                    final PsiElement[] arguments = reference.getParameters();
+                    if (arguments.length == 5 && this.isFromRootNamespace(reference)) {
+                        holder.registerProblem(
+                                arguments[4],
+                                MessagesPresentationUtil.prefixWithEa(message)
+                        );
                     }
                 }
             }
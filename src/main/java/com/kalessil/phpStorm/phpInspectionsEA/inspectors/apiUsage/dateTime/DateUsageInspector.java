@@ -10,6 +10,7 @@ import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.SmartPointerManager;
 import com.intellij.psi.SmartPsiElementPointer;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
@@ -59,7 +60,13 @@ public class DateUsageInspector extends BasePhpInspection {
                                         inner,
                                         MessagesPresentationUtil.prefixWithEa(messageDropTime),
                                         ProblemHighlightType.LIKE_UNUSED_SYMBOL,
-                                        new DropTimeFunctionCallLocalFix(holder.getProject(), arguments[0], arguments[1])
+                                        LazyFix.of(
+                                                holder,
+                                                DropTimeFunctionCallLocalFix.title,
+                                                elements -> new DropTimeFunctionCallLocalFix(elements.getProject(), elements.get(0), elements.get(1)),
+                                                arguments[0],
+                                                arguments[1]
+                                        )
                                 );
                             }
                         }
@@ -12,6 +12,7 @@ import com.intellij.psi.SmartPsiElementPointer;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
@@ -71,7 +72,7 @@ public class FopenBinaryUnsafeUsageInspector extends BasePhpInspection {
                                             arguments[1],
                                             MessagesPresentationUtil.prefixWithEa(messageMisplacedBinaryMode),
                                             ProblemHighlightType.GENERIC_ERROR,
-                                            new TheLocalFix(holder.getProject(), mode)
+                                            LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0)), mode)
                                     );
                                 }
                             } else if (modeText.indexOf('t') != -1) {
@@ -79,7 +80,7 @@ public class FopenBinaryUnsafeUsageInspector extends BasePhpInspection {
                                     holder.registerProblem(
                                             arguments[1],
                                             MessagesPresentationUtil.prefixWithEa(messageReplaceWithBinaryMode),
-                                            new TheLocalFix(holder.getProject(), mode)
+                                            LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0)), mode)
                                     );
                                 }
                             } else {
@@ -87,7 +88,7 @@ public class FopenBinaryUnsafeUsageInspector extends BasePhpInspection {
                                     holder.registerProblem(
                                             arguments[1],
                                             MessagesPresentationUtil.prefixWithEa(messageUseBinaryMode),
-                                            new TheLocalFix(holder.getProject(), mode)
+                                            LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0)), mode)
                                     );
                                 }
                             }
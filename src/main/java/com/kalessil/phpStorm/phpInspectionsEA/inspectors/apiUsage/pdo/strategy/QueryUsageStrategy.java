@@ -12,6 +12,7 @@ import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.psi.elements.AssignmentExpression;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.jetbrains.php.lang.psi.elements.Statement;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.pdo.utils.MethodIdentityUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
@@ -63,7 +64,7 @@ final public class QueryUsageStrategy {
                     holder.registerProblem(
                             reference,
                             MessagesPresentationUtil.prefixWithEa(message),
-                            new UseQueryFix(holder.getProject(), precedingReference)
+                            LazyFix.of(holder, UseQueryFix.title, elements -> new UseQueryFix(elements.getProject(), elements.get(0)), precedingReference)
                     );
                 }
 
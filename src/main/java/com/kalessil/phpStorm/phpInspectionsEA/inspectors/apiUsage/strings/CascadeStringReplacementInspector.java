@@ -10,6 +10,7 @@ import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
@@ -97,7 +98,13 @@ public class CascadeStringReplacementInspector extends BasePhpInspection {
                                 holder.registerProblem(
                                         functionCall,
                                         MessagesPresentationUtil.prefixWithEa(messageCascading),
-                                        new MergeStringReplaceCallsFix(holder.getProject(), functionCall, previousCall, USE_SHORT_ARRAYS_SYNTAX)
+                                        LazyFix.of(
+                                                holder,
+                                                MergeStringReplaceCallsFix.title,
+                                                elements -> new MergeStringReplaceCallsFix(elements.getProject(), elements.get(0), elements.get(1), USE_SHORT_ARRAYS_SYNTAX),
+                                                functionCall,
+                                                previousCall
+                                        )
                                 );
                             }
                         }
@@ -129,11 +136,12 @@ public class CascadeStringReplacementInspector extends BasePhpInspection {
                     }
                 }
                 if (replacements.size() == 1) {
+                    final String replacement = replacements.iterator().next();
                     holder.registerProblem(
                             candidate,
                             MessagesPresentationUtil.prefixWithEa(messageReplacements),
                             ProblemHighlightType.WEAK_WARNING,
-                            new SimplifyReplacementFix(replacements.iterator().next())
+                            LazyFix.create(holder, () -> new SimplifyReplacementFix(replacement))
                     );
                 }
                 replacements.clear();
@@ -147,7 +155,13 @@ public class CascadeStringReplacementInspector extends BasePhpInspection {
                         holder.registerProblem(
                                 callCandidate,
                                 MessagesPresentationUtil.prefixWithEa(messageNesting),
-                                new MergeStringReplaceCallsFix(project, parentCall, call, USE_SHORT_ARRAYS_SYNTAX)
+                                LazyFix.of(
+                                        holder,
+                                        MergeStringReplaceCallsFix.title,
+                                        elements -> new MergeStringReplaceCallsFix(elements.getProject(), elements.get(0), elements.get(1), USE_SHORT_ARRAYS_SYNTAX),
+                                        parentCall,
+                                        call
+                                )
                         );
                     }
                 }
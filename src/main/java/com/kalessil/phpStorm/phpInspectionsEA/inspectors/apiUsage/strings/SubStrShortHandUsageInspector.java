@@ -13,6 +13,7 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.BinaryExpression;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
@@ -87,7 +88,7 @@ public class SubStrShortHandUsageInspector extends BasePhpInspection {
                                                     arguments[2],
                                                     String.format(MessagesPresentationUtil.prefixWithEa(patternDropLength), arguments[2].getText()),
                                                     ProblemHighlightType.LIKE_UNUSED_SYMBOL,
-                                                    new DropThirdParameterFix(holder.getProject(), reference)
+                                                    LazyFix.of(holder, DropThirdParameterFix.title, elements -> new DropThirdParameterFix(elements.getProject(), elements.get(0)), reference)
                                             );
                                         } else if (OpenapiTypesUtil.isNumber(startOffset) && OpenapiTypesUtil.isNumber(right)) {
                                             try {
@@ -97,7 +98,7 @@ public class SubStrShortHandUsageInspector extends BasePhpInspection {
                                                     holder.registerProblem(
                                                             binary,
                                                             String.format(MessagesPresentationUtil.prefixWithEa(patternSimplifyLength), offset),
-                                                            new SimplifyFix(String.valueOf(offset))
+                                                            LazyFix.create(holder, () -> new SimplifyFix(String.valueOf(offset)))
                                                     );
                                                 } else {
                                                     /* case: third parameter is not needed at all */
@@ -105,7 +106,7 @@ public class SubStrShortHandUsageInspector extends BasePhpInspection {
                                                             arguments[2],
                                                             String.format(MessagesPresentationUtil.prefixWithEa(patternDropLength), arguments[2].getText()),
                                                             ProblemHighlightType.LIKE_UNUSED_SYMBOL,
-                                                            new DropThirdParameterFix(holder.getProject(), reference)
+                                                            LazyFix.of(holder, DropThirdParameterFix.title, elements -> new DropThirdParameterFix(elements.getProject(), elements.get(0)), reference)
                                                     );
                                                 }
                                             } catch (final NumberFormatException expected) {
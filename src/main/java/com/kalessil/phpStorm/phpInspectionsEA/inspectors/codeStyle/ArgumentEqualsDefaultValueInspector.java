@@ -14,6 +14,7 @@ import com.jetbrains.php.lang.psi.elements.Function;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.jetbrains.php.lang.psi.elements.Parameter;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.indexers.NamedCallableParametersMetaIndexer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
@@ -117,6 +118,8 @@ public class ArgumentEqualsDefaultValueInspector extends BasePhpInspection {
                         }
 
                         if (reportFrom != null) {
+                            final PsiElement from = reportFrom;
+                            final PsiElement to   = reportTo;
                             holder.registerProblem(
                                     holder.getManager().createProblemDescriptor(
                                             reportFrom,
@@ -124,7 +127,7 @@ public class ArgumentEqualsDefaultValueInspector extends BasePhpInspection {
                                             MessagesPresentationUtil.prefixWithEa(message),
                                             ProblemHighlightType.LIKE_UNUSED_SYMBOL,
                                             onTheFly,
-                                            new TheLocalFix(holder.getProject(), reportFrom, reportTo)
+                                            LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0), elements.get(1)), from, to)
                                     )
                             );
                         }
@@ -3,7 +3,6 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.codeStyle;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
-import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
@@ -11,10 +10,9 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.OverriddenMethodsUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -56,7 +54,7 @@ public class MissUsingParentKeywordInspector extends BasePhpInspection {
                             final String referenceName = reference.getName();
                             if (referenceName != null && !referenceName.equals(methodName)) {
                                 final boolean isTarget = clazz.findOwnMethodByName(referenceName) == null &&
-                                                         !this.isOverridden(clazz, referenceName);
+                                                         !OverriddenMethodsUtil.isOverridden(clazz, referenceName);
                                 if (isTarget) {
                                     final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
                                     if (resolved instanceof Method) {
@@ -77,15 +75,6 @@ public class MissUsingParentKeywordInspector extends BasePhpInspection {
                     }
                 }
             }
-
-            final boolean isOverridden(@NotNull PhpClass clazz, @NotNull String methodName) {
-                if (!clazz.isFinal()) {
-                    final PhpIndex index                = PhpIndex.getInstance(holder.getProject());
-                    final Collection<PhpClass> children = OpenapiResolveUtil.resolveChildClasses(clazz.getFQN(), index);
-                    return children.stream().anyMatch(c -> c.findOwnMethodByName(methodName) != null);
-                }
-                return false;
-            }
         };
     }
 
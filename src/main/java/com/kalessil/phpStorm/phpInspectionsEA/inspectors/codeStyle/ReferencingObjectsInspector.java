@@ -10,6 +10,7 @@ import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
@@ -100,7 +101,7 @@ public class ReferencingObjectsInspector extends BasePhpInspection {
                                 holder.registerProblem(
                                         parameter,
                                         String.format(MessagesPresentationUtil.prefixWithEa(messageParameter), parameter.getName()),
-                                        new ParameterLocalFix(holder.getProject(), parameter)
+                                        LazyFix.of(holder, ParameterLocalFix.title, elements -> new ParameterLocalFix(elements.getProject(), elements.get(0)), parameter)
                                 )
                         );
                 }
@@ -113,7 +114,7 @@ public class ReferencingObjectsInspector extends BasePhpInspection {
                     holder.registerProblem(
                             expression,
                             MessagesPresentationUtil.prefixWithEa(messageAssignment),
-                            new InstantiationLocalFix()
+                            LazyFix.create(holder, () -> new InstantiationLocalFix())
                     );
                 }
             }
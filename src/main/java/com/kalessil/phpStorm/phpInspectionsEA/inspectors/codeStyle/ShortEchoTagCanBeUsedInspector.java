@@ -9,6 +9,7 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.PhpEchoStatement;
 import com.jetbrains.php.lang.psi.elements.PhpPrintExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
@@ -71,7 +72,13 @@ public class ShortEchoTagCanBeUsedInspector extends BasePhpInspection {
                         holder.registerProblem(
                                 target.getFirstChild(),
                                 MessagesPresentationUtil.prefixWithEa(message),
-                                new UseShortEchoTagInspector(holder.getProject(), openingTag, context)
+                                LazyFix.of(
+                                        holder,
+                                        UseShortEchoTagInspector.title,
+                                        elements -> new UseShortEchoTagInspector(elements.getProject(), elements.get(0), elements.get(1)),
+                                        openingTag,
+                                        context
+                                )
                         );
                     }
                 }
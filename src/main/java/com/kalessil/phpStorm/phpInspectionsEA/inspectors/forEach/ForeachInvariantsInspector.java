@@ -9,10 +9,10 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.SmartPointerManager;
 import com.intellij.psi.SmartPsiElementPointer;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
@@ -65,7 +65,15 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
                                         holder.registerProblem(
                                                 expression.getFirstChild(),
                                                 MessagesPresentationUtil.prefixWithEa(foreachInvariant),
-                                                new UseForeachFix(holder.getProject(), expression, indexVariable, null, container, limit)
+                                                LazyFix.of(
+                                                        holder,
+                                                        UseForeachFix.title,
+                                                        elements -> new UseForeachFix(elements.getProject(), elements.get(0), elements.get(1), null, elements.get(2), elements.get(3)),
+                                                        expression,
+                                                        indexVariable,
+                                                        container,
+                                                        limit
+                                                )
                                         );
                                 }
                             }
@@ -108,16 +116,24 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
                         if (parent instanceof While || parent instanceof For) {
                             final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(parent);
                             if (body != null && ExpressionSemanticUtil.countExpressionsInGroup(body) > 0) {
-                                UseForeachFix fixer = null;
+                                LocalQuickFix fixer = null;
                                 if (parent instanceof While) {
                                     final List<PhpPsiElement> variables = assignmentExpression.getVariables();
                                     if (variables.size() == 2) {
-                                        fixer = new UseForeachFix(holder.getProject(), parent, variables.get(0), variables.get(1), arguments[0], null);
+                                        fixer = LazyFix.of(
+                                                holder,
+                                                UseForeachFix.title,
+                                                elements -> new UseForeachFix(elements.getProject(), elements.get(0), elements.get(1), elements.get(2), elements.get(3), null),
+                                                parent,
+                                                variables.get(0),
+                                                variables.get(1),
+                                                arguments[0]
+                                        );
                                     }
                                 }
 
                                 final PsiElement container    = arguments[0];
-                                final boolean isContainerUsed = PsiTreeUtil.findChildrenOfType(body, container.getClass()).stream()
+                                final boolean isContainerUsed = PsiNodesInventoryUtil.findChildrenOfType(body, container.getClass()).stream()
                                         .anyMatch(candidate -> OpenapiEquivalenceUtil.areEqual(candidate, container));
                                 if (!isContainerUsed) {
                                     holder.registerProblem(
@@ -170,7 +186,7 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
 
             private PsiElement getContainerByIndex(@NotNull GroupStatement body, @NotNull PsiElement variable) {
                 final Map<String, PsiElement> containers = new HashMap<>();
-                for (final ArrayAccessExpression offset : PsiTreeUtil.findChildrenOfType(body, ArrayAccessExpression.class)) {
+                for (final ArrayAccessExpression offset : PsiNodesInventoryUtil.findChildrenOfType(body, ArrayAccessExpression.class)) {
                     final ArrayIndex index = offset.getIndex();
                     final PsiElement value = index == null ? null : index.getValue();
                     if (value instanceof Variable && OpenapiEquivalenceUtil.areEqual(variable, value)) {
@@ -294,7 +310,7 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
             if (limit != null && scope != null) {
                 final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(scope);
                 if (body != null) {
-                    final List<PsiElement> matches = PsiTreeUtil.findChildrenOfType(body, limit.getClass()).stream()
+                    final List<PsiElement> matches = PsiNodesInventoryUtil.findChildrenOfType(body, limit.getClass()).stream()
                             .filter(c -> OpenapiEquivalenceUtil.areEqual(c, limit))
                             .collect(Collectors.toList());
                     if (matches.size() == 1) {
@@ -318,7 +334,7 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
             final Variable value   = loop.getValue();
             final String indexName = index == null ? null : index.getName();
             if (indexName != null && value != null) {
-                final long usagesCount = PsiTreeUtil.findChildrenOfType(body, Variable.class).stream()
+                final long usagesCount = PsiNodesInventoryUtil.findChildrenOfType(body, Variable.class).stream()
                         .filter(variable -> indexName.equals(variable.getName()))
                         .count();
                 if (usagesCount == 0) {
@@ -333,7 +349,7 @@ public class ForeachInvariantsInspector extends BasePhpInspection {
             @NotNull PsiElement index,
             @NotNull PsiElement replacement
         ) {
-            PsiTreeUtil.findChildrenOfType(body, ArrayAccessExpression.class).stream()
+            PsiNodesInventoryUtil.findChildrenOfType(body, ArrayAccessExpression.class).stream()
                 .filter(offset  -> {
                     final PsiElement parent = offset.getParent();
                     if (
@@ -12,6 +12,7 @@ import com.intellij.psi.tree.IElementType;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
@@ -108,10 +109,11 @@ public class IfReturnReturnSimplificationInspector extends BasePhpInspection {
 
                                     /* final reporting step */
                                     final String replacement = String.format(isReverse ? "return !(%s)" : "return %s", cond.getText());
+                                    final PsiElement last    = elseBranch == null ? second : statement;
                                     holder.registerProblem(
                                             statement.getFirstChild(),
                                             MessagesPresentationUtil.prefixWithEa(String.format(messagePattern, replacement)),
-                                            new SimplifyFix(holder.getProject(), statement, elseBranch == null ? second : statement, replacement)
+                                            LazyFix.of(holder, SimplifyFix.title, elements -> new SimplifyFix(elements.getProject(), elements.get(0), elements.get(1), replacement), statement, last)
                                     );
                                 }
                             }
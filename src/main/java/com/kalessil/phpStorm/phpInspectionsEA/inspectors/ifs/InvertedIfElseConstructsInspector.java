@@ -11,6 +11,7 @@ import com.intellij.psi.SmartPsiElementPointer;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
@@ -71,7 +72,15 @@ public class InvertedIfElseConstructsInspector extends BasePhpInspection {
                                     holder.registerProblem(
                                             elseStatement.getFirstChild(),
                                             MessagesPresentationUtil.prefixWithEa(message),
-                                            new NormalizeWorkflowFix(holder.getProject(), (GroupStatement) ifBody, (GroupStatement) elseBody, extractedCondition, newCondition)
+                                            LazyFix.of(
+                                                    holder,
+                                                    NormalizeWorkflowFix.title,
+                                                    NormalizeWorkflowFix.title,
+                                                    elements -> new NormalizeWorkflowFix(elements.getProject(), elements.get(0), elements.get(1), elements.get(2), newCondition),
+                                                    ifBody,
+                                                    elseBody,
+                                                    extractedCondition
+                                            )
                                     );
                                 }
                             }
@@ -96,7 +105,15 @@ public class InvertedIfElseConstructsInspector extends BasePhpInspection {
                                         holder.registerProblem(
                                                 elseStatement.getFirstChild(),
                                                 MessagesPresentationUtil.prefixWithEa(message),
-                                                new NormalizeWorkflowFix(holder.getProject(), (GroupStatement) ifBody, (GroupStatement) elseBody, extractedCondition, newCondition)
+                                                LazyFix.of(
+                                                        holder,
+                                                        NormalizeWorkflowFix.title,
+                                                        NormalizeWorkflowFix.title,
+                                                        elements -> new NormalizeWorkflowFix(elements.getProject(), elements.get(0), elements.get(1), elements.get(2), newCondition),
+                                                        ifBody,
+                                                        elseBody,
+                                                        extractedCondition
+                                                )
                                         );
                                     }
                                 }
@@ -109,6 +126,8 @@ public class InvertedIfElseConstructsInspector extends BasePhpInspection {
     }
 
     private static final class NormalizeWorkflowFix implements LocalQuickFix {
+        private static final String title = "Flip if-else to avoid not-operator";
+
         private final SmartPsiElementPointer<GroupStatement> ifBody;
         private final SmartPsiElementPointer<GroupStatement> elseBody;
         private final SmartPsiElementPointer<PsiElement> condition;
@@ -127,7 +146,7 @@ public class InvertedIfElseConstructsInspector extends BasePhpInspection {
         @NotNull
         @Override
         public String getFamilyName() {
-            return "Flip if-else to avoid not-operator";
+            return title;
         }
 
         @NotNull
@@ -9,6 +9,7 @@ import com.intellij.psi.tree.IElementType;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
@@ -65,7 +66,14 @@ public class NestedPositiveIfStatementsInspector extends BasePhpInspection {
                                 holder.registerProblem(
                                         expression.getFirstChild(),
                                         MessagesPresentationUtil.prefixWithEa(message),
-                                        new MergeIntoParentIfFix(holder.getProject(), expression, parentIf)
+                                        LazyFix.of(
+                                                holder,
+                                                MessagesPresentationUtil.prefixWithEa(MergeIntoParentIfFix.title),
+                                                MessagesPresentationUtil.prefixWithEa(MergeIntoParentIfFix.family),
+                                                elements -> new MergeIntoParentIfFix(elements.getProject(), elements.get(0), elements.get(1)),
+                                                expression,
+                                                parentIf
+                                        )
                                 );
                             }
                         }
@@ -75,7 +83,14 @@ public class NestedPositiveIfStatementsInspector extends BasePhpInspection {
                             holder.registerProblem(
                                     expression.getFirstChild(),
                                     MessagesPresentationUtil.prefixWithEa(message),
-                                    new MergeIntoParentElseFix(holder.getProject(), expression, (Else) parentConstruct)
+                                    LazyFix.of(
+                                            holder,
+                                            MessagesPresentationUtil.prefixWithEa(MergeIntoParentElseFix.title),
+                                            MessagesPresentationUtil.prefixWithEa(MergeIntoParentElseFix.family),
+                                            elements -> new MergeIntoParentElseFix(elements.getProject(), elements.get(0), elements.get(1)),
+                                            expression,
+                                            parentConstruct
+                                    )
                             );
                         }
                     }
@@ -120,7 +135,8 @@ public class NestedPositiveIfStatementsInspector extends BasePhpInspection {
     }
 
     private static final class MergeIntoParentElseFix implements LocalQuickFix {
-        private static final String title = "Merge into parent construct";
+        private static final String title  = "Merge into parent construct";
+        private static final String family = title + " (else)";
 
         final private SmartPsiElementPointer<If> target;
         final private SmartPsiElementPointer<Else> parent;
@@ -134,7 +150,7 @@ public class NestedPositiveIfStatementsInspector extends BasePhpInspection {
         @NotNull
         @Override
         public String getFamilyName() {
-            return getName() + " (else)";
+            return MessagesPresentationUtil.prefixWithEa(family);
         }
 
         MergeIntoParentElseFix(@NotNull Project project, @NotNull If target, @NotNull Else parent) {
@@ -159,7 +175,8 @@ public class NestedPositiveIfStatementsInspector extends BasePhpInspection {
     }
 
     private static final class MergeIntoParentIfFix implements LocalQuickFix {
-        private static final String title = "Merge into parent construct";
+        private static final String title  = "Merge into parent construct";
+        private static final String family = title + " (if)";
 
         final private SmartPsiElementPointer<If> target;
         final private SmartPsiElementPointer<If> parent;
@@ -173,7 +190,7 @@ public class NestedPositiveIfStatementsInspector extends BasePhpInspection {
         @NotNull
         @Override
         public String getFamilyName() {
-            return getName() + " (if)";
+            return MessagesPresentationUtil.prefixWithEa(family);
         }
 
         MergeIntoParentIfFix(@NotNull Project project, @NotNull If target, @NotNull If parent) {
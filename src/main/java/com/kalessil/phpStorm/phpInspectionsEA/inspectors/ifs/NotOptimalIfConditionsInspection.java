@@ -163,6 +163,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 // now we need to build up following structure:
                 /* 'subject' => [ condition => class, ... ] */
                 final Map<PsiElement, Map<PsiElement, PhpClass>> mappedChecks = new HashMap<>();
+                final Map<Integer, List<PsiElement>> subjectsByHash            = new HashMap<>();
                 for (final BinaryExpression instanceOfExpression : instanceOfExpressions) {
                     // ensure expression is well-formed
                     final PsiElement subject = instanceOfExpression.getLeftOperand();
@@ -179,8 +180,9 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     final PhpClass clazz = (PhpClass) resolved;
 
                     // push subject properly, as expressions can be different objects with the same semantics
-                    PsiElement registeredSubject = null;
-                    for (final PsiElement testSubject : mappedChecks.keySet()) {
+                    final List<PsiElement> candidates = subjectsByHash.computeIfAbsent(OpenapiEquivalenceUtil.hash(subject), h -> new ArrayList<>());
+                    PsiElement registeredSubject      = null;
+                    for (final PsiElement testSubject : candidates) {
                         if (OpenapiEquivalenceUtil.areEqual(subject, testSubject)) {
                             registeredSubject = testSubject;
                             break;
@@ -189,6 +191,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     // put empty container if it's not known
                     if (null == registeredSubject) {
                         mappedChecks.put(subject, new HashMap<>());
+                        candidates.add(subject);
                         registeredSubject = subject;
                     }
 
@@ -197,6 +200,7 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 }
                 // release references in the raw list
                 instanceOfExpressions.clear();
+                subjectsByHash.clear();
 
                 final boolean isDateTimeInterfaceAvailable = PhpLanguageLevel.get(holder.getProject()).atLeast(PhpLanguageLevel.PHP550);
 
@@ -243,7 +247,6 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     subjectContainer.clear();
                 }
                 // release inheritance cache as well
-                resolvedInheritanceChains.values().forEach(Set::clear);
                 resolvedInheritanceChains.clear();
                 // release mapping as well
                 mappedChecks.clear();
@@ -310,23 +313,17 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     }
                 }
 
-                /* scan for duplicates */
-                for (final PsiElement expression : callsExtracted) {
-                    if (expression != null) {
-                        /* put a stub */
-                        callsExtracted.set(callsExtracted.indexOf(expression), null);
-                        /* search duplicates in current scope */
-                        for (final PsiElement innerLoopExpression : callsExtracted) {
-                            if (innerLoopExpression != null && OpenapiEquivalenceUtil.areEqual(innerLoopExpression, expression)) {
-                                holder.registerProblem(
-                                        innerLoopExpression,
-                                        MessagesPresentationUtil.prefixWithEa(messageDuplicateConditionPart)
-                                );
-                                callsExtracted.set(callsExtracted.indexOf(innerLoopExpression), null);
-                            }
-                        }
+                /* scan for duplicates: the first call in a group is the original one */
+                for (final List<PsiElement> group : OpenapiEquivalenceUtil.group(callsExtracted)) {
+                    for (final PsiElement duplicate : group.subList(1, group.size())) {
+                        holder.registerProblem(
+                                duplicate,
+                                MessagesPresentationUtil.prefixWithEa(messageDuplicateConditionPart)
+                        );
                     }
+                    group.clear();
                 }
+                callsExtracted.clear();
             }
 
             private List<String> getPreviouslyModifiedVariables(@NotNull If ifStatement) {
@@ -390,16 +387,15 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                 }
 
 
-                /* scan for duplicates */
-                for (PsiElement objExpression : conditions) {
-                    if (null == objExpression) {
-                        continue;
-                    }
-
-                    /* put a stub */
-                    int intOuterIndex = conditions.indexOf(objExpression);
-                    conditions.set(intOuterIndex, null);
+                /* bucket parent scopes conditions, so lookups are not comparing everything with everything */
+                final Map<Integer, List<PsiElement>> parentConditionsByHash = new HashMap<>();
+                for (final PsiElement parentCondition : objParentConditions) {
+                    parentConditionsByHash.computeIfAbsent(OpenapiEquivalenceUtil.hash(parentCondition), h -> new ArrayList<>()).add(parentCondition);
+                }
 
+                /* scan for duplicates: the first condition in a group is the original one */
+                for (final List<PsiElement> group : OpenapiEquivalenceUtil.group(conditions)) {
+                    final PsiElement objExpression = group.get(0);
 
                     /* ignore variables (even if inverted) */
                     PsiElement variableCandidate = objExpression;
@@ -434,41 +430,47 @@ public class NotOptimalIfConditionsInspection extends BasePhpInspection {
                     }
                     /* continue with sensible expressions analysis */
 
+                    /* false-positives: mkdir race conditions */
+                    final PsiElement extracted = objExpression instanceof UnaryExpression
+                            ? ((UnaryExpression) objExpression).getValue()
+                            : objExpression;
+                    boolean isRaceCondition = false;
+                    if (OpenapiTypesUtil.isFunctionReference(extracted)) {
+                        final String functionName = ((FunctionReference) extracted).getName();
+                        isRaceCondition           = functionName != null && functionName.equals("is_dir");
+                    }
 
-                    /* search duplicates in current scope */
-                    for (final PsiElement innerLoopExpression : conditions) {
-                        if (innerLoopExpression != null && OpenapiEquivalenceUtil.areEqual(innerLoopExpression, objExpression)) {
-                            /* false-positives: mkdir race conditions */
-                            final PsiElement extracted = objExpression instanceof UnaryExpression
-                                    ? ((UnaryExpression) objExpression).getValue()
-                                    : objExpression;
-                            if (OpenapiTypesUtil.isFunctionReference(extracted)) {
-                                final String functionName = ((FunctionReference) extracted).getName();
-                                if (functionName != null && functionName.equals("is_dir")) {
-                                    continue;
-                                }
-                            }
-
+                    /* duplicates in current scope */
+                    if (!isRaceCondition) {
+                        for (final PsiElement duplicate : group.subList(1, group.size())) {
                             holder.registerProblem(
-                                    innerLoopExpression,
+                                    duplicate,
                                     MessagesPresentationUtil.prefixWithEa(messageDuplicateConditions)
                             );
-                            conditions.set(conditions.indexOf(innerLoopExpression), null);
                         }
                     }
 
-                    /* search duplicates in outer scopes */
-                    for (final PsiElement objOuterScopeExpression : objParentConditions) {
-                        if (objOuterScopeExpression != null && OpenapiEquivalenceUtil.areEqual(objOuterScopeExpression, objExpression)) {
-                            holder.registerProblem(
-                                    objExpression,
-                                    MessagesPresentationUtil.prefixWithEa(messageDuplicateConditions)
-                            );
-                            objParentConditions.set(objParentConditions.indexOf(objOuterScopeExpression), null);
+                    /* search duplicates in outer scopes (race conditions: each of duplicates is checked) */
+                    final List<PsiElement> candidates = parentConditionsByHash.get(OpenapiEquivalenceUtil.hash(objExpression));
+                    if (candidates != null) {
+                        for (final PsiElement expression : isRaceCondition ? group : group.subList(0, 1)) {
+                            final Iterator<PsiElement> iterator = candidates.iterator();
+                            while (iterator.hasNext()) {
+                                if (OpenapiEquivalenceUtil.areEqual(iterator.next(), expression)) {
+                                    holder.registerProblem(
+                                            expression,
+                                            MessagesPresentationUtil.prefixWithEa(messageDuplicateConditions)
+                                    );
+                                    iterator.remove();
+                                }
+                            }
                         }
                     }
+                    group.clear();
                 }
 
+                parentConditionsByHash.values().forEach(List::clear);
+                parentConditionsByHash.clear();
                 objParentConditions.clear();
             }
 
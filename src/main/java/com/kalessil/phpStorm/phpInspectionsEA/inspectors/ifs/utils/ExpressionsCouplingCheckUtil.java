@@ -1,16 +1,14 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.ifs.utils;
 
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PsiNodesInventoryUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -21,11 +19,22 @@ import java.util.Set;
  * file that was distributed with this source code.
  */
 
+/*
+ * Couplings are checked by fingerprints: structural hashes of the expressions nodes (see OpenapiEquivalenceUtil.hash)
+ * and variable names, so the cost stays linear. Expressions exceeding the budget are reported as coupled, the
+ * conservative answer for the callers (they are skipping reordering suggestions for coupled expressions).
+ */
 final public class ExpressionsCouplingCheckUtil {
-    private static Set<PsiElement> extractPotentiallyMutatedExpressions(@NotNull PsiElement expression) {
+    /* text length of both expressions and number of calls to resolve for by-reference arguments */
+    private static final int LENGTH_BUDGET  = 4096;
+    private static final int RESOLVE_BUDGET = 16;
+
+    /* null when the resolve budget has been exceeded */
+    @Nullable
+    private static Set<PsiElement> extractPotentiallyMutatedExpressions(@NotNull PsiElement expression, @NotNull Fingerprint usages) {
         final Set<PsiElement> mutatable = new HashSet<>();
         /* case 1: from assignments */
-        final Collection<AssignmentExpression> assignments = PsiTreeUtil.findChildrenOfType(expression, AssignmentExpression.class);
+        final Collection<AssignmentExpression> assignments = PsiNodesInventoryUtil.findChildrenOfType(expression, AssignmentExpression.class);
         if (expression instanceof AssignmentExpression) {
             assignments.add((AssignmentExpression) expression);
         }
@@ -40,15 +49,19 @@ final public class ExpressionsCouplingCheckUtil {
             }
             assignments.clear();
         }
-        /* case 2: from parameters by reference */
-        final Collection<FunctionReference> calls = PsiTreeUtil.findChildrenOfType(expression, FunctionReference.class);
+        /* case 2: from parameters by reference, variables not used in the other expression are not worth resolving */
+        final Collection<FunctionReference> calls = PsiNodesInventoryUtil.findChildrenOfType(expression, FunctionReference.class);
         if (expression instanceof FunctionReference) {
             calls.add((FunctionReference) expression);
         }
         if (! calls.isEmpty()) {
+            int resolves = 0;
             for (final FunctionReference reference: calls) {
                 final PsiElement[] arguments = reference.getParameters();
-                if (arguments.length > 0 && Arrays.stream(arguments).anyMatch(a -> a instanceof Variable)) {
+                if (arguments.length > 0 && Arrays.stream(arguments).anyMatch(a -> a instanceof Variable && usages.mayUse((Variable) a))) {
+                    if (++resolves > RESOLVE_BUDGET) {
+                        return null;
+                    }
                     final PsiElement resolved = OpenapiResolveUtil.resolveReference(reference);
                     if (resolved instanceof Function) {
                         final Parameter[] parameters = ((Function) resolved).getParameters();
@@ -63,126 +76,120 @@ final public class ExpressionsCouplingCheckUtil {
             }
             calls.clear();
         }
+        mutatable.remove(null);
         return mutatable;
     }
 
     public static boolean isSecondCoupledWithFirst(@NotNull PsiElement first, @NotNull PsiElement second) {
-        boolean isCoupled = false;
+        if (first.getTextLength() + second.getTextLength() > LENGTH_BUDGET) {
+            return true;
+        }
+        final Fingerprint firstFingerprint  = new Fingerprint(first);
+        final Fingerprint secondFingerprint = new Fingerprint(second);
 
         /* Scenario 1: 1st expression contains assignment */
-        final Set<PsiElement> mutatable = extractPotentiallyMutatedExpressions(first);
-        if (! mutatable.isEmpty()) {
-            /* now find containers usage, we can perform same class search multiple time - perhaps improvements possible */
-            for (final PsiElement expression : mutatable) {
-                final Class<? extends PsiElement> clazz = expression.getClass();
-                final Collection<PsiElement> findings   = PsiTreeUtil.findChildrenOfType(second, clazz);
-                if (second.getClass() == clazz) {
-                    findings.add(second);
-                }
-                if (! findings.isEmpty()) {
-                    for (final PsiElement subject : findings) {
-                        if (OpenapiEquivalenceUtil.areEqual(subject, expression)) {
-                            isCoupled = true;
-                            break;
-                        }
+        final Set<PsiElement> mutatable = extractPotentiallyMutatedExpressions(first, secondFingerprint);
+        if (mutatable == null) {
+            return true;
+        }
+        for (final PsiElement expression : mutatable) {
+            if (!(expression instanceof Variable) || secondFingerprint.mayUse((Variable) expression)) {
+                for (final PsiElement subject : secondFingerprint.find(expression)) {
+                    if (OpenapiEquivalenceUtil.areEqual(subject, expression)) {
+                        return true;
                     }
-                    findings.clear();
-                }
-                /* inner loop found coupled expressions break this loop as well */
-                if (isCoupled) {
-                    break;
                 }
             }
-            mutatable.clear();
         }
-        if (isCoupled) {
-            return true;
-        }
-
 
         /* Scenario 2: 2nd expression has array access, parts of which has been used in the 1st one */
         /* TODO: non-static method/property */
         final Set<PsiElement> expressionsInSecond             = new HashSet<>();
-        final Collection<ArrayAccessExpression> arrayAccesses = PsiTreeUtil.findChildrenOfType(second, ArrayAccessExpression.class);
+        final Collection<ArrayAccessExpression> arrayAccesses = PsiNodesInventoryUtil.findChildrenOfType(second, ArrayAccessExpression.class);
         if (second instanceof ArrayAccessExpression) {
             arrayAccesses.add((ArrayAccessExpression) second);
         }
-        if (!arrayAccesses.isEmpty()) {
-            /* extract array accesses, get unique variable expressions from them */
-            for (ArrayAccessExpression expression : arrayAccesses) {
-                /* if expression[], do not store it */
-                final PsiElement parent = expression.getParent();
-                if (parent instanceof ArrayAccessExpression && expression == ((ArrayAccessExpression) parent).getValue()) {
-                    continue;
-                }
+        for (final ArrayAccessExpression expression : arrayAccesses) {
+            /* if expression[], do not store it */
+            final PsiElement parent = expression.getParent();
+            if (parent instanceof ArrayAccessExpression && expression == ((ArrayAccessExpression) parent).getValue()) {
+                continue;
+            }
 
-                /* store expression and parts of chained array access expression */
-                PsiElement value = expression.getValue();
-                while (value instanceof ArrayAccessExpression) {
-                    expressionsInSecond.add(value);
-                    value =((ArrayAccessExpression) value).getValue();
-                }
+            /* store expression and parts of chained array access expression */
+            PsiElement value = expression.getValue();
+            while (value instanceof ArrayAccessExpression) {
                 expressionsInSecond.add(value);
+                value = ((ArrayAccessExpression) value).getValue();
             }
-
-            /* if we have expressions to lookup in first one, then work  them out and release references */
-            if (!expressionsInSecond.isEmpty()) {
-                for (final PsiElement expression : expressionsInSecond) {
-                    /* find expression in first, stop processing if found match */
-                    for (final PsiElement subject : PsiTreeUtil.findChildrenOfType(first, expression.getClass())){
-                        /* if subject[], do not process it */
-                        final PsiElement parent = subject.getParent();
-                        if (parent instanceof ArrayAccessExpression && subject == ((ArrayAccessExpression) parent).getValue()) {
-                            continue;
-                        }
-
-                        if (OpenapiEquivalenceUtil.areEqual(subject, expression)) {
-                            isCoupled = true;
-                            break;
-                        }
-                    }
-
-                    /* inner loop found coupled expressions break this loop as well */
-                    if (isCoupled) {
-                        break;
-                    }
-                }
-
-                expressionsInSecond.clear();
+            if (value != null) {
+                expressionsInSecond.add(value);
             }
-
-            arrayAccesses.clear();
         }
-        if (isCoupled) {
-            return true;
+        for (final PsiElement expression : expressionsInSecond) {
+            /* find expression in first (but not the first itself), stop processing if found match */
+            for (final PsiElement subject : firstFingerprint.find(expression)) {
+                /* if subject[], do not process it */
+                final PsiElement parent = subject.getParent();
+                if (subject == first || (parent instanceof ArrayAccessExpression && subject == ((ArrayAccessExpression) parent).getValue())) {
+                    continue;
+                }
+                if (OpenapiEquivalenceUtil.areEqual(subject, expression)) {
+                    return true;
+                }
+            }
         }
 
         /* Scenario 3: the first argument is isset */
         final Set<String> dependencies    = new HashSet<>();
-        final Collection<PhpIsset> issets = PsiTreeUtil.findChildrenOfType(first, PhpIsset.class);
+        final Collection<PhpIsset> issets = PsiNodesInventoryUtil.findChildrenOfType(first, PhpIsset.class);
         if (first instanceof PhpIsset) {
             issets.add((PhpIsset) first);
         }
-        if (!issets.isEmpty()) {
-            for (final PhpIsset isset : issets) {
-                PsiTreeUtil.findChildrenOfType(isset, ArrayAccessExpression.class).forEach(array -> {
-                    PsiElement container = array.getValue();
-                    while (container instanceof ArrayAccessExpression) {
-                        container = ((ArrayAccessExpression) container).getValue();
-                    }
-                    if (container instanceof Variable) {
-                        dependencies.add(((Variable) container).getName());
-                    }
-                });
-            }
-            issets.clear();
+        for (final PhpIsset isset : issets) {
+            PsiNodesInventoryUtil.findChildrenOfType(isset, ArrayAccessExpression.class).forEach(array -> {
+                PsiElement container = array.getValue();
+                while (container instanceof ArrayAccessExpression) {
+                    container = ((ArrayAccessExpression) container).getValue();
+                }
+                if (container instanceof Variable) {
+                    dependencies.add(((Variable) container).getName());
+                }
+            });
         }
         /* check if second depends on any of them */
-        if (!dependencies.isEmpty()) {
-            isCoupled = PsiTreeUtil.findChildrenOfType(second, Variable.class).stream().anyMatch(v -> dependencies.contains(v.getName()));
-            dependencies.clear();
+        return dependencies.stream().anyMatch(secondFingerprint.variables::contains);
+    }
+
+    /* structural hashes of all composite nodes and used variable names of an expression, collected in one pass */
+    private static final class Fingerprint {
+        private final Map<Integer, List<PsiElement>> nodes = new HashMap<>();
+        private final Set<String> variables                = new HashSet<>();
+        private boolean hasDynamicVariables                = false;
+
+        private Fingerprint(@NotNull PsiElement expression) {
+            OpenapiEquivalenceUtil.hashes(expression, (node, hash) -> {
+                this.nodes.computeIfAbsent(hash, h -> new ArrayList<>()).add(node);
+                if (node instanceof Variable) {
+                    final String name = ((Variable) node).getName();
+                    if (name.isEmpty()) {
+                        this.hasDynamicVariables = true;
+                    } else {
+                        this.variables.add(name);
+                    }
+                }
+            });
         }
 
-        return isCoupled;
+        /* nodes which can be equal to the expression, needs confirmation with OpenapiEquivalenceUtil.areEqual */
+        @NotNull
+        private List<PsiElement> find(@NotNull PsiElement expression) {
+            return this.nodes.getOrDefault(OpenapiEquivalenceUtil.hash(expression), Collections.emptyList());
+        }
+
+        private boolean mayUse(@NotNull Variable variable) {
+            final String name = variable.getName();
+            return name.isEmpty() || this.hasDynamicVariables || this.variables.contains(name);
+        }
     }
 }
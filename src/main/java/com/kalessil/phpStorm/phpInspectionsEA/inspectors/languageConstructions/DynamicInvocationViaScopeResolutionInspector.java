@@ -8,6 +8,7 @@ import com.intellij.psi.*;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
@@ -73,7 +74,13 @@ public class DynamicInvocationViaScopeResolutionInspector extends BasePhpInspect
                                                 holder.registerProblem(
                                                         reference,
                                                         String.format(MessagesPresentationUtil.prefixWithEa(patternScopeResolutionUsed), methodName),
-                                                        new TheLocalFix(holder.getProject(), operator, staticCandidate)
+                                                        LazyFix.of(
+                                                                holder,
+                                                                TheLocalFix.title,
+                                                                elements -> new TheLocalFix(elements.getProject(), elements.get(0), elements.get(1)),
+                                                                operator,
+                                                                staticCandidate
+                                                        )
                                                 );
                                             }
                                         }
@@ -85,7 +92,7 @@ public class DynamicInvocationViaScopeResolutionInspector extends BasePhpInspect
                                         holder.registerProblem(
                                                 reference,
                                                 String.format(MessagesPresentationUtil.prefixWithEa(patternExpressionUsed), reference.getName()),
-                                                new TheLocalFix(holder.getProject(), operator, null)
+                                                LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0), null), operator)
                                         );
                                     }
                                 }
@@ -15,6 +15,7 @@ import com.jetbrains.php.lang.psi.elements.BinaryExpression;
 import com.jetbrains.php.lang.psi.elements.ParenthesizedExpression;
 import com.jetbrains.php.lang.psi.elements.PhpIsset;
 import com.jetbrains.php.lang.psi.elements.UnaryExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
@@ -80,10 +81,18 @@ public class IssetConstructsCanBeMergedInspector extends BasePhpInspection {
                                     if (++hitsCount > 1 && firstHit != null) {
                                         fragments.remove(firstHit);
                                         fragments.remove(fragment);
+                                        /* the remaining fragments are passed after the binary expression and the constructs being merged */
+                                        final List<PsiElement> targets = new ArrayList<>(Arrays.asList(expression, firstHit, fragment));
+                                        targets.addAll(fragments);
                                         holder.registerProblem(
                                                 fragment,
                                                 MessagesPresentationUtil.prefixWithEa(messageIsset),
-                                                new MergeConstructsFix(holder.getProject(), expression, fragments, (PhpIsset) firstHit, (PhpIsset) fragment, operator)
+                                                LazyFix.of(
+                                                        holder,
+                                                        MergeConstructsFix.title,
+                                                        elements -> new MergeConstructsFix(elements.getProject(), elements.get(0), elements.from(3), elements.get(1), elements.get(2), operator),
+                                                        targets.toArray(PsiElement.EMPTY_ARRAY)
+                                                )
                                         );
                                         break;
                                     }
@@ -101,10 +110,18 @@ public class IssetConstructsCanBeMergedInspector extends BasePhpInspection {
                                         if (++hitsCount > 1 && firstHit != null) {
                                             fragments.remove(firstHit.getParent());
                                             fragments.remove(fragment);
+                                            /* the remaining fragments are passed after the binary expression and the constructs being merged */
+                                            final List<PsiElement> targets = new ArrayList<>(Arrays.asList(expression, firstHit, candidate));
+                                            targets.addAll(fragments);
                                             holder.registerProblem(
                                                     candidate,
                                                     MessagesPresentationUtil.prefixWithEa(messageIvertedIsset),
-                                                    new MergeConstructsFix(holder.getProject(), expression, fragments, (PhpIsset) firstHit, (PhpIsset) candidate, operator)
+                                                    LazyFix.of(
+                                                            holder,
+                                                            MergeConstructsFix.title,
+                                                            elements -> new MergeConstructsFix(elements.getProject(), elements.get(0), elements.from(3), elements.get(1), elements.get(2), operator),
+                                                            targets.toArray(PsiElement.EMPTY_ARRAY)
+                                                    )
                                             );
                                             break;
                                         }
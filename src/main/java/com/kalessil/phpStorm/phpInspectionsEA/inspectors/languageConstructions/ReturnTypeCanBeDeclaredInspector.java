@@ -9,7 +9,6 @@ import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiWhiteSpace;
 import com.intellij.psi.util.PsiTreeUtil;
-import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocType;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocReturnTag;
@@ -23,6 +22,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.OverriddenMethodsUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -215,8 +215,7 @@ public class ReturnTypeCanBeDeclaredInspector extends BasePhpInspection {
                     result =
                         InterfacesExtractUtil.getCrawlInheritanceTree(clazz, true).stream()
                                 .anyMatch(c -> c != clazz && c.findOwnMethodByName(methodName) != null) ||
-                        OpenapiResolveUtil.resolveChildClasses(clazz.getFQN(), PhpIndex.getInstance(holder.getProject())).stream()
-                                .anyMatch(c -> c.findOwnMethodByName(methodName) != null);
+                        OverriddenMethodsUtil.isOverridden(clazz, methodName);
                 }
                 return result;
             }
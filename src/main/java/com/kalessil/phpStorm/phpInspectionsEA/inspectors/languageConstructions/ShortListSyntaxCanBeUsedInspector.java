@@ -9,6 +9,7 @@ import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
@@ -59,7 +60,7 @@ public class ShortListSyntaxCanBeUsedInspector extends BasePhpInspection {
                             holder.registerProblem(
                                     listKeyword,
                                     MessagesPresentationUtil.prefixWithEa(messageAssign),
-                                    new TheLocalFix(holder.getProject(), assignment)
+                                    LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0)), assignment)
                             );
                         }
                     }
@@ -78,7 +79,7 @@ public class ShortListSyntaxCanBeUsedInspector extends BasePhpInspection {
                                 holder.registerProblem(
                                         childNode,
                                         MessagesPresentationUtil.prefixWithEa(messageForeach),
-                                        new TheLocalFix(holder.getProject(), foreach)
+                                        LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0)), foreach)
                                 );
                                 break;
                             }
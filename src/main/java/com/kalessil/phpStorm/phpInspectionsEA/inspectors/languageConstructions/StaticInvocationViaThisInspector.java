@@ -12,6 +12,7 @@ import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
@@ -74,7 +75,7 @@ public class StaticInvocationViaThisInspector extends BasePhpInspection {
                                             holder.registerProblem(
                                                     base,
                                                     String.format(MessagesPresentationUtil.prefixWithEa(messageThisUsed), method.getName()),
-                                                    new TheLocalFix(holder.getProject(), base, operator)
+                                                    LazyFix.of(holder, TheLocalFix.title, elements -> new TheLocalFix(elements.getProject(), elements.get(0), elements.get(1)), base, operator)
                                             );
                                         }
                                     }
@@ -1,5 +1,6 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.languageConstructions;
 
+import com.intellij.codeInspection.LocalInspectionToolSession;
 import com.intellij.codeInspection.LocalQuickFix;
 import com.intellij.codeInspection.ProblemDescriptor;
 import com.intellij.codeInspection.ProblemsHolder;
@@ -12,6 +13,7 @@ import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.inspections.PhpInspection;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
@@ -45,6 +47,12 @@ public class StaticLambdaBindingInspector extends PhpInspection {
         return "Static lambdas binding";
     }
 
+    @Override
+    public void inspectionFinished(@NotNull LocalInspectionToolSession session, @NotNull ProblemsHolder problemsHolder) {
+        LazyFix.anchor(problemsHolder.getResults());
+        super.inspectionFinished(session, problemsHolder);
+    }
+
     @Override
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
@@ -64,7 +72,12 @@ public class StaticLambdaBindingInspector extends PhpInspection {
                                         holder.registerProblem(
                                                 variable,
                                                 MessagesPresentationUtil.prefixWithEa(messageThis),
-                                                new TurnClosureIntoNonStaticFix(project, function.getFirstChild())
+                                                LazyFix.of(
+                                                        holder,
+                                                        TurnClosureIntoNonStaticFix.title,
+                                                        elements -> new TurnClosureIntoNonStaticFix(elements.getProject(), elements.get(0)),
+                                                        function.getFirstChild()
+                                                )
                                         );
                                         return;
                                     }
@@ -77,7 +90,12 @@ public class StaticLambdaBindingInspector extends PhpInspection {
                                             holder.registerProblem(
                                                     reference,
                                                     MessagesPresentationUtil.prefixWithEa(messageParent),
-                                                    new TurnClosureIntoNonStaticFix(project, function.getFirstChild())
+                                                    LazyFix.of(
+                                                            holder,
+                                                            TurnClosureIntoNonStaticFix.title,
+                                                            elements -> new TurnClosureIntoNonStaticFix(elements.getProject(), elements.get(0)),
+                                                            function.getFirstChild()
+                                                    )
                                             );
                                             return;
                                         }
@@ -15,6 +15,7 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.UseSuggestedReplacementFixer;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
@@ -73,7 +74,7 @@ public class NullCoalescingOperatorCanBeUsedInspector extends BasePhpInspection
                                     holder.registerProblem(
                                             expression,
                                             String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), replacement),
-                                            new ReplaceSingleConstructFix(replacement)
+                                            LazyFix.create(holder, () -> new ReplaceSingleConstructFix(replacement))
                                     );
                                 }
                             }
@@ -102,7 +103,13 @@ public class NullCoalescingOperatorCanBeUsedInspector extends BasePhpInspection
                                         holder.registerProblem(
                                                 statement.getFirstChild(),
                                                 String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), replacement),
-                                                new ReplaceMultipleConstructFix(project, fragments.first.first, fragments.first.second, replacement)
+                                                LazyFix.of(
+                                                        holder,
+                                                        ReplaceMultipleConstructFix.title,
+                                                        elements -> new ReplaceMultipleConstructFix(elements.getProject(), elements.get(0), elements.get(1), replacement),
+                                                        fragments.first.first,
+                                                        fragments.first.second
+                                                )
                                         );
                                     } else if (context instanceof AssignmentExpression) {
                                         final PsiElement container = ((AssignmentExpression) context).getVariable();
@@ -110,7 +117,13 @@ public class NullCoalescingOperatorCanBeUsedInspector extends BasePhpInspection
                                         holder.registerProblem(
                                                 statement.getFirstChild(),
                                                 String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), replacement),
-                                                new ReplaceMultipleConstructFix(project, fragments.first.first, fragments.first.second, replacement)
+                                                LazyFix.of(
+                                                        holder,
+                                                        ReplaceMultipleConstructFix.title,
+                                                        elements -> new ReplaceMultipleConstructFix(elements.getProject(), elements.get(0), elements.get(1), replacement),
+                                                        fragments.first.first,
+                                                        fragments.first.second
+                                                )
                                         );
                                     }
                                 }
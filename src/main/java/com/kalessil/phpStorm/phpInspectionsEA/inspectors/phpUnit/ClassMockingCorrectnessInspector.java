@@ -72,8 +72,7 @@ public class ClassMockingCorrectnessInspector extends BasePhpInspection {
         return new BasePhpElementVisitor() {
             @Override
             public void visitPhpClass(@NotNull PhpClass clazz) {
-                final PhpClass parent = OpenapiResolveUtil.resolveSuperClass(clazz);
-                if (parent != null && parent.getFQN().equals("\\PhpSpec\\ObjectBehavior")) {
+                if (PhpUnitClassModel.get(clazz).isSpecification()) {
                     for (final Method method : clazz.getOwnMethods()) {
                         for (final Parameter parameter : method.getParameters()) {
                             /* Since PS 2020.2 union types are introduced (BC-incompatible PSI-changes). Hence traversing node. */
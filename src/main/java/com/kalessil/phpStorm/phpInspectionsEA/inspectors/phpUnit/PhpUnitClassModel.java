@@ -0,0 +1,237 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.phpUnit;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocComment;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocRef;
+import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
+import com.jetbrains.php.lang.lexer.PhpTokenTypes;
+import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * PHPUnit/PhpSpec facts about a test class, shared by the PHPUnit inspectors: resolved annotations per method,
+ * data providers verdicts and the specification flag. Facts are computed on the first request and dropped on
+ * the next PSI modification (references are resolved into other files as well, hence the global counter).
+ */
+final public class PhpUnitClassModel {
+    private static final Key<CachedValue<PhpUnitClassModel>> modelKey = Key.create("ea.phpunit.class");
+
+    private final PhpClass clazz;
+    private final boolean isSpecification;
+    private final Map<Method, List<Annotation>> annotations = new ConcurrentHashMap<>();
+    private final Map<Method, Boolean> unnamedDatasets      = new ConcurrentHashMap<>();
+
+    private PhpUnitClassModel(@NotNull PhpClass clazz) {
+        final PhpClass parent = OpenapiResolveUtil.resolveSuperClass(clazz);
+        this.clazz            = clazz;
+        this.isSpecification  = parent != null && parent.getFQN().equals("\\PhpSpec\\ObjectBehavior");
+    }
+
+    @NotNull
+    public static PhpUnitClassModel get(@NotNull PhpClass clazz) {
+        final PsiFile file = clazz.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return new PhpUnitClassModel(clazz);
+        }
+        return CachedValuesManager.getCachedValue(
+                clazz,
+                modelKey,
+                () -> CachedValueProvider.Result.create(new PhpUnitClassModel(clazz), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    /* the class extends PhpSpec's ObjectBehavior */
+    public boolean isSpecification() {
+        return this.isSpecification;
+    }
+
+    /* @dataProvider, @depends, @covers and @test annotations of the method, in the doc-block order */
+    @NotNull
+    public List<Annotation> getAnnotations(@NotNull Method method) {
+        return method.getContainingClass() == this.clazz
+                ? this.annotations.computeIfAbsent(method, PhpUnitClassModel::collect)
+                : collect(method);
+    }
+
+    /* the provider returns datasets without names (the first one is checked) */
+    public boolean hasUnnamedDatasets(@NotNull Method provider) {
+        return this.unnamedDatasets.computeIfAbsent(provider, PhpUnitClassModel::isUnnamedDatasetsProvider);
+    }
+
+    @NotNull
+    private static List<Annotation> collect(@NotNull Method method) {
+        final PhpDocComment phpDoc = method.getDocComment();
+        if (phpDoc == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Annotation> result     = new ArrayList<>();
+        final boolean isMethodNamedAsTest = method.getName().startsWith("test");
+        for (final PhpDocTag tag : PsiTreeUtil.findChildrenOfType(phpDoc, PhpDocTag.class)) {
+            final String tagName = tag.getName();
+            switch (tagName) {
+                case "@dataProvider":
+                case "@depends":
+                case "@covers":
+                    final PsiElement candidate = tag.getFirstPsiChild();
+                    if (candidate instanceof PhpDocRef && isAnnotation(tag)) {
+                        result.add(resolve(tag, (PhpDocRef) candidate));
+                    }
+                    break;
+                case "@test":
+                    if (isAnnotation(tag)) {
+                        result.add(new Annotation(Annotation.Kind.TEST, tag, null, null, !isMethodNamedAsTest));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
+
+    @NotNull
+    private static Annotation resolve(@NotNull PhpDocTag tag, @NotNull PhpDocRef reference) {
+        final PsiReference[] references = reference.getReferences();
+        final String tagName            = tag.getName();
+        if (tagName.equals("@covers")) {
+            /* resolve references (the last one first), populate information about provided entries */
+            boolean hasCallableReference = false;
+            boolean hasClassReference    = false;
+            PsiElement target            = null;
+            final String referenceText   = reference.getText();
+            for (int index = references.length - 1; index >= 0; --index) {
+                final PsiElement resolved = OpenapiResolveUtil.resolveReference(references[index]);
+                if (resolved instanceof PhpClass) {
+                    hasClassReference    = true;
+                    hasCallableReference = referenceText.endsWith("::");
+                    target               = resolved;
+                    break;
+                } else if (resolved instanceof Function) {
+                    hasCallableReference = true;
+                    hasClassReference    = resolved instanceof Method;
+                    target               = resolved;
+                    break;
+                }
+            }
+            final boolean callableNeeded = referenceText.contains("::") && !referenceText.contains("::<");
+            final boolean isValid        = callableNeeded ? hasCallableReference : hasClassReference;
+            return new Annotation(Annotation.Kind.COVERS, tag, referenceText, target, isValid);
+        }
+
+        final PsiElement resolved = references.length == 0 ? null : OpenapiResolveUtil.resolveReference(references[references.length - 1]);
+        final Method target       = resolved instanceof Method ? (Method) resolved : null;
+        if (tagName.equals("@dataProvider")) {
+            return new Annotation(Annotation.Kind.DATA_PROVIDER, tag, reference.getText(), target, target != null);
+        }
+
+        boolean isValid = target != null;
+        if (isValid && !target.getName().startsWith("test")) {
+            final PhpDocComment docBlock = target.getDocComment();
+            isValid                      = docBlock != null && docBlock.getTagElementsByName("@test").length > 0;
+        }
+        return new Annotation(Annotation.Kind.DEPENDS, tag, reference.getText(), target, isValid);
+    }
+
+    private static boolean isUnnamedDatasetsProvider(@NotNull Method provider) {
+        if (!provider.isAbstract()) {
+            final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(provider);
+            final PsiElement last     = body == null ? null : ExpressionSemanticUtil.getLastStatement(body);
+            if (last instanceof PhpReturn) {
+                final PsiElement value = ExpressionSemanticUtil.getReturnValue((PhpReturn) last);
+                if (value instanceof ArrayCreationExpression) {
+                    final PsiElement firstChild = ((ArrayCreationExpression) value).getFirstPsiChild();
+                    boolean isNamedDataset      = firstChild == null;
+                    if (firstChild instanceof ArrayHashElement) {
+                        final PsiElement key = ((ArrayHashElement) firstChild).getKey();
+                        isNamedDataset       = key instanceof StringLiteralExpression;
+                    }
+                    return !isNamedDataset;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAnnotation(@NotNull PhpDocTag tag) {
+        PsiElement previous      = tag.getPrevSibling();
+        previous                 = previous instanceof PsiWhiteSpace ? previous.getPrevSibling() : previous;
+        final IElementType start = previous == null ? null : previous.getNode().getElementType();
+        return start == PhpTokenTypes.DOC_COMMENT_START || start == PhpTokenTypes.DOC_LEADING_ASTERISK;
+    }
+
+    final public static class Annotation {
+        public enum Kind {
+            DATA_PROVIDER, DEPENDS, COVERS, TEST
+        }
+
+        private final Kind kind;
+        private final PhpDocTag tag;
+        private final String reference;
+        private final PsiElement target;
+        private final boolean isValid;
+
+        private Annotation(@NotNull Kind kind, @NotNull PhpDocTag tag, @Nullable String reference, @Nullable PsiElement target, boolean isValid) {
+            this.kind      = kind;
+            this.tag       = tag;
+            this.reference = reference;
+            this.target    = target;
+            this.isValid   = isValid;
+        }
+
+        @NotNull
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        @NotNull
+        public PhpDocTag getTag() {
+            return this.tag;
+        }
+
+        /* the referenced entity as written, null for @test */
+        @Nullable
+        public String getReference() {
+            return this.reference;
+        }
+
+        /* the resolved provider, dependency or covered entity */
+        @Nullable
+        public PsiElement getTarget() {
+            return this.target;
+        }
+
+        /* false for unresolved or inappropriate references, and for @test on methods named as tests */
+        public boolean isValid() {
+            return this.isValid;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.intellij.psi.SmartPointerManager;
 import com.intellij.psi.SmartPsiElementPointer;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
@@ -85,7 +86,13 @@ public class UnnecessaryAssertionInspector extends BasePhpInspection {
                             holder.registerProblem(
                                     innerReference,
                                     MessagesPresentationUtil.prefixWithEa(messageExpectsAny),
-                                    new RemoveExpectsAssertionFixer(holder.getProject(), reference, reference.getFirstChild())
+                                    LazyFix.of(
+                                            holder,
+                                            RemoveExpectsAssertionFixer.title,
+                                            elements -> new RemoveExpectsAssertionFixer(elements.getProject(), elements.get(0), elements.get(1)),
+                                            reference,
+                                            reference.getFirstChild()
+                                    )
                             );
                         }
                     }
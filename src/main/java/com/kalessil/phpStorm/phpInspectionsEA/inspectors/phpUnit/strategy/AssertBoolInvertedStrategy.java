@@ -12,17 +12,34 @@ import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
 import com.jetbrains.php.lang.psi.elements.UnaryExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 final public class AssertBoolInvertedStrategy {
     private final static String messagePattern = "'%s(...)' would fit more here.";
 
+    private final static Set<String> targetAssertions = new HashSet<>();
+    static {
+        targetAssertions.add("assertTrue");
+        targetAssertions.add("assertFalse");
+    }
+
+    /* assertions the strategy is applicable to */
+    @NotNull
+    static public Set<String> getTargetAssertions() {
+        return Collections.unmodifiableSet(targetAssertions);
+    }
+
     static public boolean apply(@NotNull String function, @NotNull MethodReference reference, @NotNull ProblemsHolder holder) {
         final PsiElement[] params = reference.getParameters();
-        if (params.length > 0 && (function.equals("assertTrue") || function.equals("assertFalse"))) {
+        if (params.length > 0 && targetAssertions.contains(function)) {
             final PsiElement param = ExpressionSemanticUtil.getExpressionTroughParenthesis(params[0]);
             if (param instanceof UnaryExpression) {
                 final UnaryExpression not = (UnaryExpression) param;
@@ -39,7 +56,13 @@ final public class AssertBoolInvertedStrategy {
                 holder.registerProblem(
                         reference,
                         String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), replacementMethod),
-                        new TheLocalFix(holder.getProject(), replacementMethod, invertedParam)
+                        LazyFix.of(
+                                holder,
+                                MessagesPresentationUtil.prefixWithEa(TheLocalFix.title),
+                                MessagesPresentationUtil.prefixWithEa(TheLocalFix.family),
+                                elements -> new TheLocalFix(elements.getProject(), replacementMethod, elements.get(0)),
+                                invertedParam
+                        )
                 );
                 return true;
             }
@@ -49,7 +72,8 @@ final public class AssertBoolInvertedStrategy {
     }
 
     private static final class TheLocalFix implements LocalQuickFix {
-        private static final String title = "Use suggested assertion instead";
+        private static final String title  = "Use suggested assertion instead";
+        private static final String family = title + " (assert not boolean)";
 
         final private String replacementFunction;
         final private SmartPsiElementPointer<PsiElement> argument;
@@ -70,7 +94,7 @@ final public class AssertBoolInvertedStrategy {
         @NotNull
         @Override
         public String getFamilyName() {
-            return getName() + " (assert not boolean)";
+            return MessagesPresentationUtil.prefixWithEa(family);
         }
 
         @Override
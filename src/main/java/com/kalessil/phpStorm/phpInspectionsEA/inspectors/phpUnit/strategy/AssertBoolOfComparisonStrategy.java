@@ -13,11 +13,16 @@ import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.BinaryExpression;
 import com.jetbrains.php.lang.psi.elements.FunctionReference;
 import com.jetbrains.php.lang.psi.elements.MethodReference;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -30,14 +35,23 @@ import org.jetbrains.annotations.NotNull;
 final public class AssertBoolOfComparisonStrategy {
     private final static String messagePattern = "%m% would fit more here.";
 
+    private final static Set<String> targetAssertions = new HashSet<>();
+    static {
+        targetAssertions.add("assertTrue");
+        targetAssertions.add("assertNotTrue");
+        targetAssertions.add("assertFalse");
+        targetAssertions.add("assertNotFalse");
+    }
+
+    /* assertions the strategy is applicable to */
+    @NotNull
+    static public Set<String> getTargetAssertions() {
+        return Collections.unmodifiableSet(targetAssertions);
+    }
+
     static public boolean apply(@NotNull String function, @NotNull MethodReference reference, @NotNull ProblemsHolder holder) {
         final PsiElement[] params = reference.getParameters();
-        if (
-            params.length > 0 && (
-                function.equals("assertTrue")  || function.equals("assertNotTrue") ||
-                function.equals("assertFalse") || function.equals("assertNotFalse")
-            )
-        ) {
+        if (params.length > 0 && targetAssertions.contains(function)) {
             final PsiElement param = ExpressionSemanticUtil.getExpressionTroughParenthesis(params[0]);
             if (param instanceof BinaryExpression) {
                 final BinaryExpression argument = (BinaryExpression) param;
@@ -53,7 +67,14 @@ final public class AssertBoolOfComparisonStrategy {
                     holder.registerProblem(
                             reference,
                             MessagesPresentationUtil.prefixWithEa(messagePattern.replace("%m%", replacementMethod)),
-                            new TheLocalFix(holder.getProject(), replacementMethod, left, right)
+                            LazyFix.of(
+                                    holder,
+                                    MessagesPresentationUtil.prefixWithEa(TheLocalFix.title),
+                                    MessagesPresentationUtil.prefixWithEa(TheLocalFix.family),
+                                    elements -> new TheLocalFix(elements.getProject(), replacementMethod, elements.get(0), elements.get(1)),
+                                    left,
+                                    right
+                            )
                     );
 
                     return true;
@@ -65,7 +86,8 @@ final public class AssertBoolOfComparisonStrategy {
     }
 
     private static final class TheLocalFix implements LocalQuickFix {
-        private static final String title = "Use suggested assertion instead";
+        private static final String title  = "Use suggested assertion instead";
+        private static final String family = title + " (assert same or equal)";
 
         private final String replacementFunction;
         private final SmartPsiElementPointer<PsiElement> first;
@@ -89,7 +111,7 @@ final public class AssertBoolOfComparisonStrategy {
         @NotNull
         @Override
         public String getFamilyName() {
-            return getName() + " (assert same or equal)";
+            return MessagesPresentationUtil.prefixWithEa(family);
         }
 
         @Override
@@ -34,6 +34,12 @@ final public class AssertConstantStrategy {
 
     private final static String messagePattern = "'%s(...)' would fit more here.";
 
+    /* assertions the strategy is applicable to */
+    @NotNull
+    static public Set<String> getTargetAssertions() {
+        return Collections.unmodifiableSet(targetMapping.keySet());
+    }
+
     static public boolean apply(@NotNull String methodName, @NotNull MethodReference reference, @NotNull ProblemsHolder holder) {
         boolean result = false;
         if (targetMapping.containsKey(methodName)) {
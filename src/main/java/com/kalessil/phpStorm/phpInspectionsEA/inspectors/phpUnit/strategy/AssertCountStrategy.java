@@ -9,8 +9,10 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -32,6 +34,12 @@ final public class AssertCountStrategy {
 
     private final static String messagePattern = "'%s(...)' would fit more here.";
 
+    /* assertions the strategy is applicable to */
+    @NotNull
+    static public Set<String> getTargetAssertions() {
+        return Collections.unmodifiableSet(targetMapping.keySet());
+    }
+
     static public boolean apply(@NotNull String methodName, @NotNull MethodReference reference, @NotNull ProblemsHolder holder) {
         boolean result = false;
         if (targetMapping.containsKey(methodName)) {
@@ -31,6 +31,14 @@ public class AssertRegexStrategy {
         numberCompareTargets.put("assertNotEquals", "0");
     }
 
+    /* assertions the strategy is applicable to */
+    @NotNull
+    static public Set<String> getTargetAssertions() {
+        final Set<String> result = new HashSet<>(numberCompareTargets.keySet());
+        result.addAll(binaryTargets);
+        return result;
+    }
+
     static public boolean apply(@NotNull String methodName, @NotNull MethodReference reference, @NotNull ProblemsHolder holder) {
         boolean result = false;
         if (numberCompareTargets.containsKey(methodName)) {
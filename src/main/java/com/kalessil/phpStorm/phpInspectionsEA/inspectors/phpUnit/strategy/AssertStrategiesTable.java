@@ -0,0 +1,98 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.phpUnit.strategy;
+
+import com.intellij.codeInspection.ProblemsHolder;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.phpUnit.PhpUnitVersion;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Assert method name to the strategies which can report it, in the order they need to be applied. The names are
+ * taken from the strategies themselves, so the table only drops the ones which would be rejecting the call anyway.
+ * A table per settings combination is built once, the lookup is not allocating.
+ */
+final public class AssertStrategiesTable {
+    @FunctionalInterface
+    public interface Strategy {
+        boolean apply(@NotNull String methodName, @NotNull MethodReference reference, @NotNull ProblemsHolder holder, @NotNull PhpUnitVersion version);
+    }
+
+    private static final Strategy[] none                = new Strategy[0];
+    private static final AssertStrategiesTable[] tables = new AssertStrategiesTable[4];
+    static {
+        for (int index = 0; index < tables.length; ++index) {
+            tables[index] = new AssertStrategiesTable((index & 1) != 0, (index & 2) != 0);
+        }
+    }
+
+    private final Map<String, Strategy[]> strategies = new HashMap<>();
+
+    private AssertStrategiesTable(boolean suggestAssertSame, boolean promoteApi) {
+        final Map<String, List<Strategy>> mapping = new HashMap<>();
+        register(mapping, AssertBoolInvertedStrategy.getTargetAssertions(),
+                (name, reference, holder, version) -> AssertBoolInvertedStrategy.apply(name, reference, holder));
+        register(mapping, AssertBoolOfComparisonStrategy.getTargetAssertions(),
+                (name, reference, holder, version) -> AssertBoolOfComparisonStrategy.apply(name, reference, holder));
+        if (suggestAssertSame) {
+            register(mapping, AssertSameStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertSameStrategy.apply(name, reference, holder));
+        }
+        if (promoteApi) {
+            register(mapping, AssertEmptyStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertEmptyStrategy.apply(name, reference, holder));
+            register(mapping, AssertConstantStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertConstantStrategy.apply(name, reference, holder));
+            register(mapping, AssertInternalTypeStrategy.getTargetAssertions(), AssertInternalTypeStrategy::apply);
+            register(mapping, AssertInstanceOfStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertInstanceOfStrategy.apply(name, reference, holder));
+            register(mapping, AssertResourceExistsStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertResourceExistsStrategy.apply(name, reference, holder));
+            register(mapping, AssertCountStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertCountStrategy.apply(name, reference, holder));
+            register(mapping, AssertContainsStrategy.getTargetAssertions(), AssertContainsStrategy::apply);
+            register(mapping, AssertRegexStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertRegexStrategy.apply(name, reference, holder));
+            /* AssertFileEqualsStrategy and AssertStringEqualsFileStrategy order is important */
+            register(mapping, AssertFileEqualsStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertFileEqualsStrategy.apply(name, reference, holder));
+            register(mapping, AssertStringEqualsFileStrategy.getTargetAssertions(),
+                    (name, reference, holder, version) -> AssertStringEqualsFileStrategy.apply(name, reference, holder));
+        }
+        mapping.forEach((name, candidates) -> this.strategies.put(name, candidates.toArray(new Strategy[0])));
+    }
+
+    private static void register(@NotNull Map<String, List<Strategy>> mapping, @NotNull Set<String> methodNames, @NotNull Strategy strategy) {
+        for (final String methodName : methodNames) {
+            mapping.computeIfAbsent(methodName, name -> new ArrayList<>()).add(strategy);
+        }
+    }
+
+    @NotNull
+    static public AssertStrategiesTable get(boolean suggestAssertSame, boolean promoteApi) {
+        return tables[(suggestAssertSame ? 1 : 0) | (promoteApi ? 2 : 0)];
+    }
+
+    /* applies the strategies until the first one reporting the call */
+    public boolean apply(@NotNull String methodName, @NotNull MethodReference reference, @NotNull ProblemsHolder holder, @NotNull PhpUnitVersion version) {
+        for (final Strategy strategy : this.strategies.getOrDefault(methodName, none)) {
+            if (strategy.apply(methodName, reference, holder, version)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,24 +7,25 @@ import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.apiUsage.FunctionCallCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.apiUsage.PlainApiUseCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.classesStrategy.ShortClassDefinitionStrategy;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy.CatastrophicBacktrackingCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy.GreedyCharactersSetCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy.QuantifierCompoundsQuantifierCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.modifiersStrategy.*;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.optimizeStrategy.AmbiguousAnythingTrimCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.optimizeStrategy.SequentialClassesCollapseCheckStrategy;
 import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.optimizeStrategy.UnnecessaryCaseManipulationCheckStrategy;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
+import javax.swing.*;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -36,6 +37,9 @@ import java.util.regex.Pattern;
  */
 
 public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
+    // Inspection options.
+    public boolean REPORT_POLYNOMIAL_BACKTRACKING = true;
+
     private static final String messageNoDelimiters = "The regular expression delimiters are missing (it should be e.g. '/<regex-here>/').";
 
     @NotNull
@@ -62,13 +66,10 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
         functions.add("preg_quote");
     }
 
-    final static private List<Pattern> matchers = new ArrayList<>();
-    static {
-        matchers.add(Pattern.compile("^([^{<(\\[])(.*)(\\1)([a-zA-Z]+)?$", Pattern.DOTALL));
-        matchers.add(Pattern.compile("^(\\{)(.*)(\\})([a-zA-Z]+)?$", Pattern.DOTALL));
-        matchers.add(Pattern.compile("^(<)(.*)(>)([a-zA-Z]+)?$", Pattern.DOTALL));
-        matchers.add(Pattern.compile("^(\\()(.*)(\\))([a-zA-Z]+)?$", Pattern.DOTALL));
-        matchers.add(Pattern.compile("^(\\[)(.*)(\\])([a-zA-Z]+)?$", Pattern.DOTALL));
+    @Nullable
+    @Override
+    protected Set<String> getHandledFunctionNames() {
+        return functions;
     }
 
     @Override
@@ -78,7 +79,7 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
             @Override
             public void visitPhpFunctionCall(@NotNull FunctionReference reference) {
                 final String functionName = reference.getName();
-                if (functionName != null && functions.contains(functionName)) {
+                if (functionName != null) {
                     final PsiElement[] params = reference.getParameters();
                     if (params.length > 0) {
                         final boolean checkCall                     = !(params[0] instanceof ArrayCreationExpression);
@@ -87,25 +88,18 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                             if (pattern.getContainingFile() == params[0].getContainingFile()) {
                                 final String regex = pattern.getContents();
                                 if (!regex.isEmpty() && pattern.getFirstPsiChild() == null) {
-                                    boolean hasDelimiters = false;
-                                    for (final Pattern matchPattern : matchers) {
-                                        final Matcher matcher = matchPattern.matcher(regex);
-                                        if (hasDelimiters = matcher.find()) {
-                                            final String phpRegexPattern   = matcher.group(2);
-                                            final String phpRegexModifiers = matcher.group(4);
-                                            this.checkRegex(functionName, reference, pattern, phpRegexPattern, phpRegexModifiers);
-                                            if (checkCall) {
-                                                this.checkCall(functionName, reference, phpRegexPattern, phpRegexModifiers);
-                                            }
-                                            break;
+                                    final PcrePattern parsed = PcrePattern.parse(regex);
+                                    if (parsed != null) {
+                                        this.checkRegex(functionName, reference, pattern, parsed);
+                                        if (checkCall) {
+                                            this.checkCall(functionName, reference, parsed.getPattern(), parsed.getModifiers());
                                         }
-                                    }
-                                    if (!hasDelimiters && !functionName.equals("preg_quote")) {
+                                    } else if (!functionName.equals("preg_quote")) {
                                         holder.registerProblem(
                                                 pattern,
                                                 MessagesPresentationUtil.prefixWithEa(messageNoDelimiters)
                                         );
-                                    }                           
+                                    }
                                 }
                             }
                             patterns.clear();
@@ -141,7 +135,10 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                 return result;
             }
 
-            private void checkRegex(String functionName, FunctionReference reference, StringLiteralExpression target, String regex, String modifiers) {
+            private void checkRegex(String functionName, FunctionReference reference, StringLiteralExpression target, PcrePattern parsed) {
+                final String regex     = parsed.getPattern();
+                final String modifiers = parsed.getModifiers();
+
                 /* Modifiers validity (done):
                  * + /no-az-chars/i => /no-az-chars/
                  * + /no-dot-char/s => /no-dot-char/
@@ -152,9 +149,9 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                  */
                 DeprecatedModifiersCheckStrategy.apply(modifiers, target, holder);
                 AllowedModifierCheckStrategy.apply(functionName, modifiers, target, holder);
-                UselessDollarEndOnlyModifierStrategy.apply(modifiers, regex, target, holder);
-                UselessDotAllModifierCheckStrategy.apply(modifiers, regex, target, holder);
-                UselessIgnoreCaseModifierCheckStrategy.apply(modifiers, regex, target, holder);
+                UselessDollarEndOnlyModifierStrategy.apply(modifiers, parsed, target, holder);
+                UselessDotAllModifierCheckStrategy.apply(modifiers, parsed, target, holder);
+                UselessIgnoreCaseModifierCheckStrategy.apply(modifiers, parsed, target, holder);
 
                 /* Classes shortening (done):
                  * + [0-9] => \d
@@ -179,19 +176,22 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
                  *
                  * + greedy character classes [\d\w][\D\W]
                  * + dangerous (a+)+ pattern
+                 * + exponential and polynomial backtracking in general (the (a+)+ pattern is reported once)
                  */
-                SequentialClassesCollapseCheckStrategy.apply(regex, target, holder);
+                SequentialClassesCollapseCheckStrategy.apply(parsed, target, holder);
                 AmbiguousAnythingTrimCheckStrategy.apply(functionName, reference, regex, target, holder);
-                GreedyCharactersSetCheckStrategy.apply(regex, target, holder);
-                QuantifierCompoundsQuantifierCheckStrategy.apply(regex, target, holder);
+                GreedyCharactersSetCheckStrategy.apply(parsed, target, holder);
+                if (!QuantifierCompoundsQuantifierCheckStrategy.apply(parsed, target, holder) && !functionName.equals("preg_quote")) {
+                    CatastrophicBacktrackingCheckStrategy.apply(parsed, REPORT_POLYNOMIAL_BACKTRACKING, target, holder);
+                }
 
                 /*
                  * Probably bugs:
                  *  - nested tags check without /s
                  *  - unicode characters without /u
                  */
-                MissingDotAllCheckStrategy.apply(modifiers, regex, target, holder);
-                MissingUnicodeModifierStrategy.apply(functionName, modifiers, regex, target, holder);
+                MissingDotAllCheckStrategy.apply(modifiers, parsed, target, holder);
+                MissingUnicodeModifierStrategy.apply(functionName, modifiers, parsed, target, holder);
             }
 
             private void checkCall(String functionName, FunctionReference reference, String regex, String modifiers) {
@@ -211,4 +211,10 @@ public class NotOptimalRegularExpressionsInspector extends BasePhpInspection {
             }
         };
     }
+
+    public JComponent createOptionsPanel() {
+        return OptionsComponent.create((component) ->
+            component.addCheckbox("Report polynomial backtracking", REPORT_POLYNOMIAL_BACKTRACKING, (isSelected) -> REPORT_POLYNOMIAL_BACKTRACKING = isSelected)
+        );
+    }
 }
@@ -0,0 +1,89 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.explosiveStrategy;
+
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreBacktracking;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * Recognize patterns the engine needs exponential or polynomial time to fail on, no matter of their shape:
+ * (\w+\d+)*, (a|aa)*, ^\d+\d+$ and co. See PcreBacktracking for the analysis details.
+ */
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class CatastrophicBacktrackingCheckStrategy {
+    private static final String messageExponential = "Exponential backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with %s.";
+    private static final String messagePolynomial  = "O(n^%s) backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with %s.";
+
+    static public void apply(@NotNull PcrePattern pattern, boolean reportPolynomial, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        final PcreBacktracking backtracking = pattern.getBacktracking();
+        if (backtracking != null) {
+            if (backtracking.getComplexity() == PcreBacktracking.Complexity.EXPONENTIAL) {
+                holder.registerProblem(
+                        target,
+                        String.format(MessagesPresentationUtil.prefixWithEa(messageExponential), attack(backtracking, 32)),
+                        ProblemHighlightType.GENERIC_ERROR
+                );
+            } else if (reportPolynomial) {
+                holder.registerProblem(
+                        target,
+                        String.format(MessagesPresentationUtil.prefixWithEa(messagePolynomial), backtracking.getDegree(), attack(backtracking, 5000)),
+                        ProblemHighlightType.WEAK_WARNING
+                );
+            }
+        }
+    }
+
+    /* the attack string as PHP code, e.g. 'x' . str_repeat('a', 32) . '!' */
+    @NotNull
+    private static String attack(@NotNull PcreBacktracking backtracking, int repeat) {
+        final StringBuilder result = new StringBuilder();
+        if (!backtracking.getPrefix().isEmpty()) {
+            result.append(literal(backtracking.getPrefix())).append(" . ");
+        }
+        result.append("str_repeat(").append(literal(backtracking.getPumped())).append(", ").append(repeat).append(')');
+        if (!backtracking.getSuffix().isEmpty()) {
+            result.append(" . ").append(literal(backtracking.getSuffix()));
+        }
+        return result.toString();
+    }
+
+    @NotNull
+    private static String literal(@NotNull String value) {
+        final boolean isPrintable = value.chars().allMatch(character -> character >= ' ' && character < 127);
+        if (isPrintable) {
+            return '\'' + value.replace("\\", "\\\\").replace("'", "\\'") + '\'';
+        }
+
+        final StringBuilder result = new StringBuilder("\"");
+        for (final char character : value.toCharArray()) {
+            switch (character) {
+                case '\n': result.append("\\n");  break;
+                case '\r': result.append("\\r");  break;
+                case '\t': result.append("\\t");  break;
+                case '\\': result.append("\\\\"); break;
+                case '"':  result.append("\\\""); break;
+                case '$':  result.append("\\$");  break;
+                default:
+                    if (character >= ' ' && character < 127) {
+                        result.append(character);
+                    } else {
+                        result.append(String.format("\\u{%x}", (int) character));
+                    }
+                    break;
+            }
+        }
+        return result.append('"').toString();
+    }
+}
@@ -3,11 +3,13 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.exp
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -21,31 +23,28 @@ import java.util.regex.Pattern;
 final public class GreedyCharactersSetCheckStrategy {
     private static final String messagePattern = "[%s] is 'greedy'. Please remove %s as it's a subset of %s.";
 
-    final static private Pattern regexGreedyCharacterSet;
-    static {
-        // Original regex: \[([^\[\]]+)\]
-        regexGreedyCharacterSet = Pattern.compile("\\[([^\\[\\]]+)\\]");
-    }
-
-    static public void apply(@NotNull String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
-        if (!pattern.isEmpty() && pattern.indexOf('[') >= 0) {
-            final Matcher regexMatcher = regexGreedyCharacterSet.matcher(pattern);
-            while (regexMatcher.find()) {
-                final String set = regexMatcher.group(1);
-                if (set.contains("\\w") && set.contains("\\d")) {
-                    holder.registerProblem(
-                            target,
-                            String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), set, "\\d", "\\w"),
-                            ProblemHighlightType.GENERIC_ERROR
-                    );
-                } else if (set.contains("\\W") && set.contains("\\D")) {
-                    holder.registerProblem(
-                            target,
-                            String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), set, "\\D", "\\W"),
-                            ProblemHighlightType.GENERIC_ERROR
-                    );
+    static public void apply(@NotNull PcrePattern pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        for (final PcreNode set : pattern.getClasses()) {
+            final Set<Character> shorthands = new HashSet<>();
+            for (final PcreNode member : set.getChildren()) {
+                if (member.isShorthandClass()) {
+                    shorthands.add(member.getEscapedCharacter());
                 }
             }
+            final String contents = (set.isNegated() ? "^" : "") + set.getBodyText();
+            if (shorthands.contains('w') && shorthands.contains('d')) {
+                holder.registerProblem(
+                        target,
+                        String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), contents, "\\d", "\\w"),
+                        ProblemHighlightType.GENERIC_ERROR
+                );
+            } else if (shorthands.contains('W') && shorthands.contains('D')) {
+                holder.registerProblem(
+                        target,
+                        String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), contents, "\\D", "\\W"),
+                        ProblemHighlightType.GENERIC_ERROR
+                );
+            }
         }
     }
 }
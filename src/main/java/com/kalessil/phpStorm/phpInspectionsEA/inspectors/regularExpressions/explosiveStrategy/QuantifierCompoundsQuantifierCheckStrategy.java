@@ -3,11 +3,12 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.exp
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /*
  * Recognize (A+)* pattern.
@@ -36,45 +37,52 @@ import java.util.regex.Pattern;
 final public class QuantifierCompoundsQuantifierCheckStrategy {
     private static final String messagePattern = "( %s )%s might be exploited (ReDoS, Regular Expression Denial of Service).";
 
-    final static private Pattern regexGroupsToSkip;
-    final static private Pattern regexOuterGroup;
-    static {
-        // Original regex: 	([^\\])(\([^()]*[^\\]\))([^+*])
-        regexGroupsToSkip = Pattern.compile("([^\\\\])(\\([^()]*[^\\\\]\\))([^+*])");
-        // Original regex: 	(^|[^>])\(([^()]+)\)([+*])([^+]|$)
-        regexOuterGroup   = Pattern.compile("(^|[^>])\\(([^()]+)\\)([+*])([^+]|$)");
-    }
-
-    static public void apply(@NotNull String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
-        if (!pattern.isEmpty()) {
-            /* get rid of un-captured groups markers */
-            String normalizedPattern = pattern.replaceAll("\\(\\?:", "(");
-            /* get rid of nested groups */
-            while (regexGroupsToSkip.matcher(normalizedPattern).find()) {
-                final Matcher matcher = regexGroupsToSkip.matcher(normalizedPattern);
-                if (matcher.find()) {
-                    final String fragment = matcher.group(0);
-                    if (fragment != null) {
-                        normalizedPattern = normalizedPattern.replace(fragment, matcher.group(1) + matcher.group(3));
-                    }
-                }
+    static public boolean apply(@NotNull PcrePattern pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        boolean result = false;
+        for (final PcreNode group : pattern.getGroups()) {
+            if (!isCompoundingCandidate(group)) {
+                continue;
             }
-            final Matcher matcher = regexOuterGroup.matcher(normalizedPattern);
-            while (matcher.find()) {
-                final String fragment = matcher.group(2);
-                if (fragment != null) {
-                    for (final String candidate : fragment.split("\\|")) {
-                        if (!candidate.isEmpty() && candidate.matches("^\\\\[dDwWsS][*+]$")) {
-                            holder.registerProblem(
-                                    target,
-                                    String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), candidate, matcher.group(3)),
-                                    ProblemHighlightType.GENERIC_ERROR
-                            );
-                            break;
-                        }
-                    }
+            final String outerQuantifier = group.getQuantifier();
+            for (final PcreNode alternative : group.getChildren().get(0).getChildren()) {
+                final List<PcreNode> atoms = alternative.getChildren();
+                if (atoms.size() == 1 && isQuantifiedShorthand(atoms.get(0))) {
+                    holder.registerProblem(
+                            target,
+                            String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), atoms.get(0).getText(), outerQuantifier),
+                            ProblemHighlightType.GENERIC_ERROR
+                    );
+                    result = true;
+                    break;
                 }
             }
         }
+        return result;
+    }
+
+    /* (...)* and (...)+, unless made possessive or enclosed into an atomic group */
+    private static boolean isCompoundingCandidate(@NotNull PcreNode group) {
+        final PcreNode.GroupType type = group.getGroupType();
+        if (type != PcreNode.GroupType.CAPTURING && type != PcreNode.GroupType.NON_CAPTURING && type != PcreNode.GroupType.NAMED) {
+            return false;
+        }
+        final String quantifier = group.getQuantifier();
+        if (group.isPossessive() || !("*".equals(quantifier) || "+".equals(quantifier))) {
+            return false;
+        }
+        PcreNode parent = group.getParent();
+        while (parent != null) {
+            if (parent.getKind() == PcreNode.Kind.GROUP && parent.getGroupType() == PcreNode.GroupType.ATOMIC) {
+                return false;
+            }
+            parent = parent.getParent();
+        }
+        return true;
+    }
+
+    private static boolean isQuantifiedShorthand(@NotNull PcreNode atom) {
+        final String quantifier = atom.getQuantifier();
+        return atom.isShorthandClass() && "dDwWsS".indexOf(atom.getEscapedCharacter()) != -1 &&
+               !atom.isLazy() && !atom.isPossessive() && ("*".equals(quantifier) || "+".equals(quantifier));
     }
 }
@@ -3,12 +3,13 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -22,20 +23,14 @@ import java.util.regex.Pattern;
 final public class MissingDotAllCheckStrategy {
     private static final String message = "/s modifier is probably missing (not matching multiline tag content).";
 
-    final static private Pattern regexTagContentPattern;
-    static {
-        regexTagContentPattern = Pattern.compile(".*>\\.[*+](\\?)?<.*");
-    }
-
     static public void apply(
             @Nullable String modifiers,
-            @Nullable String pattern,
+            @NotNull PcrePattern pattern,
             @NotNull StringLiteralExpression target,
             @NotNull final ProblemsHolder holder
     ) {
-        if ((modifiers == null || modifiers.indexOf('s') == -1) && pattern != null && pattern.indexOf('>') != -1) {
-            final Matcher matcher = regexTagContentPattern.matcher(pattern);
-            if (matcher.matches()) {
+        if ((modifiers == null || modifiers.indexOf('s') == -1) && pattern.getPattern().indexOf('>') != -1) {
+            if (pattern.getSequences().stream().anyMatch(MissingDotAllCheckStrategy::hasTagContentMatch)) {
                 holder.registerProblem(
                         target,
                         MessagesPresentationUtil.prefixWithEa(message),
@@ -44,4 +39,25 @@ final public class MissingDotAllCheckStrategy {
             }
         }
     }
+
+    /* >.*<, >.+<, >.*?< and >.+?< */
+    private static boolean hasTagContentMatch(@NotNull PcreNode sequence) {
+        final List<PcreNode> atoms = sequence.getChildren();
+        for (int index = 0; index + 2 < atoms.size(); ++index) {
+            final PcreNode opening = atoms.get(index);
+            final PcreNode content = atoms.get(index + 1);
+            final PcreNode closing = atoms.get(index + 2);
+            if (isUnquantifiedLiteral(opening, ">") && isUnquantifiedLiteral(closing, "<") && content.getKind() == PcreNode.Kind.DOT) {
+                final String quantifier = content.getQuantifier();
+                if (!content.isPossessive() && ("*".equals(quantifier) || "+".equals(quantifier))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isUnquantifiedLiteral(@NotNull PcreNode atom, @NotNull String text) {
+        return atom.getKind() == PcreNode.Kind.LITERAL && !atom.isQuantified() && atom.getAtomText().equals(text);
+    }
 }
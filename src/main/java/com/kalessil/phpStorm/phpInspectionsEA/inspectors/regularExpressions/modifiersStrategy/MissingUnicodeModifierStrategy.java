@@ -3,13 +3,11 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
-import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Pattern;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -23,38 +21,26 @@ final public class MissingUnicodeModifierStrategy {
     private static final String messageCharacters = "/u modifier is missing (unicode characters found).";
     private static final String messageCodepoints = "/u modifier is missing (unicode codepoints found).";
 
-    final static private Pattern unicodeCharactersPattern;
-    final static private Pattern unicodeCodepointsPattern;
-    static {
-        // Original regex: .*[^\u0000-\u007F]+.*
-        unicodeCharactersPattern = Pattern.compile(".*[^\\u0000-\\u007F]+.*");
-        // Original regex: .*\\[pPX].*
-        unicodeCodepointsPattern = Pattern.compile(".*\\\\[pPX].*");
-    }
-
     static public void apply(
             @NotNull String functionName,
             @Nullable String modifiers,
-            @Nullable String pattern,
+            @NotNull  PcrePattern pattern,
             @NotNull  StringLiteralExpression target,
             @NotNull  ProblemsHolder holder
     ) {
-        if ((modifiers == null || modifiers.indexOf('u') == -1) && pattern != null && ! pattern.isEmpty() && ! functionName.equals("preg_quote")) {
-            if (unicodeCharactersPattern.matcher(pattern).matches()) {
+        if ((modifiers == null || modifiers.indexOf('u') == -1) && ! pattern.getPattern().isEmpty() && ! functionName.equals("preg_quote")) {
+            if (pattern.hasNonAsciiCharacters()) {
                 holder.registerProblem(
                         target,
                         MessagesPresentationUtil.prefixWithEa(messageCharacters),
                         ProblemHighlightType.GENERIC_ERROR
                 );
-            } else {
-                final String normalized = StringUtils.replace(pattern, "\\\\", "");
-                if (unicodeCodepointsPattern.matcher(normalized).matches()) {
-                    holder.registerProblem(
-                            target,
-                            MessagesPresentationUtil.prefixWithEa(messageCodepoints),
-                            ProblemHighlightType.GENERIC_ERROR
-                    );
-                }
+            } else if (pattern.hasUnicodeCodepoints()) {
+                holder.registerProblem(
+                        target,
+                        MessagesPresentationUtil.prefixWithEa(messageCodepoints),
+                        ProblemHighlightType.GENERIC_ERROR
+                );
             }
         }
     }
@@ -3,8 +3,8 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
-import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -23,7 +23,7 @@ public class UselessDollarEndOnlyModifierStrategy {
 
     static public void apply(
             @Nullable String modifiers,
-            @Nullable String pattern,
+            @NotNull PcrePattern pattern,
             @NotNull StringLiteralExpression target,
             @NotNull ProblemsHolder holder
     ) {
@@ -36,15 +36,12 @@ public class UselessDollarEndOnlyModifierStrategy {
                 );
             }
 
-            if (pattern != null && !pattern.isEmpty()) {
-                int countEnds = StringUtils.countMatches(pattern, "$") - StringUtils.countMatches(pattern, "\\$");
-                if (countEnds == 0) {
-                    holder.registerProblem(
-                            target,
-                            MessagesPresentationUtil.prefixWithEa(messageAmbiguous),
-                            ProblemHighlightType.WEAK_WARNING
-                    );
-                }
+            if (!pattern.getPattern().isEmpty() && !pattern.hasEndAnchor()) {
+                holder.registerProblem(
+                        target,
+                        MessagesPresentationUtil.prefixWithEa(messageAmbiguous),
+                        ProblemHighlightType.WEAK_WARNING
+                );
             }
         }
     }
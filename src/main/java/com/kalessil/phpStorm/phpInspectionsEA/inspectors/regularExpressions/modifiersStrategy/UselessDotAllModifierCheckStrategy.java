@@ -3,8 +3,8 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
-import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -22,14 +22,12 @@ final public class UselessDotAllModifierCheckStrategy {
 
     static public void apply(
             @Nullable String modifiers,
-            @Nullable String pattern,
+            @NotNull  PcrePattern pattern,
             @NotNull  StringLiteralExpression target,
             @NotNull  ProblemsHolder holder
     ) {
-        if (modifiers != null && pattern != null && !pattern.isEmpty() && modifiers.indexOf('s') != -1) {
-            final String normalized = pattern.replaceAll("\\\\[\\.\\[\\]]", "")
-                                             .replaceAll("\\[[^]]+\\]", "");
-            if (StringUtils.countMatches(normalized, ".") - StringUtils.countMatches(normalized, "\\.") == 0) {
+        if (modifiers != null && !pattern.getPattern().isEmpty() && modifiers.indexOf('s') != -1) {
+            if (!pattern.hasAnyCharacterMatch()) {
                 holder.registerProblem(
                         target,
                         MessagesPresentationUtil.prefixWithEa(message),
@@ -3,11 +3,10 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.mod
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Pattern;
-
 /*
  * This file is part of the Php Inspections (EA Extended) package.
  *
@@ -20,15 +19,9 @@ import java.util.regex.Pattern;
 public class UselessIgnoreCaseModifierCheckStrategy {
     private static final String message = "'i' modifier is ambiguous here (no alphabet characters in given pattern).";
 
-    private static final Pattern matcher;
-    static {
-        matcher = Pattern.compile(".*\\p{L}.*", Pattern.DOTALL);
-    }
-
-    static public void apply(final String modifiers, final String pattern, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
+    static public void apply(final String modifiers, @NotNull final PcrePattern pattern, @NotNull final StringLiteralExpression target, @NotNull final ProblemsHolder holder) {
         if (modifiers != null && !modifiers.isEmpty() && modifiers.indexOf('i') != -1) {
-            final boolean check = pattern != null && !pattern.isEmpty();
-            if (check && !matcher.matcher(pattern.replaceAll("\\\\[\\\\dDwWsS]", "")).matches()) {
+            if (!pattern.getPattern().isEmpty() && !pattern.hasLetters()) {
                 holder.registerProblem(
                         target,
                         MessagesPresentationUtil.prefixWithEa(message),
@@ -3,12 +3,12 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.opt
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -22,21 +22,40 @@ import java.util.regex.Pattern;
 final public class SequentialClassesCollapseCheckStrategy {
     private static final String messagePattern = "'%s' can be replaced with '%s{...}'.";
 
-    final static private Pattern regexRepeatedClasses;
-    static {
-        regexRepeatedClasses = Pattern.compile("((\\[([^\\]]+)\\])(\\*|\\+|\\?|\\{[^\\}]+\\})?\\2(\\*|\\+|\\?|\\{[^\\}]+\\})?)+");
-    }
-
-    static public void apply(@Nullable String pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
-        if (pattern != null && !pattern.isEmpty() && pattern.indexOf('[') >= 0) {
-            final Matcher matcher = regexRepeatedClasses.matcher(pattern);
-            if (matcher.find()) {
-                holder.registerProblem(
-                        target,
-                        String.format(MessagesPresentationUtil.prefixWithEa(messagePattern), matcher.group(0), matcher.group(2)),
-                        ProblemHighlightType.WEAK_WARNING
-                );
+    static public void apply(@NotNull PcrePattern pattern, @NotNull StringLiteralExpression target, @NotNull ProblemsHolder holder) {
+        if (pattern.getPattern().indexOf('[') >= 0) {
+            for (final PcreNode sequence : pattern.getSequences()) {
+                final List<PcreNode> atoms = sequence.getChildren();
+                for (int index = 0, size = atoms.size(); index < size; ++index) {
+                    final PcreNode first = atoms.get(index);
+                    if (first.getKind() != PcreNode.Kind.CLASS) {
+                        continue;
+                    }
+                    /* classes are collapsed in pairs, hence the even length of the reported run */
+                    int length = 1;
+                    while (index + length < size && isSameClass(first, atoms.get(index + length))) {
+                        ++length;
+                    }
+                    length -= length % 2;
+                    if (length > 0) {
+                        final PcreNode last = atoms.get(index + length - 1);
+                        holder.registerProblem(
+                                target,
+                                String.format(
+                                        MessagesPresentationUtil.prefixWithEa(messagePattern),
+                                        pattern.getPattern().substring(first.getStart(), last.getQuantifiedEnd()),
+                                        first.getAtomText()
+                                ),
+                                ProblemHighlightType.WEAK_WARNING
+                        );
+                        return;
+                    }
+                }
             }
         }
     }
+
+    private static boolean isSameClass(@NotNull PcreNode first, @NotNull PcreNode second) {
+        return second.getKind() == PcreNode.Kind.CLASS && second.getAtomText().equals(first.getAtomText());
+    }
 }
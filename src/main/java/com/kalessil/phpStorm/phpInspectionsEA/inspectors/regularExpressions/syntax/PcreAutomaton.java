@@ -0,0 +1,439 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax;
+
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode.Kind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Glushkov (position) automaton of a pattern: a state per consuming atom, the state 0 is the initial one.
+ *
+ * Edges are counted rather than deduplicated: (a*)* produces the a->a edge twice, and this multiplicity is
+ * exactly what makes a backtracking engine explore the same input in exponentially many ways.
+ *
+ * Back-references, recursion and conditionals are not regular, such patterns are not modelled at all.
+ * Atomic groups and possessive quantifiers are not backtracked into, hence modelled as a single opaque state.
+ * Lookarounds are zero-width and ignored; '$', \z and \Z are states consuming the end of the subject only.
+ */
+final class PcreAutomaton {
+    private static final int MAX_STATES = 200;
+    private static final int MAX_COPIES = 3;
+
+    private final boolean ignoreCase;
+    private final boolean dotAll;
+    private final boolean extended;
+
+    private final List<PcreCharacterSet> states = new ArrayList<>();
+    private final BitSet endAnchors             = new BitSet();
+    private final BitSet finals                 = new BitSet();
+    private final List<int[]> transitions       = new ArrayList<>();
+    private boolean supported                   = true;
+
+    private int[][] counts;
+    private int[][] successors;
+
+    private PcreAutomaton(boolean ignoreCase, boolean dotAll, boolean extended) {
+        this.ignoreCase = ignoreCase;
+        this.dotAll     = dotAll;
+        this.extended   = extended;
+        this.states.add(PcreCharacterSet.empty());
+    }
+
+    /* null if the pattern can not be modelled */
+    @Nullable
+    static PcreAutomaton build(@NotNull PcrePattern pattern) {
+        final PcreAutomaton automaton = new PcreAutomaton(pattern.hasModifier('i'), pattern.hasModifier('s'), pattern.hasModifier('x'));
+        final Fragment root           = automaton.node(pattern.getTree());
+        if (!automaton.supported || automaton.states.size() > MAX_STATES) {
+            return null;
+        }
+
+        root.first.forEach(state -> automaton.connect(0, state));
+        root.last.forEach(automaton.finals::set);
+        if (root.nullable) {
+            automaton.finals.set(0);
+        }
+
+        final int size                   = automaton.states.size();
+        final List<Set<Integer>> targets = new ArrayList<>();
+        automaton.counts                 = new int[size][size];
+        for (int state = 0; state < size; ++state) {
+            targets.add(new LinkedHashSet<>());
+        }
+        for (final int[] transition : automaton.transitions) {
+            ++automaton.counts[transition[0]][transition[1]];
+            targets.get(transition[0]).add(transition[1]);
+        }
+        automaton.successors = new int[size][];
+        for (int state = 0; state < size; ++state) {
+            automaton.successors[state] = targets.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+        automaton.transitions.clear();
+        return automaton;
+    }
+
+    int size() {
+        return this.states.size();
+    }
+
+    @NotNull
+    PcreCharacterSet getCharacters(int state) {
+        return this.states.get(state);
+    }
+
+    boolean isEndAnchor(int state) {
+        return this.endAnchors.get(state);
+    }
+
+    boolean isFinal(int state) {
+        return this.finals.get(state);
+    }
+
+    @NotNull
+    int[] getSuccessors(int state) {
+        return this.successors[state];
+    }
+
+    /* how many distinct ways the automaton has to move between the states */
+    int countTransitions(int from, int to) {
+        return this.counts[from][to];
+    }
+
+    private void connect(int from, int to) {
+        this.transitions.add(new int[]{from, to});
+    }
+
+    private void connect(@NotNull List<Integer> from, @NotNull List<Integer> to) {
+        from.forEach(source -> to.forEach(target -> this.connect(source, target)));
+    }
+
+    @NotNull
+    private Fragment state(@NotNull PcreCharacterSet characters) {
+        if (this.states.size() > MAX_STATES) {
+            this.supported = false;
+            return Fragment.EPSILON;
+        }
+        this.states.add(this.ignoreCase ? characters.ignoreCase() : characters);
+        final List<Integer> state = Collections.singletonList(this.states.size() - 1);
+        return new Fragment(state, state, false);
+    }
+
+    @NotNull
+    private Fragment endAnchor() {
+        final Fragment result = this.state(PcreCharacterSet.empty());
+        result.first.forEach(this.endAnchors::set);
+        return result;
+    }
+
+    @NotNull
+    private Fragment node(@NotNull PcreNode node) {
+        switch (node.getKind()) {
+            case ALTERNATION: {
+                Fragment result = null;
+                for (final PcreNode alternative : node.getChildren()) {
+                    final Fragment fragment = this.node(alternative);
+                    result                  = result == null ? fragment : result.union(fragment);
+                }
+                return result == null ? Fragment.EPSILON : result;
+            }
+            case SEQUENCE: {
+                Fragment result = Fragment.EPSILON;
+                for (final PcreNode atom : node.getChildren()) {
+                    result = this.concatenate(result, this.quantified(atom));
+                }
+                return result;
+            }
+            default:
+                return this.quantified(node);
+        }
+    }
+
+    @NotNull
+    private Fragment concatenate(@NotNull Fragment left, @NotNull Fragment right) {
+        this.connect(left.last, right.first);
+        return new Fragment(
+                left.nullable ? merge(left.first, right.first) : left.first,
+                right.nullable ? merge(left.last, right.last) : right.last,
+                left.nullable && right.nullable
+        );
+    }
+
+    @NotNull
+    private Fragment quantified(@NotNull PcreNode atom) {
+        if (!atom.isQuantified()) {
+            return this.atom(atom);
+        }
+        if (atom.isPossessive()) {
+            return this.opaque(atom);
+        }
+
+        final int minimum = atom.getMinimum();
+        final int maximum = atom.getMaximum();
+        if (maximum == 0) {
+            return Fragment.EPSILON;
+        }
+
+        /* large counters are approximated: it only affects the estimated polynomial degree */
+        Fragment result     = Fragment.EPSILON;
+        final int mandatory = Math.min(minimum, MAX_COPIES);
+        for (int copy = maximum == PcreNode.UNBOUNDED ? 1 : 0; copy < mandatory; ++copy) {
+            result = this.concatenate(result, this.atom(atom));
+        }
+        if (maximum == PcreNode.UNBOUNDED) {
+            final Fragment loop = this.atom(atom);
+            this.connect(loop.last, loop.first);
+            result = this.concatenate(result, minimum == 0 ? loop.optional() : loop);
+        } else {
+            final int optional = Math.min(maximum - minimum, MAX_COPIES);
+            for (int copy = 0; copy < optional; ++copy) {
+                result = this.concatenate(result, this.atom(atom).optional());
+            }
+        }
+        return result;
+    }
+
+    /* a single state consuming any character the atom could start with */
+    @NotNull
+    private Fragment opaque(@NotNull PcreNode atom) {
+        final PcreAutomaton nested = new PcreAutomaton(this.ignoreCase, this.dotAll, this.extended);
+        final Fragment fragment    = nested.atom(atom);
+        this.supported             = this.supported && nested.supported;
+        if (fragment.first.isEmpty()) {
+            return Fragment.EPSILON;
+        }
+
+        final PcreCharacterSet characters = PcreCharacterSet.empty();
+        fragment.first.forEach(state -> characters.addAll(nested.states.get(state)));
+        final Fragment result = this.state(characters);
+        return fragment.nullable || atom.getMinimum() == 0 ? result.optional() : result;
+    }
+
+    @NotNull
+    private Fragment atom(@NotNull PcreNode atom) {
+        switch (atom.getKind()) {
+            case GROUP:
+                return this.group(atom);
+            case CLASS:
+                final PcreCharacterSet characters = this.characterClass(atom);
+                return characters == null ? Fragment.EPSILON : this.state(characters);
+            case ESCAPE:
+                return this.escape(atom);
+            case LITERAL:
+                final int character = atom.getAtomText().codePointAt(0);
+                if (this.extended && (Character.isWhitespace(character) || character == '#')) {
+                    /* '#' starts a comment in the extended mode, not worth modelling */
+                    this.supported = this.supported && character != '#';
+                    return Fragment.EPSILON;
+                }
+                return this.state(PcreCharacterSet.of(atom.getAtomText()));
+            case DOT:
+                return this.state(this.dotAll ? PcreCharacterSet.any() : PcreCharacterSet.of("\n").complement());
+            case ANCHOR:
+                return atom.getAtomText().equals("$") ? this.endAnchor() : Fragment.EPSILON;
+            case ALTERNATION:
+            case SEQUENCE:
+                return this.node(atom);
+            default:
+                /* comments and inline options */
+                return Fragment.EPSILON;
+        }
+    }
+
+    @NotNull
+    private Fragment group(@NotNull PcreNode group) {
+        final PcreNode.GroupType type = group.getGroupType();
+        if (type == null || type == PcreNode.GroupType.OTHER) {
+            this.supported = false;
+            return Fragment.EPSILON;
+        }
+        switch (type) {
+            case ATOMIC:
+                return this.opaque(group.getChildren().get(0));
+            case LOOKAHEAD:
+            case NEGATIVE_LOOKAHEAD:
+            case LOOKBEHIND:
+            case NEGATIVE_LOOKBEHIND:
+                return Fragment.EPSILON;
+            default:
+                return this.node(group.getChildren().get(0));
+        }
+    }
+
+    @NotNull
+    private Fragment escape(@NotNull PcreNode escape) {
+        final char escaped = escape.getEscapedCharacter();
+        switch (escaped) {
+            case 'z':
+            case 'Z':
+                return this.endAnchor();
+            case 'b':
+            case 'B':
+            case 'A':
+            case 'G':
+            case 'K':
+                return Fragment.EPSILON;
+            case 'Q': {
+                Fragment result    = Fragment.EPSILON;
+                final String text  = escape.getAtomText();
+                final String quote = text.substring(2, text.endsWith("\\E") ? text.length() - 2 : text.length());
+                for (final char character : quote.toCharArray()) {
+                    result = this.concatenate(result, this.state(PcreCharacterSet.of(String.valueOf(character))));
+                }
+                return result;
+            }
+            default:
+                final PcreCharacterSet characters = this.escapeCharacters(escape, false);
+                return characters == null ? Fragment.EPSILON : this.state(characters);
+        }
+    }
+
+    @Nullable
+    private PcreCharacterSet characterClass(@NotNull PcreNode clazz) {
+        final PcreCharacterSet result = PcreCharacterSet.empty();
+        for (final PcreNode member : clazz.getChildren()) {
+            final PcreCharacterSet characters;
+            switch (member.getKind()) {
+                case RANGE:
+                    final int from = this.character(member.getChildren().get(0));
+                    final int to   = this.character(member.getChildren().get(1));
+                    characters     = from < 0 || to < 0 ? PcreCharacterSet.any() : PcreCharacterSet.range(from, to);
+                    break;
+                case POSIX_CLASS:
+                    final String text            = member.getAtomText();
+                    final boolean negate         = text.startsWith("[:^");
+                    final PcreCharacterSet posix = PcreCharacterSet.posix(text.substring(negate ? 3 : 2, text.length() - 2));
+                    characters                   = posix == null ? PcreCharacterSet.any() : (negate ? posix.complement() : posix);
+                    break;
+                case ESCAPE:
+                    characters = this.escapeCharacters(member, true);
+                    break;
+                default:
+                    characters = PcreCharacterSet.of(member.getAtomText());
+                    break;
+            }
+            if (characters == null) {
+                return null;
+            }
+            result.addAll(characters);
+        }
+        return clazz.isNegated() ? result.complement() : result;
+    }
+
+    /* null for the constructs which can not be modelled */
+    @Nullable
+    private PcreCharacterSet escapeCharacters(@NotNull PcreNode escape, boolean inClass) {
+        final char escaped               = escape.getEscapedCharacter();
+        final PcreCharacterSet shorthand = escape.isShorthandClass() ? PcreCharacterSet.shorthand(escaped) : null;
+        if (shorthand != null) {
+            return shorthand;
+        }
+        switch (escaped) {
+            case 'p':
+                /* unicode properties: letters are the most common case */
+                final PcreCharacterSet properties = PcreCharacterSet.range('a', 'z');
+                properties.addAll(PcreCharacterSet.range('A', 'Z'));
+                properties.add(PcreCharacterSet.NON_ASCII);
+                return properties;
+            case 'P':
+            case 'X':
+            case 'C':
+                return PcreCharacterSet.any();
+            case 'N':
+                return PcreCharacterSet.of("\n").complement();
+            case 'R':
+                return PcreCharacterSet.of("\r\n\f\u000B");
+            case 'k':
+            case 'g':
+                this.supported = this.supported && inClass;
+                return inClass ? PcreCharacterSet.of(String.valueOf(escaped)) : null;
+            default:
+                if (!inClass && escaped >= '1' && escaped <= '9') {
+                    /* back-references */
+                    this.supported = false;
+                    return null;
+                }
+                final int character = this.character(escape);
+                return character < 0 ? PcreCharacterSet.any() : PcreCharacterSet.of(new String(Character.toChars(character)));
+        }
+    }
+
+    /* the code of a single character denoted by a literal or an escape, -1 if it's not a single character */
+    private int character(@NotNull PcreNode node) {
+        final String text = node.getAtomText();
+        if (node.getKind() == Kind.LITERAL) {
+            return text.codePointAt(0);
+        }
+        if (node.getKind() != Kind.ESCAPE || text.length() < 2) {
+            return -1;
+        }
+        final char escaped = text.charAt(1);
+        final String tail  = text.substring(2).replace("{", "").replace("}", "");
+        try {
+            switch (escaped) {
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 't': return '\t';
+                case 'f': return '\f';
+                case 'e': return 27;
+                case 'a': return 7;
+                case 'b': return 8;
+                case 'x': return tail.isEmpty() ? 0 : Integer.parseInt(tail, 16);
+                case 'o': return Integer.parseInt(tail, 8);
+                case 'c': return tail.isEmpty() ? -1 : Character.toUpperCase(tail.charAt(0)) ^ 0x40;
+                default:
+                    if (escaped >= '0' && escaped <= '7') {
+                        return Integer.parseInt(text.substring(1), 8);
+                    }
+                    return Character.isLetterOrDigit(escaped) ? -1 : escaped;
+            }
+        } catch (final NumberFormatException failure) {
+            return -1;
+        }
+    }
+
+    @NotNull
+    private static List<Integer> merge(@NotNull List<Integer> left, @NotNull List<Integer> right) {
+        final Set<Integer> result = new LinkedHashSet<>(left);
+        result.addAll(right);
+        return new ArrayList<>(result);
+    }
+
+    private static final class Fragment {
+        private static final Fragment EPSILON = new Fragment(Collections.emptyList(), Collections.emptyList(), true);
+
+        private final List<Integer> first;
+        private final List<Integer> last;
+        private final boolean nullable;
+
+        private Fragment(@NotNull List<Integer> first, @NotNull List<Integer> last, boolean nullable) {
+            this.first    = first;
+            this.last     = last;
+            this.nullable = nullable;
+        }
+
+        @NotNull
+        private Fragment union(@NotNull Fragment other) {
+            return new Fragment(merge(this.first, other.first), merge(this.last, other.last), this.nullable || other.nullable);
+        }
+
+        @NotNull
+        private Fragment optional() {
+            return new Fragment(this.first, this.last, true);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Catastrophic backtracking estimation, based on the ambiguity of the pattern automaton.
+ *
+ * The automaton is inspected per pumped character (characters accepted by the same states are equivalent):
+ *  - exponential: a strongly connected component has more transitions than states, so the pumped string
+ *    can be consumed by two different loops (e.g. (a+)+, (a|a)*, (\w+\d+)*);
+ *  - polynomial, O(n^k): k loops consuming the pumped string are chained (e.g. \d+\d+, \s*.*\s*;).
+ * Only the loops which can not complete the match are considered: the attack string is a prefix reaching the
+ * loop, the pumped character repeated, and a suffix none of the involved states accepts, so the engine fails
+ * and tries every split of the pumped part.
+ */
+final public class PcreBacktracking {
+    public enum Complexity {
+        POLYNOMIAL, EXPONENTIAL
+    }
+
+    private final Complexity complexity;
+    private final int degree;
+    private final String prefix;
+    private final String pumped;
+    private final String suffix;
+
+    private PcreBacktracking(@NotNull Complexity complexity, int degree, @NotNull String prefix, @NotNull String pumped, @NotNull String suffix) {
+        this.complexity = complexity;
+        this.degree     = degree;
+        this.prefix     = prefix;
+        this.pumped     = pumped;
+        this.suffix     = suffix;
+    }
+
+    @NotNull
+    public Complexity getComplexity() {
+        return this.complexity;
+    }
+
+    /* the polynomial degree, 0 for exponential complexity */
+    public int getDegree() {
+        return this.degree;
+    }
+
+    @NotNull
+    public String getPrefix() {
+        return this.prefix;
+    }
+
+    /* the part of the attack string to repeat */
+    @NotNull
+    public String getPumped() {
+        return this.pumped;
+    }
+
+    @NotNull
+    public String getSuffix() {
+        return this.suffix;
+    }
+
+    private boolean isWorseThan(@Nullable PcreBacktracking other) {
+        return other == null ||
+               (this.complexity == Complexity.EXPONENTIAL && other.complexity != Complexity.EXPONENTIAL) ||
+               (this.complexity == other.complexity && this.degree > other.degree);
+    }
+
+    /* null if the pattern can not be modelled or the backtracking is linear */
+    @Nullable
+    static PcreBacktracking analyze(@NotNull PcrePattern pattern) {
+        final PcreAutomaton automaton = PcreAutomaton.build(pattern);
+        if (automaton == null) {
+            return null;
+        }
+
+        /* group characters accepted by the same states: one pumped character per group is enough */
+        final Map<BitSet, PcreCharacterSet> groups = new LinkedHashMap<>();
+        for (int symbol = 0; symbol < PcreCharacterSet.SYMBOLS; ++symbol) {
+            final BitSet accepting = new BitSet();
+            for (int state = 1; state < automaton.size(); ++state) {
+                if (automaton.getCharacters(state).contains(symbol)) {
+                    accepting.set(state);
+                }
+            }
+            if (!accepting.isEmpty()) {
+                groups.computeIfAbsent(accepting, key -> PcreCharacterSet.empty()).add(symbol);
+            }
+        }
+
+        PcreBacktracking result = null;
+        for (final Map.Entry<BitSet, PcreCharacterSet> group : groups.entrySet()) {
+            final Character pumped = group.getValue().sample();
+            if (pumped != null) {
+                final PcreBacktracking candidate = new Analysis(automaton, group.getKey(), pumped).run();
+                if (candidate != null && candidate.isWorseThan(result)) {
+                    result = candidate;
+                    if (result.complexity == Complexity.EXPONENTIAL) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /* the automaton restricted to the states accepting the pumped character */
+    private static final class Analysis {
+        private final PcreAutomaton automaton;
+        private final BitSet accepting;
+        private final char pumped;
+
+        /* Tarjan's algorithm state: components are discovered in reverse topological order */
+        private final int[] index;
+        private final int[] lowLink;
+        private final int[] component;
+        private final BitSet onStack          = new BitSet();
+        private final Deque<Integer> stack    = new ArrayDeque<>();
+        private final List<BitSet> components = new ArrayList<>();
+        private int counter                   = 0;
+
+        private Analysis(@NotNull PcreAutomaton automaton, @NotNull BitSet accepting, char pumped) {
+            this.automaton = automaton;
+            this.accepting = accepting;
+            this.pumped    = pumped;
+            this.index     = new int[automaton.size()];
+            this.lowLink   = new int[automaton.size()];
+            this.component = new int[automaton.size()];
+            Arrays.fill(this.index, -1);
+        }
+
+        @Nullable
+        private PcreBacktracking run() {
+            for (int state = this.accepting.nextSetBit(0); state >= 0; state = this.accepting.nextSetBit(state + 1)) {
+                if (this.index[state] == -1) {
+                    this.connect(state);
+                }
+            }
+
+            /* loops chained through the pumped character, successors are computed first due to the discovery order */
+            final int[] chains      = new int[this.components.size()];
+            PcreBacktracking result = null;
+            for (int current = 0; current < this.components.size(); ++current) {
+                final BitSet states = this.components.get(current);
+                int transitions     = 0;
+                int longest         = 0;
+                for (int state = states.nextSetBit(0); state >= 0; state = states.nextSetBit(state + 1)) {
+                    for (final int successor : this.automaton.getSuccessors(state)) {
+                        if (states.get(successor)) {
+                            transitions += this.automaton.countTransitions(state, successor);
+                        } else if (this.accepting.get(successor)) {
+                            longest = Math.max(longest, chains[this.component[successor]]);
+                        }
+                    }
+                }
+                final boolean isLoop = transitions > 0;
+                chains[current]      = longest + (isLoop ? 1 : 0);
+
+                final boolean isExponential = transitions > states.cardinality();
+                if (isLoop && (isExponential || chains[current] > 1)) {
+                    final PcreBacktracking candidate = this.attack(
+                            states,
+                            isExponential ? Complexity.EXPONENTIAL : Complexity.POLYNOMIAL,
+                            isExponential ? 0 : chains[current]
+                    );
+                    if (candidate != null && candidate.isWorseThan(result)) {
+                        result = candidate;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void connect(int state) {
+            this.index[state] = this.lowLink[state] = this.counter++;
+            this.stack.push(state);
+            this.onStack.set(state);
+            for (final int successor : this.automaton.getSuccessors(state)) {
+                if (!this.accepting.get(successor)) {
+                    continue;
+                }
+                if (this.index[successor] == -1) {
+                    this.connect(successor);
+                    this.lowLink[state] = Math.min(this.lowLink[state], this.lowLink[successor]);
+                } else if (this.onStack.get(successor)) {
+                    this.lowLink[state] = Math.min(this.lowLink[state], this.index[successor]);
+                }
+            }
+            if (this.lowLink[state] == this.index[state]) {
+                final BitSet states = new BitSet();
+                int member;
+                do {
+                    member = this.stack.pop();
+                    this.onStack.clear(member);
+                    this.component[member] = this.components.size();
+                    states.set(member);
+                } while (member != state);
+                this.components.add(states);
+            }
+        }
+
+        /* null if the match can not be forced to fail after the loop, or the loop is not reachable */
+        @Nullable
+        private PcreBacktracking attack(@NotNull BitSet loop, @NotNull Complexity complexity, int degree) {
+            final BitSet reachable           = (BitSet) loop.clone();
+            final Deque<Integer> queue       = new ArrayDeque<>();
+            final PcreCharacterSet continued = PcreCharacterSet.empty();
+            boolean anchored                 = false;
+            loop.stream().forEach(queue::add);
+            while (!queue.isEmpty()) {
+                final int state = queue.poll();
+                if (this.automaton.isFinal(state)) {
+                    /* the engine stops on the first successful match */
+                    return null;
+                }
+                continued.addAll(this.automaton.getCharacters(state));
+                for (final int successor : this.automaton.getSuccessors(state)) {
+                    continued.addAll(this.automaton.getCharacters(successor));
+                    anchored = anchored || this.automaton.isEndAnchor(successor);
+                    if (this.accepting.get(successor) && !reachable.get(successor)) {
+                        reachable.set(successor);
+                        queue.add(successor);
+                    }
+                }
+            }
+            if (anchored) {
+                /* '$' matches before a trailing new line */
+                continued.add('\n');
+            }
+            final Character suffix = continued.complement().sample();
+            if (suffix == null && anchored) {
+                return null;
+            }
+
+            final String prefix = this.prefix(loop);
+            return prefix == null
+                    ? null
+                    : new PcreBacktracking(complexity, degree, prefix, String.valueOf(this.pumped), suffix == null ? "" : String.valueOf(suffix));
+        }
+
+        /* the shortest input leading from the initial state into the loop */
+        @Nullable
+        private String prefix(@NotNull BitSet loop) {
+            final int[] parents        = new int[this.automaton.size()];
+            final Deque<Integer> queue = new ArrayDeque<>();
+            Arrays.fill(parents, -1);
+            queue.add(0);
+            while (!queue.isEmpty()) {
+                final int state = queue.poll();
+                for (final int successor : this.automaton.getSuccessors(state)) {
+                    if (successor == 0 || parents[successor] != -1 || this.automaton.isEndAnchor(successor)) {
+                        continue;
+                    }
+                    parents[successor] = state;
+                    if (loop.get(successor)) {
+                        final StringBuilder prefix = new StringBuilder();
+                        for (int step = state; step != 0; step = parents[step]) {
+                            final Character sample = this.automaton.getCharacters(step).sample();
+                            prefix.insert(0, sample == null ? "" : String.valueOf(sample));
+                        }
+                        return prefix.toString();
+                    }
+                    queue.add(successor);
+                }
+            }
+            return null;
+        }
+    }
+}
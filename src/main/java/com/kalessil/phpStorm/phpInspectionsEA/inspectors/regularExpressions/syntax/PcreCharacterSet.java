@@ -0,0 +1,172 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* characters matched by a single atom: ASCII is tracked precisely, anything beyond is collapsed into one symbol */
+final class PcreCharacterSet {
+    static final int NON_ASCII = 128;
+    static final int SYMBOLS   = 129;
+
+    /* symbols preferred when building human-readable examples */
+    private static final String preferred = "a0 _-.x!";
+
+    private final BitSet symbols;
+
+    private PcreCharacterSet(@NotNull BitSet symbols) {
+        this.symbols = symbols;
+    }
+
+    @NotNull
+    static PcreCharacterSet empty() {
+        return new PcreCharacterSet(new BitSet(SYMBOLS));
+    }
+
+    @NotNull
+    static PcreCharacterSet any() {
+        final BitSet symbols = new BitSet(SYMBOLS);
+        symbols.set(0, SYMBOLS);
+        return new PcreCharacterSet(symbols);
+    }
+
+    @NotNull
+    static PcreCharacterSet of(@NotNull String characters) {
+        final PcreCharacterSet result = empty();
+        characters.chars().forEach(result::add);
+        return result;
+    }
+
+    @NotNull
+    static PcreCharacterSet range(int from, int to) {
+        final PcreCharacterSet result = empty();
+        if (from <= to) {
+            result.symbols.set(Math.min(from, NON_ASCII), Math.min(to, NON_ASCII) + 1);
+        }
+        return result;
+    }
+
+    void add(int character) {
+        this.symbols.set(Math.min(character, NON_ASCII));
+    }
+
+    void addAll(@NotNull PcreCharacterSet other) {
+        this.symbols.or(other.symbols);
+    }
+
+    @NotNull
+    PcreCharacterSet complement() {
+        final BitSet symbols = (BitSet) this.symbols.clone();
+        symbols.flip(0, SYMBOLS);
+        return new PcreCharacterSet(symbols);
+    }
+
+    /* adds the other case for ASCII letters, for /i-patterns */
+    @NotNull
+    PcreCharacterSet ignoreCase() {
+        final PcreCharacterSet result = new PcreCharacterSet((BitSet) this.symbols.clone());
+        for (int symbol = 'a'; symbol <= 'z'; ++symbol) {
+            if (this.symbols.get(symbol) || this.symbols.get(Character.toUpperCase(symbol))) {
+                result.symbols.set(symbol);
+                result.symbols.set(Character.toUpperCase(symbol));
+            }
+        }
+        return result;
+    }
+
+    boolean contains(int symbol) {
+        return this.symbols.get(symbol);
+    }
+
+    boolean isEmpty() {
+        return this.symbols.isEmpty();
+    }
+
+    /* a readable character from the set, null if the set is empty */
+    @Nullable
+    Character sample() {
+        for (final char candidate : preferred.toCharArray()) {
+            if (this.symbols.get(candidate)) {
+                return candidate;
+            }
+        }
+        for (int symbol = this.symbols.nextSetBit(0); symbol >= 0; symbol = this.symbols.nextSetBit(symbol + 1)) {
+            if (symbol > ' ' && symbol < 127) {
+                return (char) symbol;
+            }
+        }
+        final int symbol = this.symbols.nextSetBit(0);
+        return symbol < 0 ? null : toCharacter(symbol);
+    }
+
+    static char toCharacter(int symbol) {
+        return symbol == NON_ASCII ? '\u00E9' : (char) symbol;
+    }
+
+    /* \d, \w, \s and co, null if the escaped character is not a shorthand class */
+    @Nullable
+    static PcreCharacterSet shorthand(char escaped) {
+        switch (escaped) {
+            case 'd': return range('0', '9');
+            case 'D': return range('0', '9').complement();
+            case 'w': return word();
+            case 'W': return word().complement();
+            case 's': return of(" \t\n\r\f\u000B");
+            case 'S': return of(" \t\n\r\f\u000B").complement();
+            case 'h': return of(" \t");
+            case 'H': return of(" \t").complement();
+            case 'v': return of("\n\r\f\u000B");
+            case 'V': return of("\n\r\f\u000B").complement();
+            default:  return null;
+        }
+    }
+
+    /* [:alpha:] and co, null if the name is not known */
+    @Nullable
+    static PcreCharacterSet posix(@NotNull String name) {
+        final PcreCharacterSet result;
+        switch (name) {
+            case "alpha":  result = letters(); break;
+            case "digit":  result = range('0', '9'); break;
+            case "alnum":  result = letters(); result.addAll(range('0', '9')); break;
+            case "word":   result = word(); break;
+            case "lower":  result = range('a', 'z'); break;
+            case "upper":  result = range('A', 'Z'); break;
+            case "space":  result = of(" \t\n\r\f\u000B"); break;
+            case "blank":  result = of(" \t"); break;
+            case "xdigit": result = range('0', '9'); result.addAll(range('a', 'f')); result.addAll(range('A', 'F')); break;
+            case "punct":  result = of("!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~"); break;
+            case "cntrl":  result = range(0, 31); result.add(127); break;
+            case "print":  result = range(32, 126); break;
+            case "graph":  result = range(33, 126); break;
+            case "ascii":  result = range(0, 127); break;
+            default:       return null;
+        }
+        return result;
+    }
+
+    @NotNull
+    private static PcreCharacterSet letters() {
+        final PcreCharacterSet result = range('a', 'z');
+        result.addAll(range('A', 'Z'));
+        return result;
+    }
+
+    @NotNull
+    private static PcreCharacterSet word() {
+        final PcreCharacterSet result = letters();
+        result.addAll(range('0', '9'));
+        result.add('_');
+        return result;
+    }
+}
@@ -0,0 +1,203 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* a node of PCRE syntax tree: offsets are pointing into the pattern (delimiters and modifiers excluded) */
+final public class PcreNode {
+    public enum Kind {
+        ALTERNATION, SEQUENCE, GROUP, CLASS, RANGE, POSIX_CLASS, ESCAPE, LITERAL, DOT, ANCHOR, OPTIONS, COMMENT
+    }
+
+    public enum GroupType {
+        CAPTURING, NAMED, NON_CAPTURING, ATOMIC, LOOKAHEAD, NEGATIVE_LOOKAHEAD, LOOKBEHIND, NEGATIVE_LOOKBEHIND, OTHER
+    }
+
+    public static final int UNBOUNDED = -1;
+
+    private final Kind kind;
+    private final String source;
+    private final int start;
+    private final int end;
+    private final List<PcreNode> children;
+    private PcreNode parent;
+
+    /* kind-specific details */
+    private GroupType groupType;
+    private boolean negated;
+    private int bodyStart;
+    private int bodyEnd;
+
+    /* quantifier details: the atom is matched exactly once unless a quantifier is defined */
+    private int quantifierEnd;
+    private int minimum = 1;
+    private int maximum = 1;
+    private boolean lazy;
+    private boolean possessive;
+
+    PcreNode(@NotNull Kind kind, @NotNull String source, int start, int end, @NotNull List<PcreNode> children) {
+        this.kind          = kind;
+        this.source        = source;
+        this.start         = start;
+        this.end           = end;
+        this.quantifierEnd = end;
+        this.bodyStart     = start;
+        this.bodyEnd       = end;
+        this.children      = children.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(children));
+        this.children.forEach(child -> child.parent = this);
+    }
+
+    void setGroupType(@NotNull GroupType groupType) {
+        this.groupType = groupType;
+    }
+
+    void setNegated(boolean negated) {
+        this.negated = negated;
+    }
+
+    void setBody(int bodyStart, int bodyEnd) {
+        this.bodyStart = bodyStart;
+        this.bodyEnd   = bodyEnd;
+    }
+
+    void setQuantifier(int quantifierEnd, int minimum, int maximum, boolean lazy, boolean possessive) {
+        this.quantifierEnd = quantifierEnd;
+        this.minimum       = minimum;
+        this.maximum       = maximum;
+        this.lazy          = lazy;
+        this.possessive    = possessive;
+    }
+
+    @NotNull
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    /* for groups only */
+    @Nullable
+    public GroupType getGroupType() {
+        return this.groupType;
+    }
+
+    /* for classes only: [^...] */
+    public boolean isNegated() {
+        return this.negated;
+    }
+
+    @NotNull
+    public List<PcreNode> getChildren() {
+        return this.children;
+    }
+
+    @Nullable
+    public PcreNode getParent() {
+        return this.parent;
+    }
+
+    public int getStart() {
+        return this.start;
+    }
+
+    /* end of the atom itself, quantifier excluded */
+    public int getEnd() {
+        return this.end;
+    }
+
+    /* end of the atom, quantifier included */
+    public int getQuantifiedEnd() {
+        return this.quantifierEnd;
+    }
+
+    @NotNull
+    public String getAtomText() {
+        return this.source.substring(this.start, this.end);
+    }
+
+    @NotNull
+    public String getText() {
+        return this.source.substring(this.start, this.quantifierEnd);
+    }
+
+    /* groups: text between the group prefix and ')', classes: text between '[^' and ']' */
+    @NotNull
+    public String getBodyText() {
+        return this.source.substring(this.bodyStart, this.bodyEnd);
+    }
+
+    public boolean isQuantified() {
+        return this.quantifierEnd > this.end;
+    }
+
+    /* '*', '+', '?', '{n,m}' without lazy/possessive suffixes, null if not quantified */
+    @Nullable
+    public String getQuantifier() {
+        if (!this.isQuantified()) {
+            return null;
+        }
+        final String quantifier = this.source.substring(this.end, this.quantifierEnd);
+        return this.lazy || this.possessive ? quantifier.substring(0, quantifier.length() - 1) : quantifier;
+    }
+
+    public int getMinimum() {
+        return this.minimum;
+    }
+
+    /* UNBOUNDED for '*', '+' and '{n,}' */
+    public int getMaximum() {
+        return this.maximum;
+    }
+
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    public boolean isPossessive() {
+        return this.possessive;
+    }
+
+    /* for escapes only: the character following the backslash, 0 for a dangling backslash */
+    public char getEscapedCharacter() {
+        return this.kind == Kind.ESCAPE && this.end - this.start > 1 ? this.source.charAt(this.start + 1) : 0;
+    }
+
+    /* \d, \D, \w, \W, \s, \S, \h, \H, \v, \V */
+    public boolean isShorthandClass() {
+        return this.kind == Kind.ESCAPE && "dDwWsShHvV".indexOf(this.getEscapedCharacter()) != -1 && this.end - this.start == 2;
+    }
+
+    public boolean isInsideClass() {
+        PcreNode current = this.parent;
+        while (current != null) {
+            if (current.kind == Kind.CLASS) {
+                return true;
+            }
+            current = current.parent;
+        }
+        return false;
+    }
+
+    /* pre-order traversal, including the node itself */
+    public void accept(@NotNull Consumer<PcreNode> visitor) {
+        visitor.accept(this);
+        this.children.forEach(child -> child.accept(visitor));
+    }
+
+    @Override
+    public String toString() {
+        return this.kind + ": " + this.getText();
+    }
+}
@@ -0,0 +1,338 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax;
+
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode.GroupType;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode.Kind;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* lenient recursive descent PCRE parser: never fails, broken constructs are consuming the rest of the pattern */
+final class PcreParser {
+    private final String source;
+    private final int length;
+    private int position = 0;
+
+    private PcreParser(@NotNull String source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    @NotNull
+    static PcreNode parse(@NotNull String pattern) {
+        return new PcreParser(pattern).alternation(0);
+    }
+
+    @NotNull
+    private PcreNode alternation(int depth) {
+        final int start                   = this.position;
+        final List<PcreNode> alternatives = new ArrayList<>();
+        alternatives.add(this.sequence(depth));
+        while (this.position < this.length && this.source.charAt(this.position) == '|') {
+            ++this.position;
+            alternatives.add(this.sequence(depth));
+        }
+        return new PcreNode(Kind.ALTERNATION, this.source, start, this.position, alternatives);
+    }
+
+    @NotNull
+    private PcreNode sequence(int depth) {
+        final int start            = this.position;
+        final List<PcreNode> atoms = new ArrayList<>();
+        while (this.position < this.length) {
+            final char current = this.source.charAt(this.position);
+            if (current == '|' || (current == ')' && depth > 0)) {
+                break;
+            }
+            final PcreNode atom = this.atom(depth);
+            this.quantifier(atom);
+            atoms.add(atom);
+        }
+        return new PcreNode(Kind.SEQUENCE, this.source, start, this.position, atoms);
+    }
+
+    @NotNull
+    private PcreNode atom(int depth) {
+        final char current = this.source.charAt(this.position);
+        switch (current) {
+            case '(':
+                return this.group(depth);
+            case '[':
+                return this.characterClass();
+            case '\\':
+                return this.escape(false);
+            case '.':
+                return this.leaf(Kind.DOT, 1);
+            case '^':
+            case '$':
+                return this.leaf(Kind.ANCHOR, 1);
+            default:
+                return this.leaf(Kind.LITERAL, Character.charCount(this.source.codePointAt(this.position)));
+        }
+    }
+
+    @NotNull
+    private PcreNode leaf(@NotNull Kind kind, int size) {
+        final int start = this.position;
+        this.position   = Math.min(this.length, this.position + size);
+        return new PcreNode(kind, this.source, start, this.position, Collections.emptyList());
+    }
+
+    @NotNull
+    private PcreNode group(int depth) {
+        final int start = this.position++;
+
+        /* comments and inline options are not groups, despite of the syntax */
+        if (this.source.startsWith("?#", this.position)) {
+            this.skipAfter(')');
+            return new PcreNode(Kind.COMMENT, this.source, start, this.position, Collections.emptyList());
+        }
+        int options = this.position;
+        if (options < this.length && this.source.charAt(options) == '?') {
+            ++options;
+            while (options < this.length && "imnsxJUX-^".indexOf(this.source.charAt(options)) != -1) {
+                ++options;
+            }
+            if (options > this.position + 1 && options < this.length && this.source.charAt(options) == ')') {
+                this.position = options + 1;
+                return new PcreNode(Kind.OPTIONS, this.source, start, this.position, Collections.emptyList());
+            }
+        }
+
+        final GroupType type;
+        if (this.source.startsWith("?:", this.position) || this.source.startsWith("?|", this.position)) {
+            type           = GroupType.NON_CAPTURING;
+            this.position += 2;
+        } else if (this.source.startsWith("?>", this.position)) {
+            type           = GroupType.ATOMIC;
+            this.position += 2;
+        } else if (this.source.startsWith("?=", this.position)) {
+            type           = GroupType.LOOKAHEAD;
+            this.position += 2;
+        } else if (this.source.startsWith("?!", this.position)) {
+            type           = GroupType.NEGATIVE_LOOKAHEAD;
+            this.position += 2;
+        } else if (this.source.startsWith("?<=", this.position)) {
+            type           = GroupType.LOOKBEHIND;
+            this.position += 3;
+        } else if (this.source.startsWith("?<!", this.position)) {
+            type           = GroupType.NEGATIVE_LOOKBEHIND;
+            this.position += 3;
+        } else if (this.source.startsWith("?<", this.position) || this.source.startsWith("?P<", this.position)) {
+            type = GroupType.NAMED;
+            this.skipAfter('>');
+        } else if (this.source.startsWith("?'", this.position)) {
+            type           = GroupType.NAMED;
+            this.position += 2;
+            this.skipAfter('\'');
+        } else if (options > this.position + 1 && options < this.length && this.source.charAt(options) == ':') {
+            /* (?i:...) */
+            type          = GroupType.NON_CAPTURING;
+            this.position = options + 1;
+        } else if (this.source.startsWith("?", this.position)) {
+            /* recursion, conditionals, callouts and co */
+            type = GroupType.OTHER;
+            ++this.position;
+        } else {
+            type = GroupType.CAPTURING;
+        }
+
+        final int bodyStart = this.position;
+        final PcreNode body = this.alternation(depth + 1);
+        final int bodyEnd   = this.position;
+        if (this.position < this.length) {
+            ++this.position;
+        }
+
+        final PcreNode group = new PcreNode(Kind.GROUP, this.source, start, this.position, Collections.singletonList(body));
+        group.setGroupType(type);
+        group.setBody(bodyStart, bodyEnd);
+        return group;
+    }
+
+    @NotNull
+    private PcreNode characterClass() {
+        final int start       = this.position++;
+        final boolean negated = this.position < this.length && this.source.charAt(this.position) == '^';
+        if (negated) {
+            ++this.position;
+        }
+
+        final int bodyStart          = this.position;
+        final List<PcreNode> members = new ArrayList<>();
+        while (this.position < this.length) {
+            final char current = this.source.charAt(this.position);
+            if (current == ']' && this.position > bodyStart) {
+                break;
+            }
+
+            final PcreNode member;
+            if (this.source.startsWith("[:", this.position) && this.source.indexOf(":]", this.position + 2) != -1) {
+                final int posixStart = this.position;
+                this.position        = this.source.indexOf(":]", this.position + 2) + 2;
+                member               = new PcreNode(Kind.POSIX_CLASS, this.source, posixStart, this.position, Collections.emptyList());
+            } else if (current == '\\') {
+                member = this.escape(true);
+            } else {
+                member = this.leaf(Kind.LITERAL, Character.charCount(this.source.codePointAt(this.position)));
+            }
+
+            /* ranges: a-z, \x00-\x7F; but not [a-], [\d-z] */
+            final boolean isRange = member.getKind() != Kind.POSIX_CLASS && !member.isShorthandClass() &&
+                                    this.position + 1 < this.length && this.source.charAt(this.position) == '-' &&
+                                    this.source.charAt(this.position + 1) != ']';
+            if (isRange) {
+                ++this.position;
+                final PcreNode to = this.source.charAt(this.position) == '\\'
+                        ? this.escape(true)
+                        : this.leaf(Kind.LITERAL, Character.charCount(this.source.codePointAt(this.position)));
+                final List<PcreNode> bounds = new ArrayList<>();
+                bounds.add(member);
+                bounds.add(to);
+                members.add(new PcreNode(Kind.RANGE, this.source, member.getStart(), this.position, bounds));
+            } else {
+                members.add(member);
+            }
+        }
+        final int bodyEnd = this.position;
+        if (this.position < this.length) {
+            ++this.position;
+        }
+
+        final PcreNode clazz = new PcreNode(Kind.CLASS, this.source, start, this.position, members);
+        clazz.setNegated(negated);
+        clazz.setBody(bodyStart, bodyEnd);
+        return clazz;
+    }
+
+    @NotNull
+    private PcreNode escape(boolean inClass) {
+        final int start = this.position++;
+        if (this.position < this.length) {
+            final char escaped = this.source.charAt(this.position++);
+            switch (escaped) {
+                case 'p':
+                case 'P':
+                    if (this.source.startsWith("{", this.position)) {
+                        this.skipAfter('}');
+                    } else if (this.position < this.length && Character.isLetter(this.source.charAt(this.position))) {
+                        ++this.position;
+                    }
+                    break;
+                case 'x':
+                    if (this.source.startsWith("{", this.position)) {
+                        this.skipAfter('}');
+                    } else {
+                        this.skipWhile("0123456789abcdefABCDEF", 2);
+                    }
+                    break;
+                case 'o':
+                case 'N':
+                    if (this.source.startsWith("{", this.position)) {
+                        this.skipAfter('}');
+                    }
+                    break;
+                case 'c':
+                    this.position = Math.min(this.length, this.position + 1);
+                    break;
+                case 'Q': {
+                    final int quoteEnd = this.source.indexOf("\\E", this.position);
+                    this.position      = quoteEnd == -1 ? this.length : quoteEnd + 2;
+                    break;
+                }
+                case 'k':
+                case 'g':
+                    if (!inClass && this.position < this.length) {
+                        final char opening = this.source.charAt(this.position);
+                        if (opening == '{' || opening == '<' || opening == '\'') {
+                            ++this.position;
+                            this.skipAfter(opening == '{' ? '}' : (opening == '<' ? '>' : '\''));
+                        } else {
+                            this.skipWhile("+-", 1);
+                            this.skipWhile("0123456789", Integer.MAX_VALUE);
+                        }
+                    }
+                    break;
+                default:
+                    if (escaped >= '0' && escaped <= '9') {
+                        /* back-references and octal codes */
+                        this.skipWhile("01234567", 2);
+                    }
+                    break;
+            }
+        }
+        return new PcreNode(Kind.ESCAPE, this.source, start, this.position, Collections.emptyList());
+    }
+
+    private void quantifier(@NotNull PcreNode atom) {
+        if (this.position >= this.length) {
+            return;
+        }
+
+        final int minimum;
+        final int maximum;
+        final char current = this.source.charAt(this.position);
+        if (current == '*') {
+            minimum = 0;
+            maximum = PcreNode.UNBOUNDED;
+            ++this.position;
+        } else if (current == '+') {
+            minimum = 1;
+            maximum = PcreNode.UNBOUNDED;
+            ++this.position;
+        } else if (current == '?') {
+            minimum = 0;
+            maximum = 1;
+            ++this.position;
+        } else if (current == '{') {
+            final int closing = this.source.indexOf('}', this.position);
+            if (closing == -1) {
+                return;
+            }
+            final String[] bounds = this.source.substring(this.position + 1, closing).split(",", -1);
+            if (bounds.length > 2 || !isNumber(bounds[0]) || (bounds.length == 2 && !bounds[1].isEmpty() && !isNumber(bounds[1]))) {
+                /* not a quantifier, but a literal '{' */
+                return;
+            }
+            minimum       = Integer.parseInt(bounds[0]);
+            maximum       = bounds.length == 1 ? minimum : (bounds[1].isEmpty() ? PcreNode.UNBOUNDED : Integer.parseInt(bounds[1]));
+            this.position = closing + 1;
+        } else {
+            return;
+        }
+
+        final boolean lazy       = this.position < this.length && this.source.charAt(this.position) == '?';
+        final boolean possessive = this.position < this.length && this.source.charAt(this.position) == '+';
+        if (lazy || possessive) {
+            ++this.position;
+        }
+        atom.setQuantifier(this.position, minimum, maximum, lazy, possessive);
+    }
+
+    private void skipAfter(char terminator) {
+        final int found = this.source.indexOf(terminator, this.position);
+        this.position   = found == -1 ? this.length : found + 1;
+    }
+
+    private void skipWhile(@NotNull String characters, int limit) {
+        int consumed = 0;
+        while (consumed < limit && this.position < this.length && characters.indexOf(this.source.charAt(this.position)) != -1) {
+            ++this.position;
+            ++consumed;
+        }
+    }
+
+    private static boolean isNumber(@NotNull String value) {
+        return !value.isEmpty() && value.length() < 10 && value.chars().allMatch(Character::isDigit);
+    }
+}
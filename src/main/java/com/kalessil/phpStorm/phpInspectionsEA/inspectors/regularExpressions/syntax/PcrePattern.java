@@ -0,0 +1,213 @@
+package com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* a delimited PCRE pattern, parsed once per literal content and shared between the strategies */
+final public class PcrePattern {
+    private static final int CACHE_LIMIT = 2048;
+
+    /* ConcurrentHashMap doesn't accept null values, hence the marker for contents without delimiters */
+    private static final Object NO_DELIMITERS         = new Object();
+    private static final Map<String, Object> patterns = new ConcurrentHashMap<>();
+
+    private final String pattern;
+    private final String modifiers;
+    private volatile PcreNode tree;
+    private volatile Facts facts;
+    private volatile PcreBacktracking backtracking;
+    private volatile boolean isBacktrackingAnalyzed;
+
+    private PcrePattern(@NotNull String pattern, @Nullable String modifiers) {
+        this.pattern   = pattern;
+        this.modifiers = modifiers;
+    }
+
+    /* null if the delimiters are missing */
+    @Nullable
+    public static PcrePattern parse(@NotNull String contents) {
+        Object known = patterns.get(contents);
+        if (known == null) {
+            if (patterns.size() >= CACHE_LIMIT) {
+                patterns.clear();
+            }
+            final PcrePattern parsed = split(contents);
+            known                    = parsed == null ? NO_DELIMITERS : parsed;
+            patterns.put(contents, known);
+        }
+        return known == NO_DELIMITERS ? null : (PcrePattern) known;
+    }
+
+    /* mimics preg_* delimiters handling: the closing delimiter is the last one followed by modifiers only */
+    @Nullable
+    private static PcrePattern split(@NotNull String contents) {
+        if (contents.length() < 2) {
+            return null;
+        }
+        final char opening = contents.charAt(0);
+        final char closing;
+        switch (opening) {
+            case '{': closing = '}'; break;
+            case '<': closing = '>'; break;
+            case '(': closing = ')'; break;
+            case '[': closing = ']'; break;
+            default:  closing = opening; break;
+        }
+        for (int position = contents.length() - 1; position > 0; --position) {
+            final char current = contents.charAt(position);
+            if (current == closing) {
+                final String modifiers = contents.substring(position + 1);
+                return new PcrePattern(contents.substring(1, position), modifiers.isEmpty() ? null : modifiers);
+            }
+            final boolean isModifier = (current >= 'a' && current <= 'z') || (current >= 'A' && current <= 'Z');
+            if (!isModifier) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    @Nullable
+    public String getModifiers() {
+        return this.modifiers;
+    }
+
+    public boolean hasModifier(char modifier) {
+        return this.modifiers != null && this.modifiers.indexOf(modifier) != -1;
+    }
+
+    @NotNull
+    public PcreNode getTree() {
+        PcreNode result = this.tree;
+        if (result == null) {
+            this.tree = result = PcreParser.parse(this.pattern);
+        }
+        return result;
+    }
+
+    /* '.' outside of character classes */
+    public boolean hasAnyCharacterMatch() {
+        return this.getFacts().hasDot;
+    }
+
+    /* '$' outside of character classes */
+    public boolean hasEndAnchor() {
+        return this.getFacts().hasEndAnchor;
+    }
+
+    /* alphabet characters, anywhere except \d, \w, \s and co */
+    public boolean hasLetters() {
+        return this.getFacts().hasLetters;
+    }
+
+    /* \p, \P, \X */
+    public boolean hasUnicodeCodepoints() {
+        return this.getFacts().hasUnicodeCodepoints;
+    }
+
+    public boolean hasNonAsciiCharacters() {
+        return this.getFacts().hasNonAscii;
+    }
+
+    @NotNull
+    public List<PcreNode> getClasses() {
+        return this.getFacts().classes;
+    }
+
+    @NotNull
+    public List<PcreNode> getGroups() {
+        return this.getFacts().groups;
+    }
+
+    @NotNull
+    public List<PcreNode> getSequences() {
+        return this.getFacts().sequences;
+    }
+
+    /* null if the backtracking is linear or the pattern can not be analyzed */
+    @Nullable
+    public PcreBacktracking getBacktracking() {
+        if (!this.isBacktrackingAnalyzed) {
+            this.backtracking           = PcreBacktracking.analyze(this);
+            this.isBacktrackingAnalyzed = true;
+        }
+        return this.backtracking;
+    }
+
+    @NotNull
+    private Facts getFacts() {
+        Facts result = this.facts;
+        if (result == null) {
+            this.facts = result = new Facts(this.pattern, this.getTree());
+        }
+        return result;
+    }
+
+    private static final class Facts {
+        private boolean hasDot;
+        private boolean hasEndAnchor;
+        private boolean hasLetters;
+        private boolean hasUnicodeCodepoints;
+        private boolean hasNonAscii;
+        private final List<PcreNode> classes   = new ArrayList<>();
+        private final List<PcreNode> groups    = new ArrayList<>();
+        private final List<PcreNode> sequences = new ArrayList<>();
+
+        private Facts(@NotNull String pattern, @NotNull PcreNode tree) {
+            final boolean[] shorthands = new boolean[pattern.length()];
+            tree.accept(node -> {
+                switch (node.getKind()) {
+                    case DOT:
+                        this.hasDot = true;
+                        break;
+                    case ANCHOR:
+                        this.hasEndAnchor = this.hasEndAnchor || node.getAtomText().equals("$");
+                        break;
+                    case ESCAPE:
+                        this.hasUnicodeCodepoints = this.hasUnicodeCodepoints || "pPX".indexOf(node.getEscapedCharacter()) != -1;
+                        if (node.isShorthandClass()) {
+                            for (int position = node.getStart(); position < node.getEnd(); ++position) {
+                                shorthands[position] = true;
+                            }
+                        }
+                        break;
+                    case CLASS:
+                        this.classes.add(node);
+                        break;
+                    case GROUP:
+                        this.groups.add(node);
+                        break;
+                    case SEQUENCE:
+                        this.sequences.add(node);
+                        break;
+                    default:
+                        break;
+                }
+            });
+            for (int position = 0; position < pattern.length(); ++position) {
+                final char current = pattern.charAt(position);
+                this.hasNonAscii   = this.hasNonAscii || current > 0x7F;
+                this.hasLetters    = this.hasLetters || (!shorthands[position] && Character.isLetter(current));
+            }
+        }
+    }
+}
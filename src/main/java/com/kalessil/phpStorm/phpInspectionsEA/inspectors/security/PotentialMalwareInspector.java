@@ -1,14 +1,15 @@
 package com.kalessil.phpStorm.phpInspectionsEA.inspectors.security;
 
-import com.intellij.codeInspection.LocalInspectionTool;
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -22,7 +23,7 @@ import java.util.Set;
  * file that was distributed with this source code.
  */
 
-public class PotentialMalwareInspector extends LocalInspectionTool {
+public class PotentialMalwareInspector extends BasePhpInspection {
     private static final String messageEval     = "This eval looks pretty much as some malware.";
     private static final String messageFileHide = "This looks pretty much as some malware hiding files manipulation.";
     private static final String messageDecode   = "This function looks pretty much as part of some malware.";
@@ -30,6 +31,7 @@ public class PotentialMalwareInspector extends LocalInspectionTool {
 
     private static final HashSet<String> evalSuspects   = new HashSet<>();
     private static final HashSet<String> decodeSuspects = new HashSet<>();
+    private static final Set<String> callSuspects       = new HashSet<>();
     static {
         evalSuspects.add("base64_decode");
         evalSuspects.add("gzinflate");
@@ -46,6 +48,15 @@ public class PotentialMalwareInspector extends LocalInspectionTool {
         decodeSuspects.add("gzuncompress");
         decodeSuspects.add("urldecode");
         decodeSuspects.add("curl_unescape");
+
+        callSuspects.add("touch");
+        callSuspects.add("get_defined_functions");
+    }
+
+    @Nullable
+    @Override
+    protected Set<String> getHandledFunctionNames() {
+        return callSuspects;
     }
 
     @NotNull
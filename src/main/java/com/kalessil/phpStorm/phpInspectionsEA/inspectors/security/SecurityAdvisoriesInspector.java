@@ -10,6 +10,7 @@ import com.intellij.psi.SmartPointerManager;
 import com.intellij.psi.SmartPsiElementPointer;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import org.jdom.Element;
@@ -281,16 +282,26 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
                     holder.registerProblem(
                             productionRequire.getFirstChild(),
                             MessagesPresentationUtil.prefixWithEa(message),
-                            new AddAdvisoriesFix(holder.getProject(), productionRequire, developmentRequire)
+                            LazyFix.of(
+                                    holder,
+                                    AddAdvisoriesFix.title,
+                                    AddAdvisoriesFix.title,
+                                    elements -> new AddAdvisoriesFix(elements.getProject(), elements.get(0), elements.get(1)),
+                                    productionRequire,
+                                    developmentRequire
+                            )
                     );
                 }
             }
         }
 
+        LazyFix.anchor(holder.getResults());
         return holder.getResultsArray();
     }
 
     private static final class AddAdvisoriesFix implements LocalQuickFix {
+        private static final String title = "Require 'roave/security-advisories' package";
+
         private final SmartPsiElementPointer<JsonProperty> productionRequire;
         private final SmartPsiElementPointer<JsonProperty> developmentRequire;
 
@@ -304,7 +315,7 @@ public class SecurityAdvisoriesInspector extends LocalInspectionTool {
         @NotNull
         @Override
         public String getFamilyName() {
-            return "Require 'roave/security-advisories' package";
+            return title;
         }
 
         @NotNull
@@ -18,7 +18,6 @@ import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -37,11 +36,7 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
     private static final String messageViolationInCheck      = "Makes no sense, because it's always false according to resolved type. Ensure the parameter is not reused.";
     private static final String patternViolationInAssignment = "New value type (%s) is not matching the resolved parameter type and might introduce types-related false-positives.";
 
-    private static final Set<String> classReferences = new HashSet<>();
-    static {
-        classReferences.add(Types.strSelf);
-        classReferences.add(Types.strStatic);
-    }
+    private static final int classReferences = TypeSet.SELF | TypeSet.STATIC;
 
     @NotNull
     @Override
@@ -80,45 +75,24 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
 
                 for (final Parameter parameter : parameters) {
                     /* normalize parameter types, skip analysis when mixed or object appears */
-                    final Set<String> paramTypes = new HashSet<>();
-                    final PhpType parameterType  = OpenapiResolveUtil.resolveType(parameter, project);
-                    if (parameterType != null) {
-                        label:
-                        for (final String type : parameterType.filterUnknown().getTypes()) {
-                            final String typeNormalized = Types.getType(type);
-                            switch (typeNormalized) {
-                                case Types.strMixed:
-                                case Types.strObject:
-                                    paramTypes.clear();
-                                    break label;
-                                case Types.strCallable:
-                                    paramTypes.add(Types.strArray);
-                                    paramTypes.add(Types.strString);
-                                    paramTypes.add("\\Closure");
-                                    break;
-                                case Types.strIterable:
-                                    paramTypes.add(Types.strArray);
-                                    paramTypes.add("\\Traversable");
-                                    break;
-                            }
-                            paramTypes.add(typeNormalized);
-                        }
-                    }
-                    if (paramTypes.isEmpty()) {
+                    TypeSet paramTypes = OpenapiResolveUtil.resolveTypeSet(parameter, project);
+                    if (paramTypes.isEmpty() || paramTypes.hasAny(TypeSet.MIXED | TypeSet.OBJECT)) {
                         continue;
-                    } else {
-                        /* in some case PhpStorm is not recognizing default value as parameter type */
-                        final PsiElement defaultValue = parameter.getDefaultValue();
-                        if (defaultValue instanceof PhpTypedElement) {
-                            final PhpType defaultType = OpenapiResolveUtil.resolveType((PhpTypedElement) defaultValue, project);
-                            if (defaultType != null) {
-                                defaultType.filterUnknown().getTypes().forEach(t -> paramTypes.add(Types.getType(t)));
-                            }
-                        }
+                    }
+                    if (paramTypes.has(TypeSet.CALLABLE)) {
+                        paramTypes = paramTypes.with(TypeSet.ARRAY | TypeSet.STRING).with("\\Closure");
+                    }
+                    if (paramTypes.has(TypeSet.ITERABLE)) {
+                        paramTypes = paramTypes.with(TypeSet.ARRAY).with("\\Traversable");
+                    }
+                    /* in some case PhpStorm is not recognizing default value as parameter type */
+                    final PsiElement defaultValue = parameter.getDefaultValue();
+                    if (defaultValue instanceof PhpTypedElement) {
+                        paramTypes = paramTypes.union(OpenapiResolveUtil.resolveTypeSet((PhpTypedElement) defaultValue, project));
                     }
 
                     /* false-positive: type is not resolved correctly, default null is taken */
-                    if (paramTypes.size() == 1 && paramTypes.contains(Types.strNull)) {
+                    if (paramTypes.isExactly(TypeSet.NULL)) {
                         final PsiElement defaultValue = parameter.getDefaultValue();
                         if (PhpLanguageUtil.isNull(defaultValue)) {
                             continue;
@@ -145,49 +119,41 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                             final boolean isTypeAnnounced;
                             switch (functionName) {
                                 case "is_array":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strArray) || paramTypes.contains(Types.strIterable);
+                                    isTypeAnnounced = paramTypes.hasAny(TypeSet.ARRAY | TypeSet.ITERABLE);
                                     break;
                                 case "is_string":
-                                    isTypeAnnounced = paramTypes.contains(Types.strString);
+                                    isTypeAnnounced = paramTypes.has(TypeSet.STRING);
                                     break;
                                 case "is_bool":
-                                    isTypeAnnounced = paramTypes.contains(Types.strBoolean);
+                                    isTypeAnnounced = paramTypes.has(TypeSet.BOOLEAN);
                                     break;
                                 case "is_int":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strInteger) || paramTypes.contains(Types.strNumber);
+                                    isTypeAnnounced = paramTypes.hasAny(TypeSet.INTEGER | TypeSet.NUMBER);
                                     break;
                                 case "is_float":
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strFloat) || paramTypes.contains(Types.strNumber);
+                                    isTypeAnnounced = paramTypes.hasAny(TypeSet.FLOAT | TypeSet.NUMBER);
                                     break;
                                 case "is_resource":
-                                    isTypeAnnounced = paramTypes.contains(Types.strResource);
+                                    isTypeAnnounced = paramTypes.has(TypeSet.RESOURCE);
                                     break;
                                 case "is_numeric":
-                                    if (paramTypes.contains(Types.strString)) { continue; }
-                                    isTypeAnnounced =
-                                        paramTypes.contains(Types.strNumber) ||
-                                        paramTypes.contains(Types.strFloat)  || paramTypes.contains(Types.strInteger);
+                                    if (paramTypes.has(TypeSet.STRING)) { continue; }
+                                    isTypeAnnounced = paramTypes.hasAny(TypeSet.NUMBER | TypeSet.FLOAT | TypeSet.INTEGER);
                                     break;
                                 case "is_callable":
                                     isTypeAnnounced =
-                                        paramTypes.contains(Types.strCallable) || paramTypes.contains(Types.strArray) ||
-                                        paramTypes.contains(Types.strString)   || paramTypes.contains("\\Closure");
+                                        paramTypes.hasAny(TypeSet.CALLABLE | TypeSet.ARRAY | TypeSet.STRING) ||
+                                        paramTypes.contains("\\Closure");
                                     break;
                                 case "is_object":
                                     isTypeAnnounced =
-                                        paramTypes.contains(Types.strObject) || paramTypes.contains(Types.strCallable) ||
-                                        paramTypes.stream().anyMatch(t -> classReferences.contains(t) ||
-                                                                          (t.startsWith("\\") && !t.equals("\\Closure")));
+                                        paramTypes.hasAny(TypeSet.OBJECT | TypeSet.CALLABLE | classReferences) ||
+                                        paramTypes.anyClass(t -> !t.equals("\\Closure"));
                                     break;
                                 case "is_a":
                                     isTypeAnnounced =
-                                        paramTypes.contains(Types.strObject) || paramTypes.contains(Types.strString) ||
-                                        paramTypes.stream().anyMatch(t ->
-                                            (t.startsWith("\\") && !t.equals("\\Closure")) || classReferences.contains(t)
-                                        );
+                                        paramTypes.hasAny(TypeSet.OBJECT | TypeSet.STRING | classReferences) ||
+                                        paramTypes.anyClass(t -> !t.equals("\\Closure"));
                                     break;
                                 default:
                                     continue;
@@ -217,42 +183,35 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                             if (variable instanceof Variable && value instanceof PhpTypedElement) {
                                 final String variableName = variable.getName();
                                 if (variableName != null && variableName.equals(parameterName)) {
-                                    final PhpType resolvedType = OpenapiResolveUtil.resolveType((PhpTypedElement) value, project);
-                                    final Set<String> resolved = new HashSet<>();
-                                    if (resolvedType != null) {
-                                        resolvedType.filterUnknown().getTypes().forEach(t -> resolved.add(Types.getType(t)));
-                                    }
-
+                                    TypeSet resolved = OpenapiResolveUtil.resolveTypeSet((PhpTypedElement) value, project);
                                     if (resolved.size() >= 2) {
                                         /* false-positives: core functions returning string|array & false|null */
-                                        if (resolved.contains(Types.strString) || resolved.contains(Types.strArray)) {
-                                            if (resolved.contains(Types.strBoolean)) {
+                                        if (resolved.hasAny(TypeSet.STRING | TypeSet.ARRAY)) {
+                                            if (resolved.has(TypeSet.BOOLEAN)) {
                                                 final boolean isFunctionCall = OpenapiTypesUtil.isFunctionReference(value);
                                                 if (isFunctionCall) {
-                                                    resolved.remove(Types.strBoolean);
+                                                    resolved = resolved.without(TypeSet.BOOLEAN);
                                                 }
-                                            } else if (resolved.contains(Types.strNull)) {
+                                            } else if (resolved.has(TypeSet.NULL)) {
                                                 final boolean isFunctionCall = OpenapiTypesUtil.isFunctionReference(value);
                                                 if (isFunctionCall) {
-                                                    resolved.remove(Types.strNull);
+                                                    resolved = resolved.without(TypeSet.NULL);
                                                 }
                                             }
                                         }
                                         /* false-positives: nullable objects */
-                                        else if (resolved.contains(Types.strNull)) {
-                                            final boolean isNullableObject = paramTypes.stream()
-                                                    .anyMatch(t -> classReferences.contains(t) ||
-                                                                   t.startsWith("\\") && !t.equals("\\Closure"));
+                                        else if (resolved.has(TypeSet.NULL)) {
+                                            final boolean isNullableObject = paramTypes.hasAny(classReferences) ||
+                                                                             paramTypes.anyClass(t -> !t.equals("\\Closure"));
                                             if (isNullableObject) {
-                                                resolved.remove(Types.strNull);
+                                                resolved = resolved.without(TypeSet.NULL);
                                             }
                                         }
                                     }
 
-                                    resolved.remove(Types.strMixed);
-                                    for (String type : resolved) {
+                                    for (String type : resolved.without(TypeSet.MIXED)) {
                                         /* translate static/self into FQNs */
-                                        if (classReferences.contains(type)) {
+                                        if (type.equals(Types.strSelf) || type.equals(Types.strStatic)) {
                                             PsiElement valueExtract = value;
                                             /* ` = <whatever> ?? <method call>` support */
                                             if (valueExtract instanceof BinaryExpression) {
@@ -292,7 +251,7 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                                                 }
                                             }
                                             /* translate static/self into FQNs didn't work, skip */
-                                            if (classReferences.contains(type)) {
+                                            if (type.equals(Types.strSelf) || type.equals(Types.strStatic)) {
                                                 continue;
                                             }
                                         }
@@ -306,19 +265,16 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                                             break;
                                         }
                                     }
-                                    resolved.clear();
                                 }
                             }
                         }
                     }
-
-                    paramTypes.clear();
                 }
             }
 
             private boolean isTypeCompatibleWith(
                     @NotNull String type,
-                    @NotNull Collection<String> allowedTypes,
+                    @NotNull TypeSet allowedTypes,
                     @NotNull PhpIndex index
             ) {
                 /* first case: implicit match */
@@ -336,7 +292,7 @@ public class CallableParameterUseCaseInTypeContextInspection extends BasePhpInsp
                         );
                 }
 
-                return !possibleTypes.isEmpty() && allowedTypes.stream().anyMatch(possibleTypes::contains);
+                return !possibleTypes.isEmpty() && allowedTypes.anyClass(possibleTypes::contains);
             }
         };
     }
@@ -6,16 +6,15 @@ import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
 import com.jetbrains.php.lang.psi.elements.ArrayHashElement;
-import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
-import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
-import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
+import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.ArrayKeysAnalysisUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.Map;
+import javax.swing.*;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -27,6 +26,9 @@ import java.util.Map;
  */
 
 public class DuplicateArrayKeysInspector extends BasePhpInspection {
+    // Inspection options.
+    public int ENTRIES_LIMIT = 100000;
+
     private static final String messageDuplicateKey  = "The key is duplicated (and you should remove the outdated one).";
     private static final String messageDuplicatePair = "The key-value pair is duplicated (and you can safely remove it).";
 
@@ -44,38 +46,41 @@ public class DuplicateArrayKeysInspector extends BasePhpInspection {
 
     @NotNull
     public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
-        return new PhpElementVisitor() {
+        return new BasePhpElementVisitor() {
             @Override
             public void visitPhpArrayCreationExpression(@NotNull ArrayCreationExpression expression) {
-                final Map<String, PsiElement> processed = new HashMap<>();
-                for (final ArrayHashElement pair : expression.getHashElements()) {
-                    final PhpPsiElement key = pair.getKey();
-                    if (key instanceof StringLiteralExpression && key.getFirstPsiChild() == null) {
-                        final PsiElement value = pair.getValue();
-                        if (value != null) {
-                            final String literal = ((StringLiteralExpression) key).getContents();
-                            if (processed.containsKey(literal)) {
-                                final boolean isPairDuplicated = !(value instanceof ArrayCreationExpression) &&
-                                                                 OpenapiEquivalenceUtil.areEqual(value, processed.get(literal));
-                                if (isPairDuplicated) {
-                                    holder.registerProblem(
-                                            pair,
-                                            MessagesPresentationUtil.prefixWithEa(messageDuplicatePair),
-                                            ProblemHighlightType.LIKE_UNUSED_SYMBOL
-                                    );
-                                } else {
-                                    holder.registerProblem(
-                                            key,
-                                            MessagesPresentationUtil.prefixWithEa(messageDuplicateKey)
-                                    );
-                                }
-                            }
-                            processed.put(literal, value);
+                if (ArrayKeysAnalysisUtil.countEntries(expression, ENTRIES_LIMIT) > ENTRIES_LIMIT) {
+                    return;
+                }
+
+                for (final ArrayKeysAnalysisUtil.Duplicate duplicate : ArrayKeysAnalysisUtil.getSummary(expression).getDuplicates()) {
+                    final ArrayHashElement pair = duplicate.getPair();
+                    final PsiElement value      = pair.getValue();
+                    final PsiElement key        = pair.getKey();
+                    if (value != null && key != null) {
+                        final boolean isPairDuplicated = !(value instanceof ArrayCreationExpression) &&
+                                                         OpenapiEquivalenceUtil.areEqual(value, duplicate.getPreviousValue());
+                        if (isPairDuplicated) {
+                            holder.registerProblem(
+                                    pair,
+                                    MessagesPresentationUtil.prefixWithEa(messageDuplicatePair),
+                                    ProblemHighlightType.LIKE_UNUSED_SYMBOL
+                            );
+                        } else {
+                            holder.registerProblem(
+                                    key,
+                                    MessagesPresentationUtil.prefixWithEa(messageDuplicateKey)
+                            );
                         }
                     }
                 }
-                processed.clear();
             }
         };
     }
+
+    public JComponent createOptionsPanel() {
+        return OptionsComponent.create((component) ->
+            component.addSpinner("Skip arrays with more entries than:", ENTRIES_LIMIT, (input) -> ENTRIES_LIMIT = input)
+        );
+    }
 }
@@ -17,6 +17,7 @@ import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
@@ -147,7 +148,14 @@ public class OneTimeUseVariablesInspector extends BasePhpInspection {
                             holder.registerProblem(
                                     assignVariable,
                                     MessagesPresentationUtil.prefixWithEa(messagePattern.replace("%v%", variableName)),
-                                    new TheLocalFix(holder.getProject(), assign.getParent(), argument, assignValue)
+                                    LazyFix.of(
+                                            holder,
+                                            TheLocalFix.title,
+                                            elements -> new TheLocalFix(elements.getProject(), elements.get(0), elements.get(1), elements.get(2)),
+                                            assign.getParent(),
+                                            argument,
+                                            assignValue
+                                    )
                             );
                         }
                     }
@@ -12,6 +12,7 @@ import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
@@ -80,7 +81,7 @@ final public class MisplacedOperatorStrategy {
                                     holder.registerProblem(
                                             operator,
                                             MessagesPresentationUtil.prefixWithEa(message),
-                                            new MisplacedOperatorFix(holder.getProject(), replacement, call)
+                                            LazyFix.of(holder, MisplacedOperatorFix.title, elements -> new MisplacedOperatorFix(elements.getProject(), replacement, elements.get(0)), call)
                                     );
                                     return true;
                                 }
@@ -14,6 +14,7 @@ import com.jetbrains.php.lang.psi.elements.Field;
 import com.jetbrains.php.lang.psi.elements.Method;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.jetbrains.php.lang.psi.elements.PhpModifierList;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.PhpLanguageLevel;
@@ -72,7 +73,7 @@ public class AccessModifierPresentedInspector extends BasePhpInspection {
                             holder.registerProblem(
                                     methodName,
                                     MessagesPresentationUtil.prefixWithEa(String.format(messagePattern, method.getName())),
-                                    new MemberVisibilityFix(holder.getProject(), modifiers)
+                                    LazyFix.of(holder, MemberVisibilityFix.title, elements -> new MemberVisibilityFix(elements.getProject(), elements.get(0)), modifiers)
                             );
                         }
                     }
@@ -90,7 +91,7 @@ public class AccessModifierPresentedInspector extends BasePhpInspection {
                                 holder.registerProblem(
                                         fieldName,
                                         MessagesPresentationUtil.prefixWithEa(String.format(messagePattern, field.getName())),
-                                        new ConstantVisibilityFix(holder.getProject(), field)
+                                        LazyFix.of(holder, ConstantVisibilityFix.title, elements -> new ConstantVisibilityFix(elements.getProject(), elements.get(0)), field)
                                 );
                             }
                         } else {
@@ -99,7 +100,7 @@ public class AccessModifierPresentedInspector extends BasePhpInspection {
                                 holder.registerProblem(
                                         fieldName,
                                         MessagesPresentationUtil.prefixWithEa(String.format(messagePattern, field.getName())),
-                                        new MemberVisibilityFix(holder.getProject(), modifiers)
+                                        LazyFix.of(holder, MemberVisibilityFix.title, elements -> new MemberVisibilityFix(elements.getProject(), elements.get(0)), modifiers)
                                 );
                             }
                         }
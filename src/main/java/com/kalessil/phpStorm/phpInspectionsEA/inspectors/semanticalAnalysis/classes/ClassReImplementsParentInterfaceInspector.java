@@ -79,7 +79,6 @@ public class ClassReImplementsParentInterfaceInspector extends BasePhpInspection
                                     }
                                 }
                                 processed.clear();
-                                inherited.clear();
                             }
                         }
                         ownInterfaces.clear();
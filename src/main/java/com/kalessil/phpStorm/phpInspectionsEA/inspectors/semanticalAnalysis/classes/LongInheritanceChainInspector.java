@@ -2,6 +2,7 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.cla
 
 import com.intellij.codeInspection.ProblemHighlightType;
 import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
@@ -10,7 +11,7 @@ import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.options.OptionsComponent;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.NamedElementUtil;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassDependenciesUtil;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
@@ -70,18 +71,24 @@ public class LongInheritanceChainInspector extends BasePhpInspection {
                     return;
                 }
 
-                PhpClass classToCheck = clazz;
-                PhpClass parent       = OpenapiResolveUtil.resolveSuperClass(classToCheck);
+                /* parents are taken from the classes dependencies index: no PSI loading and resolving */
+                final Project project = holder.getProject();
+                final String superFqn = clazz.getSuperFQN();
+                ClassDependenciesUtil.Declaration parent = superFqn == null || superFqn.isEmpty()
+                        ? null
+                        : ClassDependenciesUtil.getDeclaration(project, superFqn);
                 /* false-positives: abstract class implementation */
-                if (null != parent && !classToCheck.isAbstract() && parent.isAbstract()) {
+                if (null != parent && !clazz.isAbstract() && parent.isAbstract()) {
                     return;
                 }
 
-                int parentsCount = 0;
+                int parentsCount            = 0;
+                final Set<String> processed = new HashSet<>();
+                processed.add(clazz.getFQN().toLowerCase());
                 /* in source code class CAN extend itself, PS will report it but data structure is incorrect still */
-                while (null != parent && clazz != parent) {
-                    classToCheck = parent;
-                    parent       = OpenapiResolveUtil.resolveSuperClass(classToCheck);
+                while (null != parent && processed.add(parent.getFQN().toLowerCase())) {
+                    final String parentSuperFqn = parent.getSuperFQN();
+                    parent                      = parentSuperFqn == null ? null : ClassDependenciesUtil.getDeclaration(project, parentSuperFqn);
                     ++parentsCount;
 
                     if (null != parent) {
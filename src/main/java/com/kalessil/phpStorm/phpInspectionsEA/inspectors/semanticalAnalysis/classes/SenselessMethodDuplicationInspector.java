@@ -12,6 +12,7 @@ import com.jetbrains.php.lang.psi.PhpPsiElementFactory;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.fixers.DropMethodFix;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.BasePhpInspection;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
@@ -96,9 +97,12 @@ public class SenselessMethodDuplicationInspector extends BasePhpInspection {
                         break;
                     }
 
-                    /* process comparing 2 nodes */
-                    if (!OpenapiEquivalenceUtil.areEqual(ownExpression, parentExpression)) {
-                            return;
+                    /* process comparing 2 nodes: parent's hashes are cached and shared between all children */
+                    if (
+                        OpenapiEquivalenceUtil.hash(ownExpression) != OpenapiEquivalenceUtil.hash(parentExpression) ||
+                        !OpenapiEquivalenceUtil.areEqual(ownExpression, parentExpression)
+                    ) {
+                        return;
                     }
                     ownExpression    = ownExpression.getNextPsiSibling();
                     parentExpression = parentExpression.getNextPsiSibling();
@@ -120,13 +124,13 @@ public class SenselessMethodDuplicationInspector extends BasePhpInspection {
                         holder.registerProblem(
                                 methodName,
                                 String.format(MessagesPresentationUtil.prefixWithEa(messagePatternIdentical), method.getName()),
-                                canFix ? new DropMethodFix() : null
+                                canFix ? LazyFix.create(holder, DropMethodFix::new) : null
                         );
                     } else {
                         holder.registerProblem(
                                 methodName,
                                 String.format(MessagesPresentationUtil.prefixWithEa(messagePatternProxy), method.getName()),
-                                canFix ? new ProxyCallFix() : null
+                                canFix ? LazyFix.create(holder, ProxyCallFix::new) : null
                         );
                     }
                 }
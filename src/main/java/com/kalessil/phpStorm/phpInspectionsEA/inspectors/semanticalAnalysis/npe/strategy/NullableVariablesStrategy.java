@@ -12,7 +12,6 @@ import com.jetbrains.php.lang.documentation.phpdoc.psi.PhpDocVariable;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
-import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -32,12 +31,7 @@ import java.util.stream.Collectors;
 final public class NullableVariablesStrategy {
     private static final String message = "Null pointer exception may occur here.";
 
-    private static final Set<String> objectTypes = new HashSet<>();
-    static {
-        objectTypes.add(Types.strSelf);
-        objectTypes.add(Types.strStatic);
-        objectTypes.add(Types.strObject);
-    }
+    private static final int objectTypes = TypeSet.SELF | TypeSet.STATIC | TypeSet.OBJECT;
 
     final private static Condition<PsiElement> PARENT_FUNCTION = new Condition<PsiElement>() {
         public boolean value(PsiElement element) { return element instanceof Function; }
@@ -47,42 +41,31 @@ final public class NullableVariablesStrategy {
     public static void applyToLocalVariables(@NotNull Function function, @NotNull ProblemsHolder holder) {
         final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(function);
         if (body != null) {
-            /* group variables assignments, except parameters */
-            final Set<String> parameters = Arrays.stream(function.getParameters()).map(Parameter::getName).collect(Collectors.toSet());
-            final Map<String, List<AssignmentExpression>> assignments = new HashMap<>();
-            for (final Variable variable : PsiTreeUtil.findChildrenOfType(body, Variable.class)) {
-                final String variableName = variable.getName();
-                final PsiElement parent   = variable.getParent();
-                if (parent instanceof AssignmentExpression && !parameters.contains(variableName)) {
-                    final AssignmentExpression assignment = (AssignmentExpression) parent;
-                    if (assignment.getVariable() == variable && OpenapiTypesUtil.isStatementImpl(assignment.getParent())) {
+            /* check if the variable has been written only once, inspect when null/void values are possible */
+            final Set<String> parameters    = Arrays.stream(function.getParameters()).map(Parameter::getName).collect(Collectors.toSet());
+            final Project project           = holder.getProject();
+            final Set<PsiElement> processed = new HashSet<>();
+            for (final List<AssignmentExpression> variableAssignments : FunctionAssignmentsUtil.getAssignments(function).values()) {
+                /* find first supported assignment (except parameters), invoke analyzing statements after it when nullable */
+                for (final AssignmentExpression assignment : variableAssignments) {
+                    final PsiElement variable = assignment.getVariable();
+                    if (!(variable instanceof Variable) || parameters.contains(((Variable) variable).getName())) {
+                        break;
+                    }
+                    if (FunctionAssignmentsUtil.getStatement(assignment) != null) {
                         /* skip unsupported assignments */
                         final PsiElement value = assignment.getValue(); /* TODO: strict method reference type check */
                         if (value instanceof FieldReference || value instanceof UnaryExpression) {
                             continue;
                         }
-                        /* pick up the assignment */
-                        assignments.computeIfAbsent(variableName, v -> new ArrayList<>()).add(assignment);
-                    }
-                }
-            }
-
-            /* check if the variable has been written only once, inspect when null/void values are possible */
-            final Project project           = holder.getProject();
-            final Set<PsiElement> processed = new HashSet<>();
-            for (final Map.Entry<String, List<AssignmentExpression>> pair : assignments.entrySet()) {
-                final List<AssignmentExpression> variableAssignments = pair.getValue();
-                if (!variableAssignments.isEmpty()) {
-                    final AssignmentExpression assignment = variableAssignments.get(0);
-                    if (isNullableResult(assignment, project)) {
-                        /* find first nullable assignments, invoke analyzing statements after it */
-                        apply(pair.getKey(), assignment, body, holder, processed);
+                        if (isNullableResult(assignment, project)) {
+                            apply(((Variable) variable).getName(), assignment, body, holder, processed);
+                        }
+                        break;
                     }
-                    variableAssignments.clear();
                 }
             }
             processed.clear();
-            assignments.clear();
         }
     }
 
@@ -91,18 +74,9 @@ final public class NullableVariablesStrategy {
         final PsiElement assignmentValue = assignment.getValue();
         /* primary strategy: resolve types and check nullability */
         if (assignmentValue instanceof PhpTypedElement) {
-            final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) assignmentValue, project);
-            if (resolved != null) {
-                final Set<String> types = new HashSet<>();
-                resolved.filterUnknown().getTypes().forEach(t -> types.add(Types.getType(t)));
-                if (types.contains(Types.strNull) || types.contains(Types.strVoid)) {
-                    types.remove(Types.strNull);
-                    types.remove(Types.strVoid);
-                    if (!types.isEmpty()) {
-                        result = types.stream().noneMatch(t -> !t.startsWith("\\") && !objectTypes.contains(t));
-                    }
-                }
-                types.clear();
+            final TypeSet types = OpenapiResolveUtil.resolveTypeSet((PhpTypedElement) assignmentValue, project);
+            if (types.hasAny(TypeSet.NULL | TypeSet.VOID)) {
+                result = types.isObjects(TypeSet.NULL | TypeSet.VOID, objectTypes);
             }
         }
         /* secondary strategy: support type specification with `@var <type> <variable>` */
@@ -131,24 +105,12 @@ final public class NullableVariablesStrategy {
         if (body != null) {
             final Set<PsiElement> processed = new HashSet<>();
             for (final Parameter parameter : function.getParameters()) {
-                final Set<String> declaredTypes = new HashSet<>();
-                OpenapiResolveUtil.resolveDeclaredType(parameter).getTypes().forEach(t -> declaredTypes.add(Types.getType(t)));
-                if (declaredTypes.contains(Types.strNull) || PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
-                    declaredTypes.remove(Types.strNull);
-
-                    boolean isObject = !declaredTypes.isEmpty();
-                    for (final String type : declaredTypes) {
-                        if (!type.startsWith("\\") && !objectTypes.contains(type)) {
-                            isObject = false;
-                            break;
-                        }
-                    }
-
-                    if (isObject) {
+                final TypeSet declaredTypes = TypeSet.of(OpenapiResolveUtil.resolveDeclaredType(parameter).getTypes());
+                if (declaredTypes.has(TypeSet.NULL) || PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
+                    if (declaredTypes.isObjects(TypeSet.NULL, objectTypes)) {
                         apply(parameter.getName(), null, body, holder, processed);
                     }
                 }
-                declaredTypes.clear();
             }
             processed.clear();
         }
@@ -164,7 +126,7 @@ final public class NullableVariablesStrategy {
         /* find variable usages, control flow is not our friend here */
         final Function function        = (Function) body.getParent();
         final List<Variable> variables = new ArrayList<>();
-        PsiTreeUtil.findChildrenOfType(body, Variable.class).stream()
+        PsiNodesInventoryUtil.findChildrenOfType(body, Variable.class).stream()
                 .filter(variable  ->
                     variableName.equals(variable.getName()) && PsiTreeUtil.findFirstParent(variable, PARENT_FUNCTION) == function
                 )
@@ -173,16 +135,16 @@ final public class NullableVariablesStrategy {
                     if (parent instanceof AssignmentExpression) {
                         final List<Variable> currentUsages    = new ArrayList<>();
                         final AssignmentExpression assignment = (AssignmentExpression) parent;
-                        PsiTreeUtil.findChildrenOfType(assignment.getValue(), Variable.class).stream()
+                        PsiNodesInventoryUtil.findChildrenOfType(assignment.getValue(), Variable.class).stream()
                                 .filter(v -> variableName.equals(v.getName()))
                                 .forEach(currentUsages::add);
-                        PsiTreeUtil.findChildrenOfType(assignment, Variable.class).stream()
+                        PsiNodesInventoryUtil.findChildrenOfType(assignment, Variable.class).stream()
                                 .filter(v -> variableName.equals(v.getName()) && !currentUsages.contains(v))
                                 .forEach(currentUsages::add);
                         variables.addAll(currentUsages);
                         currentUsages.clear();
                     } else {
-                        PsiTreeUtil.findChildrenOfType(parent, Variable.class).stream()
+                        PsiNodesInventoryUtil.findChildrenOfType(parent, Variable.class).stream()
                                 .filter(v -> variableName.equals(v.getName()))
                                 .forEach(variables::add);
                     }
@@ -325,27 +287,16 @@ final public class NullableVariablesStrategy {
                     }
 
                     /* lookup types, if no null declarations - report class-only declarations */
-                    final Parameter parameter       = parameters[position];
-                    final Set<String> declaredTypes = new HashSet<>();
-                    OpenapiResolveUtil.resolveDeclaredType(parameter).getTypes().forEach(t -> declaredTypes.add(Types.getType(t)));
-                    if (!declaredTypes.contains(Types.strNull) && !PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
-                        declaredTypes.remove(Types.strNull);
-
-                        boolean isObject = !declaredTypes.isEmpty();
-                        for (final String type : declaredTypes) {
-                            if (!type.startsWith("\\") && !objectTypes.contains(type)) {
-                                isObject = false;
-                                break;
-                            }
-                        }
-                        if (isObject && processed.add(variable)) {
+                    final Parameter parameter   = parameters[position];
+                    final TypeSet declaredTypes = TypeSet.of(OpenapiResolveUtil.resolveDeclaredType(parameter).getTypes());
+                    if (!declaredTypes.has(TypeSet.NULL) && !PhpLanguageUtil.isNull(parameter.getDefaultValue())) {
+                        if (declaredTypes.isObjects(TypeSet.NULL, objectTypes) && processed.add(variable)) {
                             holder.registerProblem(
                                     variable,
                                     MessagesPresentationUtil.prefixWithEa(message)
                             );
                         }
                     }
-                    declaredTypes.clear();
                 }
             }
         }
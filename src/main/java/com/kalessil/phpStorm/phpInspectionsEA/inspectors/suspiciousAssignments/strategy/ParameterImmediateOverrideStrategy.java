@@ -8,6 +8,7 @@ import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpAccessVariableI
 import com.jetbrains.php.codeInsight.controlFlow.instructions.PhpEntryPointInstruction;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.FunctionAssignmentsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
 import org.jetbrains.annotations.NotNull;
@@ -39,7 +40,12 @@ final public class ParameterImmediateOverrideStrategy {
                 continue;
             }
 
-            final String parameterName          = param.getName();
+            /* no writes into the parameter: the control flow analysis is not needed */
+            final String parameterName = param.getName();
+            if (FunctionAssignmentsUtil.getVariableAssignments(function, parameterName).isEmpty()) {
+                continue;
+            }
+
             PhpAccessVariableInstruction[] uses = PhpControlFlowUtil.getFollowingVariableAccessInstructions(start, parameterName, false);
             /* at least 2 uses expected: override and any other operation */
             if (uses.length < 2) {
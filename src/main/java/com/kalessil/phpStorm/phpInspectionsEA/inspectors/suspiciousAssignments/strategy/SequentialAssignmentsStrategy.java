@@ -3,13 +3,14 @@ package com.kalessil.phpStorm.phpInspectionsEA.inspectors.suspiciousAssignments.
 import com.intellij.codeInspection.ProblemsHolder;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.tree.IElementType;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.ExpressionSemanticUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.FunctionAssignmentsUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiEquivalenceUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PsiNodesInventoryUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -32,7 +33,7 @@ final public class SequentialAssignmentsStrategy {
     static public void apply(@NotNull AssignmentExpression expression, @NotNull ProblemsHolder holder) {
         final PsiElement parent    = expression.getParent();
         final PsiElement container = expression.getVariable();
-        if (container != null && OpenapiTypesUtil.isStatementImpl(parent)) {
+        if (container != null && OpenapiTypesUtil.isStatementImpl(parent) && ! isSingleAssignment(container, expression)) {
             final boolean isTargetExpression = ! isValidArrayWrite(container) && ! isContainerUsed(container, expression);
             if (isTargetExpression) {
                 final PhpPsiElement previous = ((PhpPsiElement) parent).getPrevPsiSibling();
@@ -50,6 +51,12 @@ final public class SequentialAssignmentsStrategy {
         }
     }
 
+    /* a variable or a field written only once in the function can not be overridden: skips the siblings analysis */
+    static private boolean isSingleAssignment(@NotNull PsiElement container, @NotNull AssignmentExpression expression) {
+        final Function scope = FunctionAssignmentsUtil.getKey(container) == null ? null : ExpressionSemanticUtil.getScope(expression);
+        return scope != null && FunctionAssignmentsUtil.getAssignments(scope, container).size() < 2;
+    }
+
     static private boolean isValidArrayWrite(@NotNull PsiElement container) {
         boolean result = false;
         while (container instanceof ArrayAccessExpression) {
@@ -77,7 +84,7 @@ final public class SequentialAssignmentsStrategy {
         boolean result = false;
         if (assignment != null) {
             /* check if container is used */
-            for (final PsiElement candidate : PsiTreeUtil.findChildrenOfType(assignment.getValue(), container.getClass())) {
+            for (final PsiElement candidate : PsiNodesInventoryUtil.findChildrenOfType(assignment.getValue(), container.getClass())) {
                 if (OpenapiEquivalenceUtil.areEqual(candidate, container)) {
                     result = true;
                     break;
@@ -86,7 +93,7 @@ final public class SequentialAssignmentsStrategy {
             /* check if container expression part are interconnected */
             if (! result) {
                 final Set<String> variables = new HashSet<>();
-                for (final Variable variable : PsiTreeUtil.findChildrenOfType(container, Variable.class)) {
+                for (final Variable variable : PsiNodesInventoryUtil.findChildrenOfType(container, Variable.class)) {
                     final String variableName = variable.getName();
                     if (! variableName.equals("this") && ! variables.add(variableName)) {
                         result = true;
@@ -132,7 +139,7 @@ final public class SequentialAssignmentsStrategy {
                     final PsiElement next              = found.getNextPsiSibling();
                     final PsiElement consumerCandidate = next instanceof If ? ((If) next).getCondition() : next;
                     final boolean isUsed               = consumerCandidate != null &&
-                            PsiTreeUtil.findChildrenOfType(consumerCandidate, container.getClass()).stream()
+                            PsiNodesInventoryUtil.findChildrenOfType(consumerCandidate, container.getClass()).stream()
                                     .anyMatch(candidate -> OpenapiEquivalenceUtil.areEqual(candidate, container));
                     if (! isUsed) {
                         holder.registerProblem(
@@ -162,7 +169,7 @@ final public class SequentialAssignmentsStrategy {
                 return;
             }
             /* false-positives: ++/-- are used inside the container expression */
-            for (final UnaryExpression unary : PsiTreeUtil.findChildrenOfType(container, UnaryExpression.class)) {
+            for (final UnaryExpression unary : PsiNodesInventoryUtil.findChildrenOfType(container, UnaryExpression.class)) {
                 final PsiElement operation = unary.getOperation();
                 if (operation != null) {
                     final IElementType elementType = operation.getNode().getElementType();
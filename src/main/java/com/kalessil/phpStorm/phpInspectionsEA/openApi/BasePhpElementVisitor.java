@@ -1,9 +1,7 @@
 package com.kalessil.phpStorm.phpInspectionsEA.openApi;
 
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiWhiteSpace;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.jetbrains.php.lang.documentation.phpdoc.psi.tags.PhpDocTag;
 import com.jetbrains.php.lang.psi.PhpFile;
 import com.jetbrains.php.lang.psi.elements.*;
@@ -11,6 +9,7 @@ import com.jetbrains.php.lang.psi.visitors.PhpElementVisitor;
 import com.kalessil.phpStorm.phpInspectionsEA.openApi.elements.PhpThrowExpression;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiTypesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TestContextUtil;
 import org.jetbrains.annotations.NotNull;
 
 /*
@@ -104,20 +103,7 @@ public abstract class BasePhpElementVisitor extends PhpElementVisitor {
     @Override public void visitPhpReturn(PhpReturn returnStatement) {}
 
     protected boolean isTestContext(@NotNull PsiElement expression) {
-        boolean result        = false;
-        final String filePath = expression.getContainingFile().getVirtualFile().getPath();
-        if (filePath.endsWith("Test.php") || filePath.endsWith("Spec.php") || filePath.endsWith(".phpt") || filePath.contains("/Fixtures/")) {
-            result = true;
-        } else {
-            final PhpClass containingClass = expression instanceof PhpClass
-                    ? (PhpClass) expression
-                    : PsiTreeUtil.getParentOfType(expression, PhpClass.class, false, (Class) PsiFile.class);
-            if (containingClass != null) {
-                final String fqn = containingClass.getFQN();
-                result = fqn.endsWith("Test") || fqn.contains("\\Tests\\") || fqn.contains("\\Test\\");
-            }
-        }
-        return result;
+        return TestContextUtil.isTestContext(expression);
     }
 
     protected boolean isFromRootNamespace(@NotNull FunctionReference reference) {
@@ -1,6 +1,47 @@
 package com.kalessil.phpStorm.phpInspectionsEA.openApi;
 
+import com.intellij.codeInspection.LocalInspectionToolSession;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElementVisitor;
 import com.jetbrains.php.lang.inspections.PhpInspection;
+import com.kalessil.phpStorm.phpInspectionsEA.fixers.LazyFix;
+import com.kalessil.phpStorm.phpInspectionsEA.profiler.InspectionsProfiler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
 
 public abstract class BasePhpInspection extends PhpInspection {
+    @NotNull
+    @Override
+    public PsiElementVisitor buildVisitor(
+            @NotNull ProblemsHolder holder,
+            boolean isOnTheFly,
+            @NotNull LocalInspectionToolSession session
+    ) {
+        final PsiElementVisitor visitor = FunctionCallsDispatcher.route(
+                super.buildVisitor(holder, isOnTheFly, session),
+                this.getHandledFunctionNames(),
+                this.getHandledMethodNames()
+        );
+        return InspectionsProfiler.isEnabled() ? InspectionsProfiler.profile(this.getShortName(), visitor) : visitor;
+    }
+
+    @Override
+    public void inspectionFinished(@NotNull LocalInspectionToolSession session, @NotNull ProblemsHolder problemsHolder) {
+        LazyFix.anchor(problemsHolder.getResults());
+        super.inspectionFinished(session, problemsHolder);
+    }
+
+    /* names of functions routed to visitPhpFunctionCall from the shared calls table, null stands for all of them */
+    @Nullable
+    protected Set<String> getHandledFunctionNames() {
+        return null;
+    }
+
+    /* names of methods routed to visitPhpMethodReference from the shared calls table, null stands for all of them */
+    @Nullable
+    protected Set<String> getHandledMethodNames() {
+        return null;
+    }
 }
@@ -0,0 +1,115 @@
+package com.kalessil.phpStorm.phpInspectionsEA.openApi;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.lang.psi.PhpFile;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.MethodReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Routes function calls and method references to the inspections declared handled names (see BasePhpInspection).
+ *
+ * A file is walked once for all such inspections: calls are grouped by name into a table cached on the file. Routed
+ * visitors ignore calls met during the regular elements traversal and, when visiting the file itself, receive only
+ * the calls listed under their names in the table.
+ */
+final public class FunctionCallsDispatcher {
+    private static final Key<CachedValue<CallsTable>> callsTable = Key.create("EA.FunctionCallsDispatcher.callsTable");
+
+    @NotNull
+    public static PsiElementVisitor route(
+            @NotNull PsiElementVisitor visitor,
+            @Nullable Set<String> functions,
+            @Nullable Set<String> methods
+    ) {
+        if ((functions == null && methods == null) || visitor == PsiElementVisitor.EMPTY_VISITOR) {
+            return visitor;
+        }
+        return new PsiElementVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element instanceof FunctionReference) {
+                    final boolean isRouted = element instanceof MethodReference ? methods != null : functions != null;
+                    if (isRouted) {
+                        /* delivered from the calls table when the file is visited */
+                        return;
+                    }
+                } else if (element instanceof PhpFile) {
+                    element.accept(visitor);
+                    final CallsTable table = getCallsTable((PhpFile) element);
+                    dispatch(table.functions, functions, visitor);
+                    dispatch(table.methods, methods, visitor);
+                    return;
+                }
+                element.accept(visitor);
+            }
+        };
+    }
+
+    private static void dispatch(
+            @NotNull Map<String, List<FunctionReference>> calls,
+            @Nullable Set<String> names,
+            @NotNull PsiElementVisitor visitor
+    ) {
+        if (names != null && !calls.isEmpty()) {
+            for (final String name : names) {
+                final List<FunctionReference> references = calls.get(name);
+                if (references != null) {
+                    references.forEach(reference -> reference.accept(visitor));
+                }
+            }
+        }
+    }
+
+    @NotNull
+    static CallsTable getCallsTable(@NotNull PhpFile file) {
+        if (!file.isPhysical()) {
+            return new CallsTable(file);
+        }
+        return CachedValuesManager.getCachedValue(
+                file,
+                callsTable,
+                () -> CachedValueProvider.Result.create(new CallsTable(file), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    static final class CallsTable {
+        final Map<String, List<FunctionReference>> functions = new HashMap<>();
+        final Map<String, List<FunctionReference>> methods   = new HashMap<>();
+
+        private CallsTable(@NotNull PhpFile file) {
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(@NotNull PsiElement element) {
+                    if (element instanceof FunctionReference) {
+                        final String name = ((FunctionReference) element).getName();
+                        if (name != null && !name.isEmpty()) {
+                            final Map<String, List<FunctionReference>> target = element instanceof MethodReference ? methods : functions;
+                            target.computeIfAbsent(name, key -> new ArrayList<>()).add((FunctionReference) element);
+                        }
+                    }
+                    super.visitElement(element);
+                }
+            });
+        }
+    }
+}
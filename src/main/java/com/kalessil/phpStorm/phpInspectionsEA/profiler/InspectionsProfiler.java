@@ -0,0 +1,213 @@
+package com.kalessil.phpStorm.phpInspectionsEA.profiler;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* collects per-inspection visitor statistics; disabled by default (or enabled with -Dea.profiler=true) */
+final public class InspectionsProfiler {
+    private static final int SLOWEST_ELEMENTS_LIMIT = 10;
+
+    private static final Map<String, Statistics> statistics = new ConcurrentHashMap<>();
+    private static volatile boolean enabled                 = Boolean.getBoolean("ea.profiler");
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        InspectionsProfiler.enabled = enabled;
+    }
+
+    public static void reset() {
+        statistics.clear();
+    }
+
+    @NotNull
+    public static PsiElementVisitor profile(@NotNull String shortName, @NotNull PsiElementVisitor visitor) {
+        if (!enabled || visitor == PsiElementVisitor.EMPTY_VISITOR) {
+            return visitor;
+        }
+        final Statistics target = statistics.computeIfAbsent(shortName, Statistics::new);
+        return new PsiElementVisitor() {
+            @Override
+            public void visitElement(PsiElement element) {
+                final long allocatedBefore = Allocations.current();
+                final long start           = System.nanoTime();
+                try {
+                    element.accept(visitor);
+                } finally {
+                    target.register(element, System.nanoTime() - start, Allocations.current() - allocatedBefore);
+                }
+            }
+        };
+    }
+
+    @NotNull
+    public static List<Statistics> getStatistics() {
+        final List<Statistics> result = new ArrayList<>(statistics.values());
+        result.sort((first, second) -> Long.compare(second.getTotalNanos(), first.getTotalNanos()));
+        return result;
+    }
+
+    @NotNull
+    public static String exportJson() {
+        final StringBuilder json = new StringBuilder("{\n  \"inspections\": [");
+        final List<Statistics> snapshot = getStatistics();
+        for (int index = 0; index < snapshot.size(); ++index) {
+            final Statistics entry = snapshot.get(index);
+            json.append(index == 0 ? "\n" : ",\n")
+                .append("    {\"shortName\": \"").append(escape(entry.getShortName()))
+                .append("\", \"invocations\": ").append(entry.getInvocations())
+                .append(", \"totalMs\": ").append(String.format(Locale.ROOT, "%.3f", entry.getTotalNanos() / 1_000_000.0))
+                .append(", \"allocatedBytes\": ").append(entry.getAllocatedBytes())
+                .append(", \"slowest\": [");
+            final List<SlowElement> slowest = entry.getSlowest();
+            for (int position = 0; position < slowest.size(); ++position) {
+                final SlowElement element = slowest.get(position);
+                json.append(position == 0 ? "" : ", ")
+                    .append("{\"location\": \"").append(escape(element.location))
+                    .append("\", \"ms\": ").append(String.format(Locale.ROOT, "%.3f", element.nanos / 1_000_000.0))
+                    .append('}');
+            }
+            json.append("]}");
+        }
+        return json.append(snapshot.isEmpty() ? "" : "\n  ").append("]\n}\n").toString();
+    }
+
+    @NotNull
+    private static String escape(@NotNull String value) {
+        final StringBuilder result = new StringBuilder(value.length());
+        for (final char character : value.toCharArray()) {
+            switch (character) {
+                case '"':  result.append("\\\""); break;
+                case '\\': result.append("\\\\"); break;
+                case '\n': result.append("\\n");  break;
+                case '\r': result.append("\\r");  break;
+                case '\t': result.append("\\t");  break;
+                default:
+                    if (character < 0x20) {
+                        result.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        result.append(character);
+                    }
+            }
+        }
+        return result.toString();
+    }
+
+    final public static class Statistics {
+        private final String shortName;
+        private final LongAdder invocations     = new LongAdder();
+        private final LongAdder totalNanos      = new LongAdder();
+        private final LongAdder allocatedBytes  = new LongAdder();
+        private final List<SlowElement> slowest = new ArrayList<>();
+        private volatile long slowestThreshold  = 0;
+
+        Statistics(@NotNull String shortName) {
+            this.shortName = shortName;
+        }
+
+        void register(@NotNull PsiElement element, long nanos, long allocated) {
+            this.invocations.increment();
+            this.totalNanos.add(nanos);
+            if (allocated > 0) {
+                this.allocatedBytes.add(allocated);
+            }
+            /* cheap pre-check without locking: most of visits are not among the slowest */
+            if (nanos > this.slowestThreshold) {
+                synchronized (this.slowest) {
+                    this.slowest.add(new SlowElement(describe(element), nanos));
+                    this.slowest.sort((first, second) -> Long.compare(second.nanos, first.nanos));
+                    if (this.slowest.size() > SLOWEST_ELEMENTS_LIMIT) {
+                        this.slowest.remove(SLOWEST_ELEMENTS_LIMIT);
+                        this.slowestThreshold = this.slowest.get(SLOWEST_ELEMENTS_LIMIT - 1).nanos;
+                    }
+                }
+            }
+        }
+
+        @NotNull
+        public String getShortName() {
+            return this.shortName;
+        }
+
+        public long getInvocations() {
+            return this.invocations.sum();
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return this.allocatedBytes.sum();
+        }
+
+        @NotNull
+        public List<SlowElement> getSlowest() {
+            synchronized (this.slowest) {
+                return new ArrayList<>(this.slowest);
+            }
+        }
+
+        @NotNull
+        private static String describe(@NotNull PsiElement element) {
+            final PsiFile file        = element.getContainingFile();
+            final VirtualFile virtual = file == null ? null : file.getVirtualFile();
+            return String.format(
+                    "%s:%d (%s)",
+                    virtual == null ? "<unknown>" : virtual.getPath(),
+                    element.getTextOffset(),
+                    element.getClass().getSimpleName()
+            );
+        }
+    }
+
+    final public static class SlowElement {
+        public final String location;
+        public final long nanos;
+
+        SlowElement(@NotNull String location, long nanos) {
+            this.location = location;
+            this.nanos    = nanos;
+        }
+    }
+
+    /* thread allocation counters are a HotSpot extension, hence the graceful degradation */
+    private static final class Allocations {
+        private static final com.sun.management.ThreadMXBean threads;
+        static {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            com.sun.management.ThreadMXBean supported = null;
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                supported = (com.sun.management.ThreadMXBean) bean;
+                if (!supported.isThreadAllocatedMemorySupported() || !supported.isThreadAllocatedMemoryEnabled()) {
+                    supported = null;
+                }
+            }
+            threads = supported;
+        }
+
+        static long current() {
+            return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
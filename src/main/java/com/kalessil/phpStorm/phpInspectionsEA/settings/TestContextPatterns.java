@@ -0,0 +1,64 @@
+package com.kalessil.phpStorm.phpInspectionsEA.settings;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* glob-like patterns ('*' matches anything) identifying test files and classes, compiled into a single regex each */
+final public class TestContextPatterns {
+    public static final List<String> DEFAULT_PATHS      = Collections.unmodifiableList(Arrays.asList("*Test.php", "*Spec.php", "*.phpt", "*/Fixtures/*"));
+    public static final List<String> DEFAULT_NAMESPACES = Collections.unmodifiableList(Arrays.asList("*Test", "*\\Tests\\*", "*\\Test\\*"));
+
+    private final List<String> paths;
+    private final List<String> namespaces;
+    private final Pattern pathsMatcher;
+    private final Pattern namespacesMatcher;
+
+    public TestContextPatterns(@NotNull List<String> paths, @NotNull List<String> namespaces) {
+        this.paths             = Collections.unmodifiableList(new ArrayList<>(paths));
+        this.namespaces        = Collections.unmodifiableList(new ArrayList<>(namespaces));
+        this.pathsMatcher      = compile(this.paths);
+        this.namespacesMatcher = compile(this.namespaces);
+    }
+
+    @NotNull
+    public List<String> getPaths() {
+        return this.paths;
+    }
+
+    @NotNull
+    public List<String> getNamespaces() {
+        return this.namespaces;
+    }
+
+    public boolean matchesPath(@NotNull String path) {
+        return this.pathsMatcher != null && this.pathsMatcher.matcher(path).matches();
+    }
+
+    public boolean matchesClass(@NotNull String fqn) {
+        return this.namespacesMatcher != null && this.namespacesMatcher.matcher(fqn).matches();
+    }
+
+    private static Pattern compile(@NotNull List<String> patterns) {
+        final List<String> alternatives = patterns.stream()
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .map(pattern -> Arrays.stream(pattern.split("\\*", -1)).map(Pattern::quote).collect(Collectors.joining(".*")))
+                .collect(Collectors.toList());
+        return alternatives.isEmpty() ? null : Pattern.compile(String.join("|", alternatives), Pattern.DOTALL);
+    }
+}
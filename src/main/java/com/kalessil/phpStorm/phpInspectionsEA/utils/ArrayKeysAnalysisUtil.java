@@ -0,0 +1,200 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.jetbrains.php.lang.psi.elements.ArrayCreationExpression;
+import com.jetbrains.php.lang.psi.elements.ArrayHashElement;
+import com.jetbrains.php.lang.psi.elements.PhpPsiElement;
+import com.jetbrains.php.lang.psi.elements.StringLiteralExpression;
+import gnu.trove.THashMap;
+import gnu.trove.TIntObjectHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Keys of an array literal, analyzed in one pass and cached until the next PSI modification: shared by the duplicate
+ * keys and packed hashtable inspections. Generated arrays can have tens of thousands entries, hence integer-like keys
+ * are tracked in primitive collections and parsed without regular expressions.
+ */
+final public class ArrayKeysAnalysisUtil {
+    private static final Key<CachedValue<Summary>> summaryKey = Key.create("ea.array.keys");
+
+    private static final long NOT_INTEGER = Long.MIN_VALUE;
+
+    /* number of entries, counting stops when the limit is exceeded */
+    public static int countEntries(@NotNull ArrayCreationExpression expression, int limit) {
+        int result = 0;
+        for (PsiElement child = expression.getFirstChild(); child != null && result <= limit; child = child.getNextSibling()) {
+            if (child instanceof PhpPsiElement) {
+                ++result;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public static Summary getSummary(@NotNull ArrayCreationExpression expression) {
+        final PsiFile file = expression.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return new Summary(expression);
+        }
+        return CachedValuesManager.getCachedValue(
+                expression,
+                summaryKey,
+                () -> CachedValueProvider.Result.create(new Summary(expression), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    /* PHP semantics: '1' and '-1' are integer keys, '01', '+1' and '-0' are not */
+    private static long parseStringKey(@NotNull String key) {
+        final int length = key.length();
+        if (length == 0 || length > 11) {
+            return NOT_INTEGER;
+        }
+        final int start = key.charAt(0) == '-' ? 1 : 0;
+        if (start == length || (key.charAt(start) == '0' && (length > start + 1 || start == 1))) {
+            return NOT_INTEGER;
+        }
+        return parseDigits(key, start, start == 1);
+    }
+
+    /* number literals: whitespaces (e.g. in '- 1') are ignored, decimal notation only */
+    private static long parseNumberKey(@NotNull String text) {
+        final StringBuilder compacted = new StringBuilder(text.length());
+        for (final char character : text.toCharArray()) {
+            if (!Character.isWhitespace(character)) {
+                compacted.append(character);
+            }
+        }
+        final boolean isNegative = compacted.length() > 0 && compacted.charAt(0) == '-';
+        final int start          = isNegative ? 1 : 0;
+        return compacted.length() == start || compacted.length() - start > 10 ? NOT_INTEGER : parseDigits(compacted, start, isNegative);
+    }
+
+    private static long parseDigits(@NotNull CharSequence text, int start, boolean isNegative) {
+        long result = 0;
+        for (int position = start; position < text.length(); ++position) {
+            final char character = text.charAt(position);
+            if (character < '0' || character > '9') {
+                return NOT_INTEGER;
+            }
+            result = result * 10 + (character - '0');
+        }
+        result = isNegative ? -result : result;
+        return result < Integer.MIN_VALUE || result > Integer.MAX_VALUE ? NOT_INTEGER : result;
+    }
+
+    final public static class Summary {
+        private int entries                    = 0;
+        private boolean hasIntegerKeys         = true;
+        private boolean hasStringKeys          = false;
+        private boolean hasIncreasingKeys      = true;
+        private final List<Duplicate> duplicates;
+
+        private Summary(@NotNull ArrayCreationExpression expression) {
+            final TIntObjectHashMap<PsiElement> integerKeys = new TIntObjectHashMap<>();
+            final Map<String, PsiElement> stringKeys        = new THashMap<>();
+            final List<Duplicate> duplicates                = new ArrayList<>();
+            long lastKey                                    = Long.MIN_VALUE;
+            for (PsiElement child = expression.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (!(child instanceof PhpPsiElement)) {
+                    continue;
+                }
+                ++this.entries;
+
+                final PhpPsiElement key = child instanceof ArrayHashElement ? ((ArrayHashElement) child).getKey() : null;
+                final long integerKey;
+                if (key instanceof StringLiteralExpression && key.getFirstPsiChild() == null) {
+                    final String contents = ((StringLiteralExpression) key).getContents();
+                    integerKey            = parseStringKey(contents);
+                    this.hasStringKeys    = true;
+
+                    final PsiElement value = ((ArrayHashElement) child).getValue();
+                    if (value != null) {
+                        final PsiElement previous = integerKey == NOT_INTEGER
+                                ? stringKeys.put(contents, value)
+                                : integerKeys.put((int) integerKey, value);
+                        if (previous != null) {
+                            duplicates.add(new Duplicate((ArrayHashElement) child, previous));
+                        }
+                    }
+                } else if (OpenapiTypesUtil.isNumber(key)) {
+                    integerKey = parseNumberKey(key.getText());
+                } else {
+                    integerKey = NOT_INTEGER;
+                }
+
+                if (integerKey == NOT_INTEGER) {
+                    this.hasIntegerKeys = false;
+                } else {
+                    this.hasIncreasingKeys = this.hasIncreasingKeys && integerKey >= lastKey;
+                    lastKey                = integerKey;
+                }
+            }
+            this.duplicates = duplicates.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(duplicates);
+        }
+
+        public int getEntries() {
+            return this.entries;
+        }
+
+        /* all entries are key-value pairs, with keys PHP converts into integers */
+        public boolean hasIntegerKeys() {
+            return this.hasIntegerKeys;
+        }
+
+        public boolean hasStringKeys() {
+            return this.hasStringKeys;
+        }
+
+        /* integer keys are in natural ascending order (non-integer keys are skipped) */
+        public boolean hasIncreasingKeys() {
+            return this.hasIncreasingKeys;
+        }
+
+        /* string literal keys repeating earlier ones, in the source order */
+        @NotNull
+        public List<Duplicate> getDuplicates() {
+            return this.duplicates;
+        }
+    }
+
+    final public static class Duplicate {
+        private final ArrayHashElement pair;
+        private final PsiElement previousValue;
+
+        private Duplicate(@NotNull ArrayHashElement pair, @NotNull PsiElement previousValue) {
+            this.pair          = pair;
+            this.previousValue = previousValue;
+        }
+
+        @NotNull
+        public ArrayHashElement getPair() {
+            return this.pair;
+        }
+
+        /* the value of the latest preceding pair with the same key */
+        @NotNull
+        public PsiElement getPreviousValue() {
+            return this.previousValue;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Assignments of a callable body (nested closures included) grouped by the assigned container, in the source order.
+ * The map is built in one pass and cached until the next PSI modification; the map and its lists are read-only.
+ */
+final public class FunctionAssignmentsUtil {
+    private static final Key<CachedValue<Map<String, List<AssignmentExpression>>>> assignments = Key.create("ea.function.assignments");
+
+    @NotNull
+    public static Map<String, List<AssignmentExpression>> getAssignments(@NotNull Function function) {
+        final PsiFile file = function.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return buildAssignments(function);
+        }
+        return CachedValuesManager.getCachedValue(
+                function,
+                assignments,
+                () -> CachedValueProvider.Result.create(buildAssignments(function), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    /* assignments to the container (a variable or a field reference; matched by name, the equivalence is not checked) */
+    @NotNull
+    public static List<AssignmentExpression> getAssignments(@NotNull Function function, @NotNull PsiElement container) {
+        final String key = getKey(container);
+        return key == null ? Collections.emptyList() : getAssignments(function).getOrDefault(key, Collections.emptyList());
+    }
+
+    @NotNull
+    public static List<AssignmentExpression> getVariableAssignments(@NotNull Function function, @NotNull String variableName) {
+        return getAssignments(function).getOrDefault('$' + variableName, Collections.emptyList());
+    }
+
+    /* the statement wrapping the assignment, or null when the assignment is a part of another expression */
+    @Nullable
+    public static PsiElement getStatement(@NotNull AssignmentExpression assignment) {
+        final PsiElement parent = assignment.getParent();
+        return OpenapiTypesUtil.isStatementImpl(parent) ? parent : null;
+    }
+
+    @Nullable
+    public static String getKey(@NotNull PsiElement container) {
+        if (container instanceof Variable) {
+            return '$' + ((Variable) container).getName();
+        } else if (container instanceof FieldReference) {
+            final String name = ((FieldReference) container).getName();
+            return name == null ? null : "->" + name;
+        }
+        return null;
+    }
+
+    @NotNull
+    private static Map<String, List<AssignmentExpression>> buildAssignments(@NotNull Function function) {
+        final Map<String, List<AssignmentExpression>> result = new HashMap<>();
+        final GroupStatement body                            = ExpressionSemanticUtil.getGroupStatement(function);
+        if (body != null) {
+            for (final AssignmentExpression expression : PsiTreeUtil.findChildrenOfType(body, AssignmentExpression.class)) {
+                final PsiElement container = expression.getVariable();
+                final String key           = container == null ? null : getKey(container);
+                if (key != null) {
+                    result.computeIfAbsent(key, k -> new ArrayList<>()).add(expression);
+                }
+            }
+        }
+        /* shared between inspections via the cache: callers must not be able to alter it */
+        result.replaceAll((key, list) -> Collections.unmodifiableList(list));
+        return Collections.unmodifiableMap(result);
+    }
+}
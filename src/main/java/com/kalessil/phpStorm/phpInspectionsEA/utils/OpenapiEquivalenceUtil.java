@@ -2,9 +2,21 @@ package com.kalessil.phpStorm.phpInspectionsEA.utils;
 
 import com.intellij.codeInsight.PsiEquivalenceUtil;
 import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiComment;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiWhiteSpace;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.lang.psi.elements.Variable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.ObjIntConsumer;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -16,6 +28,8 @@ import org.jetbrains.annotations.NotNull;
  */
 
 final public class OpenapiEquivalenceUtil {
+    private static final Key<CachedValue<Integer>> hashKey = Key.create("ea.equivalence.hash");
+
     public static boolean areEqual(@NotNull PsiElement first, @NotNull PsiElement second) {
         boolean result = false;
         try {
@@ -42,4 +56,83 @@ final public class OpenapiEquivalenceUtil {
         }
         return result;
     }
+
+    /* structural hash: equal elements (see areEqual) always have the same hash, the opposite needs confirmation */
+    public static int hash(@NotNull PsiElement element) {
+        final PsiFile file = element.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return computeHash(element);
+        }
+        return CachedValuesManager.getCachedValue(
+                element,
+                hashKey,
+                () -> CachedValueProvider.Result.create(computeHash(element), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+    }
+
+    /* groups equal elements, preserving order of first occurrences (in groups and inside groups) */
+    @NotNull
+    public static <T extends PsiElement> List<List<T>> group(@NotNull Collection<T> elements) {
+        final List<List<T>> result                = new ArrayList<>();
+        final Map<Integer, List<List<T>>> buckets = new HashMap<>();
+        for (final T element : elements) {
+            if (element != null) {
+                final List<List<T>> candidates = buckets.computeIfAbsent(hash(element), h -> new ArrayList<>());
+                List<T> target                 = null;
+                for (final List<T> candidate : candidates) {
+                    if (areEqual(candidate.get(0), element)) {
+                        target = candidate;
+                        break;
+                    }
+                }
+                if (target == null) {
+                    target = new ArrayList<>();
+                    candidates.add(target);
+                    result.add(target);
+                }
+                target.add(element);
+            }
+        }
+        buckets.clear();
+        return result;
+    }
+
+    /* hashes of the element and all composite nodes inside, computed in one pass (not cached) */
+    public static void hashes(@NotNull PsiElement element, @NotNull ObjIntConsumer<PsiElement> consumer) {
+        computeHash(element, consumer);
+    }
+
+    private static int computeHash(@NotNull PsiElement element) {
+        return computeHash(element, null);
+    }
+
+    private static int computeHash(@NotNull PsiElement element, @Nullable ObjIntConsumer<PsiElement> consumer) {
+        if (element instanceof Variable) {
+            /* consistent with areEqual: names are compared when known */
+            final String name = ((Variable) element).getName();
+            if (!name.isEmpty()) {
+                final int result = 31 * Variable.class.hashCode() + name.hashCode();
+                if (consumer != null) {
+                    consumer.accept(element, result);
+                }
+                return result;
+            }
+        }
+
+        /* mirrors PsiEquivalenceUtil: white-spaces and comments are not significant, leafs are compared by text */
+        int result          = element.getClass().hashCode();
+        boolean hasChildren = false;
+        for (PsiElement child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!(child instanceof PsiWhiteSpace) && !(child instanceof PsiComment)) {
+                result      = 31 * result + computeHash(child, consumer);
+                hasChildren = true;
+            }
+        }
+        if (!hasChildren) {
+            result = 31 * result + element.getText().hashCode();
+        } else if (consumer != null) {
+            consumer.accept(element, result);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,97 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* per-file cache of resolve results: dropped as soon as the PSI modification count changes */
+final public class OpenapiResolveCache {
+    private static final Key<CachedValue<Map<PsiElement, Object>>> references = Key.create("ea.resolve.references");
+    private static final Key<CachedValue<Map<PsiElement, Object>>> types      = Key.create("ea.resolve.types");
+    private static final Key<CachedValue<Map<PsiElement, Object>>> typeSets   = Key.create("ea.resolve.type.sets");
+
+    /* ConcurrentHashMap doesn't accept null values, hence the marker */
+    private static final Object NULL = new Object();
+
+    private static final AtomicLong hits   = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    @Nullable
+    static <T> T reference(@NotNull PsiElement element, @NotNull Supplier<T> resolver) {
+        return cached(element, references, resolver);
+    }
+
+    @Nullable
+    static <T> T type(@NotNull PsiElement element, @NotNull Supplier<T> resolver) {
+        return cached(element, types, resolver);
+    }
+
+    @Nullable
+    static <T> T typeSet(@NotNull PsiElement element, @NotNull Supplier<T> resolver) {
+        return cached(element, typeSets, resolver);
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    public static void resetCounters() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static <T> T cached(
+            @NotNull PsiElement element,
+            @NotNull Key<CachedValue<Map<PsiElement, Object>>> key,
+            @NotNull Supplier<T> resolver
+    ) {
+        final PsiFile file = element.getContainingFile();
+        /* non-physical PSI (e.g. created by quick-fixes) is not tracked by the modification counter */
+        if (file == null || !file.isPhysical()) {
+            return resolver.get();
+        }
+
+        final Map<PsiElement, Object> storage = CachedValuesManager.getCachedValue(
+                file,
+                key,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<PsiElement, Object>(), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+        /* no computeIfAbsent here: resolving is recursive and would end up in nested updates of the same map */
+        final Object known = storage.get(element);
+        if (known != null) {
+            hits.incrementAndGet();
+            return known == NULL ? null : (T) known;
+        }
+        misses.incrementAndGet();
+
+        final T result = resolver.get();
+        storage.put(element, result == null ? NULL : result);
+        return result;
+    }
+}
@@ -15,6 +15,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -26,20 +27,22 @@ import java.util.*;
  */
 
 final public class OpenapiResolveUtil {
+    /* results are shared between calls and threads, hence never modified: see intern() */
+    private static final Map<Set<String>, PhpType> internedTypes  = new ConcurrentHashMap<>();
     private static final Map<String, PhpType> functionReturnTypes = new HashMap<>();
     private static final Map<String, Integer> functionToNarrow    = new HashMap<>();
     static {
-        functionReturnTypes.put("str_replace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("str_ireplace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_replace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_replace_callback", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("substr_replace", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_filter", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("preg_replace_callback_array", new PhpType().add(PhpType.STRING).add(PhpType.ARRAY));
-        functionReturnTypes.put("strstr", new PhpType().add(PhpType.STRING).add(PhpType.BOOLEAN));
-        functionReturnTypes.put("get_class", new PhpType().add(PhpType.STRING));
-        functionReturnTypes.put("explode", new PhpType().add(PhpType.ARRAY).add(PhpType.BOOLEAN));
-        functionReturnTypes.put("parse_url", new PhpType().add(PhpType.ARRAY).add(PhpType.BOOLEAN));
+        functionReturnTypes.put("str_replace", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("str_ireplace", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("preg_replace", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("preg_replace_callback", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("substr_replace", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("preg_filter", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("preg_replace_callback_array", intern(PhpType.STRING, PhpType.ARRAY));
+        functionReturnTypes.put("strstr", intern(PhpType.STRING, PhpType.BOOLEAN));
+        functionReturnTypes.put("get_class", intern(PhpType.STRING));
+        functionReturnTypes.put("explode", intern(PhpType.ARRAY, PhpType.BOOLEAN));
+        functionReturnTypes.put("parse_url", intern(PhpType.ARRAY, PhpType.BOOLEAN));
 
         functionToNarrow.put("str_replace", 2);
         functionToNarrow.put("str_ireplace", 2);
@@ -52,6 +55,11 @@ final public class OpenapiResolveUtil {
 
     @Nullable
     static public PsiElement resolveReference(@NotNull MethodReference reference) {
+        return OpenapiResolveCache.reference(reference, () -> resolveMethodReference(reference));
+    }
+
+    @Nullable
+    static private PsiElement resolveMethodReference(@NotNull MethodReference reference) {
         PsiElement result = null;
         try {
             final ResolveResult[] resolved = reference.multiResolve(false);
@@ -107,7 +115,12 @@ final public class OpenapiResolveUtil {
     @Nullable
     static public PsiElement resolveReference(@NotNull PsiReference reference) {
         try {
-            return reference instanceof MethodReference ? resolveReference((MethodReference) reference) : reference.resolve();
+            if (reference instanceof MethodReference) {
+                return resolveReference((MethodReference) reference);
+            }
+            return reference instanceof PsiElement
+                    ? OpenapiResolveCache.reference((PsiElement) reference, reference::resolve)
+                    : reference.resolve();
         } catch (final Throwable error) {
             if (error instanceof ProcessCanceledException) {
                 throw error;
@@ -116,8 +129,34 @@ final public class OpenapiResolveUtil {
         }
     }
 
+    /* one instance per types combination: the values must not be modified by callers */
+    @NotNull
+    static private PhpType intern(@NotNull String... types) {
+        final Set<String> key = new HashSet<>(Arrays.asList(types));
+        PhpType result        = internedTypes.get(key);
+        if (result == null) {
+            final PhpType candidate = new PhpType();
+            key.forEach(candidate::add);
+            result = internedTypes.putIfAbsent(Collections.unmodifiableSet(key), candidate);
+            result = result == null ? candidate : result;
+        }
+        return result;
+    }
+
     @Nullable
     static public PhpType resolveType(@NotNull PhpTypedElement expression, @NotNull Project project) {
+        return OpenapiResolveCache.type(expression, () -> resolveTypeUncached(expression, project));
+    }
+
+    /* normalized resolved types without unknown ones, empty when the type can not be resolved */
+    @NotNull
+    static public TypeSet resolveTypeSet(@NotNull PhpTypedElement expression, @NotNull Project project) {
+        final TypeSet result = OpenapiResolveCache.typeSet(expression, () -> TypeSet.of(resolveType(expression, project)));
+        return result == null ? TypeSet.EMPTY : result;
+    }
+
+    @Nullable
+    static private PhpType resolveTypeUncached(@NotNull PhpTypedElement expression, @NotNull Project project) {
         PhpType result = null;
         try {
             if (expression instanceof FunctionReference) {
@@ -141,12 +180,15 @@ final public class OpenapiResolveUtil {
                         if (arguments.length > targetPosition && arguments[targetPosition] instanceof PhpTypedElement) {
                             final PhpType argumentType = resolveType((PhpTypedElement) arguments[targetPosition], project);
                             if (argumentType != null && !argumentType.isEmpty() && !argumentType.hasUnknown()) {
+                                /* the signature is shared: narrow into a new (interned) value instead of modifying it */
+                                final Set<String> narrowed = new HashSet<>(result.getTypes());
                                 if (argumentType.getTypes().stream().noneMatch(t -> Types.getType(t).equals(Types.strArray))) {
-                                    result.getTypes().removeIf(t -> Types.getType(t).equals(Types.strArray));
+                                    narrowed.removeIf(t -> Types.getType(t).equals(Types.strArray));
                                 }
                                 if (argumentType.getTypes().stream().noneMatch(t -> Types.getType(t).equals(Types.strString))) {
-                                    result.getTypes().removeIf(t -> Types.getType(t).equals(Types.strString));
+                                    narrowed.removeIf(t -> Types.getType(t).equals(Types.strString));
                                 }
+                                result = intern(narrowed.toArray(new String[0]));
                             }
                         }
                     } else if (name != null) {
@@ -155,24 +197,24 @@ final public class OpenapiResolveUtil {
                             final PsiElement[] arguments = reference.getParameters();
                             if (arguments.length >= 2 && arguments[0] instanceof StringLiteralExpression) {
                                 final String content = ((StringLiteralExpression) arguments[0]).getContents();
-                                result = new PhpType().add(content.isEmpty() ? PhpType.BOOLEAN : PhpType.ARRAY);
+                                result = intern(content.isEmpty() ? PhpType.BOOLEAN : PhpType.ARRAY);
                             }
                         } else if (name.equals("parse_url")) {
                             final PsiElement[] arguments = reference.getParameters();
                             if (arguments.length == 2 && arguments[1] instanceof ConstantReference) {
                                 final String constantName = ((ConstantReference) arguments[1]).getName();
                                 if (constantName != null && constantName.equals("PHP_URL_PORT")) {
-                                    result = new PhpType().add(PhpType.INT).add(PhpType.NULL);
+                                    result = intern(PhpType.INT, PhpType.NULL);
                                 } else {
-                                    result = new PhpType().add(PhpType.STRING).add(PhpType.NULL);
+                                    result = intern(PhpType.STRING, PhpType.NULL);
                                 }
                             }
                         } else if (name.equals("microtime")) {
                             final PsiElement[] arguments = reference.getParameters();
                             if (arguments.length == 1 && ! PhpLanguageUtil.isFalse(arguments[0])) {
-                                result = new PhpType().add(PhpType.FLOAT);
+                                result = intern(PhpType.FLOAT);
                             } else {
-                                result = new PhpType().add(PhpType.INT);
+                                result = intern(PhpType.INT);
                             }
                         }
                     }
@@ -189,23 +231,23 @@ final public class OpenapiResolveUtil {
                         if (variableName.equals("_SERVER") && index instanceof StringLiteralExpression) {
                             switch (((StringLiteralExpression) index).getContents()) {
                                 case "argv":
-                                    result = new PhpType().add(PhpType.ARRAY);
+                                    result = intern(PhpType.ARRAY);
                                     break;
                                 case "argc":
                                 case "REQUEST_TIME":
                                 case "REMOTE_PORT":
                                 case "SERVER_PORT":
-                                    result = new PhpType().add(PhpType.INT);
+                                    result = intern(PhpType.INT);
                                     break;
                                 case "REQUEST_TIME_FLOAT":
-                                    result = new PhpType().add(PhpType.FLOAT);
+                                    result = intern(PhpType.FLOAT);
                                     break;
                                 default:
-                                    result = new PhpType().add(PhpType.STRING);
+                                    result = intern(PhpType.STRING);
                                     break;
                             }
                         } else {
-                            result = new PhpType().add(PhpType.STRING).add(PhpType.ARRAY);
+                            result = intern(PhpType.STRING, PhpType.ARRAY);
                         }
                     }
                 }
@@ -220,33 +262,27 @@ final public class OpenapiResolveUtil {
                     if (left instanceof PhpTypedElement) {
                         final PhpType leftType = resolveType((PhpTypedElement) left, project);
                         if (leftType != null) {
-                            final Set<String> leftTypes = new HashSet<>();
-                            leftType.filterUnknown().getTypes().forEach(type -> leftTypes.add(Types.getType(type)));
-                            hasFloat = leftTypes.isEmpty() || leftTypes.contains(Types.strFloat) || leftTypes.contains(Types.strNumber);
-                            hasArray = leftTypes.contains(Types.strArray);
-                            leftTypes.clear();
+                            final TypeSet leftTypes = resolveTypeSet((PhpTypedElement) left, project);
+                            hasFloat                = leftTypes.isEmpty() || leftTypes.hasAny(TypeSet.FLOAT | TypeSet.NUMBER);
+                            hasArray                = leftTypes.has(TypeSet.ARRAY);
                             if (!hasFloat || (!hasArray && operator == PhpTokenTypes.opPLUS)) {
                                 final PsiElement right = binary.getRightOperand();
                                 if (right instanceof PhpTypedElement) {
                                     final PhpType rightType = resolveType((PhpTypedElement) right, project);
                                     if (rightType != null) {
-                                        final Set<String> rightTypes = new HashSet<>();
-                                        rightType.filterUnknown().getTypes().forEach(type -> rightTypes.add(Types.getType(type)));
-                                        hasFloat = hasFloat ||
-                                                   rightTypes.isEmpty() || rightTypes.contains(Types.strFloat) || leftTypes.contains(Types.strNumber);
-                                        hasArray = (hasArray && !OpenapiTypesUtil.isNumber(right)) ||
-                                                   rightTypes.contains(Types.strArray);
-                                        rightTypes.clear();
+                                        final TypeSet rightTypes = resolveTypeSet((PhpTypedElement) right, project);
+                                        hasFloat = hasFloat || rightTypes.isEmpty() || rightTypes.has(TypeSet.FLOAT);
+                                        hasArray = (hasArray && !OpenapiTypesUtil.isNumber(right)) || rightTypes.has(TypeSet.ARRAY);
                                     }
                                 }
                             }
                         }
                     }
                     result = hasFloat
-                            ? new PhpType().add(PhpType.FLOAT)
-                            : new PhpType().add(PhpType.INT);
+                            ? intern(PhpType.FLOAT)
+                            : intern(PhpType.INT);
                     result = hasArray
-                            ? new PhpType().add(PhpType.ARRAY)
+                            ? intern(PhpType.ARRAY)
                             : result;
                 } else if (operator == PhpTokenTypes.opCOALESCE) {
                     /* workaround for https://youtrack.jetbrains.com/issue/WI-37013 & co */
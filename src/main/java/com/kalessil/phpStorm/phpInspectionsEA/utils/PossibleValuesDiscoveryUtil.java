@@ -1,16 +1,19 @@
 package com.kalessil.phpStorm.phpInspectionsEA.utils;
 
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.lang.lexer.PhpTokenTypes;
 import com.jetbrains.php.lang.psi.elements.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -22,185 +25,214 @@ import java.util.stream.Stream;
  */
 
 public class PossibleValuesDiscoveryUtil {
+    /* expressions deeper than this are not followed, but reported as values themselves */
+    private static final int MAX_DEPTH = 32;
+
+    private static final Key<CachedValue<Map<String, List<PsiElement>>>> assignedValues = Key.create("ea.possible.values.assigned");
+
     @NotNull
     static public Set<PsiElement> discover(@NotNull PsiElement expression) {
-        final Set<PsiElement> processed      = new HashSet<>();
-        final Set<PsiElement> result         = discover(expression, processed);
-        final Set<PsiElement> filteredResult = result.stream().filter(Objects::nonNull).collect(Collectors.toSet());
-        processed.clear();
-        result.clear();
-        return filteredResult;
+        final Discovery discovery = new Discovery();
+        discovery.schedule(expression, 0);
+        discovery.run();
+        return discovery.result;
     }
 
+    /*
+     * Values assigned to the target in the callable (chained assignments are un-wrapped), keyed by the target text.
+     * Cached on the callable until the next PSI modification, so repeated discoveries are not re-scanning the body.
+     */
     @NotNull
-    static private Set<PsiElement> discover(@NotNull PsiElement expression, @NotNull Set<PsiElement> processed) {
-        /* un-wrap parentheses to avoid false-positives */
-        expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(expression);
-
-        /* do not process same expressions multiple times */
-        Set<PsiElement> result = new HashSet<>();
-        if (processed.contains(expression)) {
-            return result;
+    private static List<PsiElement> getAssignedValues(@NotNull Function callable, @NotNull PsiElement target) {
+        final PsiFile file = callable.getContainingFile();
+        if (file == null || !file.isPhysical()) {
+            return findAssignedValues(callable, target);
         }
-        processed.add(expression);
-
-        /* Case 1: ternary operator, recursively check variants */
-        if (expression instanceof TernaryExpression) {
-            handleTernary((TernaryExpression) expression, result, processed);
-            return result;
+        final Map<String, List<PsiElement>> storage = CachedValuesManager.getCachedValue(
+                callable,
+                assignedValues,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<String, List<PsiElement>>(), PsiModificationTracker.MODIFICATION_COUNT)
+        );
+        final String key        = target.getText();
+        List<PsiElement> values = storage.get(key);
+        if (values == null) {
+            values = findAssignedValues(callable, target);
+            storage.put(key, values);
         }
+        return values;
+    }
 
-        /* Case 2: null coalescing operator, recursively check variants */
-        if (expression instanceof BinaryExpression) {
-            final BinaryExpression binary = (BinaryExpression) expression;
-            if (binary.getOperationType() == PhpTokenTypes.opCOALESCE) {
-                handleNullCoalesce(binary, result, processed);
-                return result;
+    @NotNull
+    private static List<PsiElement> findAssignedValues(@NotNull Function callable, @NotNull PsiElement target) {
+        final List<PsiElement> result = new ArrayList<>();
+        for (final AssignmentExpression expression : FunctionAssignmentsUtil.getAssignments(callable, target)) {
+            final PsiElement container = expression.getVariable();
+            final boolean isTarget     = container != null &&
+                                         OpenapiTypesUtil.isAssignment(expression) &&
+                                         OpenapiEquivalenceUtil.areEqual(container, target);
+            if (isTarget) {
+                /* handle multiple assignments */
+                PsiElement storedValue = expression.getValue();
+                while (storedValue != null && OpenapiTypesUtil.isAssignment(storedValue)) {
+                    storedValue = ((AssignmentExpression) storedValue).getValue();
+                }
+                if (storedValue != null) {
+                    result.add(storedValue);
+                }
             }
         }
+        return result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(result);
+    }
 
-        /* Case 3: parameter defaults, assignments */
-        if (expression instanceof Variable) {
-            handleVariable((Variable) expression, result, processed);
-            return result;
+    /* worklist-based discovery: no recursion, processed expressions are skipped (per call), assigned values are cached */
+    private static final class Discovery {
+        private final Set<PsiElement> result    = new HashSet<>();
+        private final Set<PsiElement> processed = new HashSet<>();
+
+        /* the queue and depths of the scheduled expressions, as paired arrays */
+        private PsiElement[] queue = new PsiElement[16];
+        private int[] depths       = new int[16];
+        private int head           = 0;
+        private int tail           = 0;
+
+        private void schedule(@Nullable PsiElement expression, int depth) {
+            if (expression != null) {
+                if (this.tail == this.queue.length) {
+                    this.queue  = Arrays.copyOf(this.queue, this.queue.length * 2);
+                    this.depths = Arrays.copyOf(this.depths, this.depths.length * 2);
+                }
+                this.queue[this.tail]    = expression;
+                this.depths[this.tail++] = depth;
+            }
         }
 
-        /* Case 4: default value discovery */
-        if (expression instanceof FieldReference) {
-            handleClassFieldReference((FieldReference) expression, result, processed);
-            return result;
+        private void run() {
+            while (this.head < this.tail) {
+                final PsiElement candidate = this.queue[this.head];
+                final int depth            = this.depths[this.head];
+                this.queue[this.head++]    = null;
+                /* un-wrap parentheses to avoid false-positives */
+                final PsiElement expression = ExpressionSemanticUtil.getExpressionTroughParenthesis(candidate);
+                /* do not process same expressions multiple times */
+                if (expression == null || !this.processed.add(expression)) {
+                    continue;
+                }
+                if (depth >= MAX_DEPTH) {
+                    this.result.add(expression);
+                    continue;
+                }
+                this.process(expression, depth + 1);
+            }
         }
 
-        /* Case 5: class constants value discovery */
-        if (expression instanceof ClassConstantReference) {
-            handleClassConstantReference((ClassConstantReference) expression, result, processed);
-            return result;
-        }
+        private void process(@NotNull PsiElement expression, int depth) {
+            /* Case 1: ternary operator, check variants */
+            if (expression instanceof TernaryExpression) {
+                final TernaryExpression ternary = (TernaryExpression) expression;
+                this.schedule(ternary.getTrueVariant(), depth);
+                this.schedule(ternary.getFalseVariant(), depth);
+                return;
+            }
 
-        /* Case 6: constants value discovery */
-        if (expression instanceof ConstantReference) {
-            final boolean shouldResolve = !PhpLanguageUtil.isBoolean(expression) && !PhpLanguageUtil.isNull(expression);
-            if (shouldResolve) {
-                handleConstantReference((ConstantReference) expression, result);
-                return result;
+            /* Case 2: null coalescing operator, check variants */
+            if (expression instanceof BinaryExpression) {
+                final BinaryExpression binary = (BinaryExpression) expression;
+                if (binary.getOperationType() == PhpTokenTypes.opCOALESCE) {
+                    this.schedule(binary.getLeftOperand(), depth);
+                    this.schedule(binary.getRightOperand(), depth);
+                    return;
+                }
             }
-        }
 
-        /* default case: add expression itself */
-        result.add(expression);
-        return result;
-    }
+            /* Case 3: parameter defaults, assignments */
+            if (expression instanceof Variable) {
+                this.handleVariable((Variable) expression, depth);
+                return;
+            }
 
-    static private void handleVariable(
-            @NotNull Variable variable,
-            @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
-    ) {
-        final String variableName = variable.getName();
-        final Function callable   = variableName.isEmpty() ? null : ExpressionSemanticUtil.getScope(variable);
-        if (callable != null) {
-            for (final Parameter parameter : callable.getParameters()) {
-                if (parameter.getName().equals(variableName)) {
-                    final PsiElement defaultValue = parameter.getDefaultValue();
-                    if (defaultValue != null) {
-                        result.addAll(discover(defaultValue, processed));
-                    }
-                    break;
+            /* Case 4: default value discovery */
+            if (expression instanceof FieldReference) {
+                this.handleClassFieldReference((FieldReference) expression, depth);
+                return;
+            }
+
+            /* Case 5: class constants value discovery */
+            if (expression instanceof ClassConstantReference) {
+                this.handleClassConstantReference((ClassConstantReference) expression, depth);
+                return;
+            }
+
+            /* Case 6: constants value discovery */
+            if (expression instanceof ConstantReference) {
+                final boolean shouldResolve = !PhpLanguageUtil.isBoolean(expression) && !PhpLanguageUtil.isNull(expression);
+                if (shouldResolve) {
+                    this.handleConstantReference((ConstantReference) expression);
+                    return;
                 }
             }
-            handleAssignmentsInScope(callable, variable, result, processed);
-        }
-    }
 
-    static private void handleConstantReference(
-            @NotNull ConstantReference reference,
-            @NotNull Set<PsiElement> result
-    ) {
-        final String name       = reference.getName();
-        final PsiElement define = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
-        if (define instanceof PhpDefine) {
-            result.add(((PhpDefine) define).getValue());
+            /* default case: add expression itself */
+            this.result.add(expression);
         }
-    }
 
-    static private void handleClassConstantReference(
-            @NotNull ClassConstantReference reference,
-            @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
-    ) {
-        final String name      = reference.getName();
-        final PsiElement field = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
-        if (field instanceof Field) {
-            final PsiElement defaultValue = OpenapiResolveUtil.resolveDefaultValue((Field) field);
-            if (defaultValue != null) {
-                result.addAll(discover(defaultValue, processed));
+        private void handleVariable(@NotNull Variable variable, int depth) {
+            final String variableName = variable.getName();
+            final Function callable   = variableName.isEmpty() ? null : ExpressionSemanticUtil.getScope(variable);
+            if (callable != null) {
+                for (final Parameter parameter : callable.getParameters()) {
+                    if (parameter.getName().equals(variableName)) {
+                        this.schedule(parameter.getDefaultValue(), depth);
+                        break;
+                    }
+                }
+                this.handleAssignmentsInScope(callable, variable, depth);
             }
         }
-    }
 
-    static private void handleClassFieldReference(
-            @NotNull FieldReference reference,
-            @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
-    ) {
-        final String name      = reference.getName();
-        final PsiElement field = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
-        if (field instanceof Field) {
-            /* TODO: properties without defaults returning variable as default are difficult to identify */
-            final PsiElement defaultValue = OpenapiResolveUtil.resolveDefaultValue((Field) field);
-            if (defaultValue != null && !defaultValue.getText().endsWith(name)) {
-                result.addAll(discover(defaultValue, processed));
+        private void handleConstantReference(@NotNull ConstantReference reference) {
+            final String name       = reference.getName();
+            final PsiElement define = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
+            if (define instanceof PhpDefine) {
+                final PsiElement value = ((PhpDefine) define).getValue();
+                if (value != null) {
+                    this.result.add(value);
+                }
             }
         }
-        final PhpClass clazz       = field instanceof Field ? ((Field) field).getContainingClass() : null;
-        final Function constructor = clazz == null ? null : clazz.getConstructor();
-        final Function callable    = ExpressionSemanticUtil.getScope(reference);
-        Stream.of(callable, constructor)
-                .filter(Objects::nonNull)
-                .forEach(method -> handleAssignmentsInScope(method, reference, result, processed));
-    }
-
-    static private void handleTernary(
-            @NotNull TernaryExpression ternary,
-            @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
-    ) {
-        Stream.of(ternary.getTrueVariant(), ternary.getFalseVariant())
-                .filter(Objects::nonNull)
-                .forEach(variant -> result.addAll(discover(variant, processed)));
-    }
 
-    static private void handleNullCoalesce(
-            @NotNull BinaryExpression binary,
-            @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
-    ) {
-        Stream.of(binary.getLeftOperand(), binary.getRightOperand())
-                .filter(Objects::nonNull)
-                .forEach(variant -> result.addAll(discover(variant, processed)));
-    }
+        private void handleClassConstantReference(@NotNull ClassConstantReference reference, int depth) {
+            final String name      = reference.getName();
+            final PsiElement field = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
+            if (field instanceof Field) {
+                this.schedule(OpenapiResolveUtil.resolveDefaultValue((Field) field), depth);
+            }
+        }
 
-    static private void handleAssignmentsInScope(
-            @NotNull Function callable,
-            @NotNull PsiElement target,
-            @NotNull Set<PsiElement> result,
-            @NotNull Set<PsiElement> processed
-    ) {
-        final GroupStatement body = ExpressionSemanticUtil.getGroupStatement(callable);
-        for (final AssignmentExpression expression : PsiTreeUtil.findChildrenOfType(body, AssignmentExpression.class)) {
-            if (OpenapiTypesUtil.isAssignment(expression)) {
-                final PsiElement container = expression.getVariable();
-                if (container != null && OpenapiEquivalenceUtil.areEqual(container, target)) {
-                    /* handle multiple assignments */
-                    PsiElement storedValue = expression.getValue();
-                    while (storedValue != null && OpenapiTypesUtil.isAssignment(storedValue)) {
-                        storedValue = ((AssignmentExpression) storedValue).getValue();
-                    }
-                    if (storedValue != null) {
-                        result.addAll(discover(storedValue, processed));
-                    }
+        private void handleClassFieldReference(@NotNull FieldReference reference, int depth) {
+            final String name      = reference.getName();
+            final PsiElement field = (name == null || name.isEmpty()) ? null : OpenapiResolveUtil.resolveReference(reference);
+            if (field instanceof Field) {
+                /* TODO: properties without defaults returning variable as default are difficult to identify */
+                final PsiElement defaultValue = OpenapiResolveUtil.resolveDefaultValue((Field) field);
+                if (defaultValue != null && !defaultValue.getText().endsWith(name)) {
+                    this.schedule(defaultValue, depth);
                 }
             }
+            final PhpClass clazz       = field instanceof Field ? ((Field) field).getContainingClass() : null;
+            final Function constructor = clazz == null ? null : clazz.getConstructor();
+            final Function callable    = ExpressionSemanticUtil.getScope(reference);
+            if (callable != null) {
+                this.handleAssignmentsInScope(callable, reference, depth);
+            }
+            if (constructor != null) {
+                this.handleAssignmentsInScope(constructor, reference, depth);
+            }
+        }
+
+        private void handleAssignmentsInScope(@NotNull Function callable, @NotNull PsiElement target, int depth) {
+            for (final PsiElement value : getAssignedValues(callable, target)) {
+                this.schedule(value, depth);
+            }
         }
     }
 }
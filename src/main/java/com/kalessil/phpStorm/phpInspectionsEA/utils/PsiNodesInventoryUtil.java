@@ -0,0 +1,152 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/* drop-in replacement of PsiTreeUtil.findChildrenOf*Type: a per-file inventory turns sub-tree walks into range lookups */
+final public class PsiNodesInventoryUtil {
+    private static final Key<CachedValue<Inventory>> inventoryKey = Key.create("ea.psi.inventory");
+
+    @NotNull
+    public static <T extends PsiElement> List<T> findChildrenOfType(@Nullable PsiElement scope, @NotNull Class<? extends T> clazz) {
+        return find(scope, clazz, clazz);
+    }
+
+    @SafeVarargs
+    @NotNull
+    public static <T extends PsiElement> List<T> findChildrenOfAnyType(@Nullable PsiElement scope, @NotNull Class<? extends T>... classes) {
+        return find(scope, classes.length == 1 ? classes[0] : Arrays.asList(classes), classes);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static <T extends PsiElement> List<T> find(@Nullable PsiElement scope, @NotNull Object key, @NotNull Class<?>... classes) {
+        final List<T> result = new ArrayList<>();
+        if (scope != null) {
+            final PsiFile file = scope.getContainingFile();
+            if (file == null || !file.isPhysical()) {
+                /* non-physical PSI (e.g. created by quick-fixes) is not tracked by the modification counter */
+                result.addAll((List<T>) new ArrayList<>(PsiTreeUtil.findChildrenOfAnyType(scope, (Class<T>[]) classes)));
+            } else {
+                final Inventory inventory = CachedValuesManager.getCachedValue(
+                        file,
+                        inventoryKey,
+                        () -> CachedValueProvider.Result.create(new Inventory(file), PsiModificationTracker.MODIFICATION_COUNT)
+                );
+                inventory.collect(scope, key, classes, (List<PsiElement>) result);
+            }
+        }
+        return result;
+    }
+
+    private static final class Inventory {
+        /* composite nodes in pre-order (the same order as PsiTreeUtil is using), hence start offsets are sorted */
+        private final PsiElement[] nodes;
+        private final int[] starts;
+        private final int[] ends;
+        private final Map<Object, int[]> byType = new ConcurrentHashMap<>();
+
+        private Inventory(@NotNull PsiFile file) {
+            final List<PsiElement> collected = new ArrayList<>();
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(PsiElement element) {
+                    if (element.getFirstChild() != null) {
+                        collected.add(element);
+                    }
+                    super.visitElement(element);
+                }
+            });
+
+            this.nodes  = collected.toArray(new PsiElement[0]);
+            this.starts = new int[this.nodes.length];
+            this.ends   = new int[this.nodes.length];
+            for (int index = 0; index < this.nodes.length; ++index) {
+                final TextRange range = this.nodes[index].getTextRange();
+                this.starts[index]    = range.getStartOffset();
+                this.ends[index]      = range.getEndOffset();
+            }
+            collected.clear();
+        }
+
+        private void collect(@NotNull PsiElement scope, @NotNull Object key, @NotNull Class<?>[] classes, @NotNull List<PsiElement> result) {
+            final int[] typed = this.byType.computeIfAbsent(key, k -> this.filter(classes));
+            if (typed.length == 0) {
+                return;
+            }
+
+            final TextRange range = scope.getTextRange();
+            final int start       = range.getStartOffset();
+            final int end         = range.getEndOffset();
+            for (int position = this.lowerBound(typed, start); position < typed.length; ++position) {
+                final int index = typed[position];
+                if (this.starts[index] > end) {
+                    break;
+                }
+                final PsiElement candidate = this.nodes[index];
+                if (candidate == scope || this.ends[index] > end) {
+                    continue;
+                }
+                /* touching the scope boundaries: might be a parent or a sibling, hence verifying the hierarchy */
+                final boolean isBoundary = this.starts[index] == start || this.ends[index] == end || this.starts[index] == end;
+                if (!isBoundary || PsiTreeUtil.isAncestor(scope, candidate, true)) {
+                    result.add(candidate);
+                }
+            }
+        }
+
+        @NotNull
+        private int[] filter(@NotNull Class<?>[] classes) {
+            final int[] matches = new int[this.nodes.length];
+            int count           = 0;
+            for (int index = 0; index < this.nodes.length; ++index) {
+                for (final Class<?> clazz : classes) {
+                    if (clazz.isInstance(this.nodes[index])) {
+                        matches[count++] = index;
+                        break;
+                    }
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+
+        private int lowerBound(@NotNull int[] typed, int offset) {
+            int low  = 0;
+            int high = typed.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (this.starts[typed[middle]] < offset) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.EASettings;
+import com.kalessil.phpStorm.phpInspectionsEA.settings.TestContextPatterns;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class TestContextUtil {
+    private static final Key<CachedValue<Classification>> classificationKey = Key.create("ea.test.context");
+
+    private static final TestContextPatterns defaults = new TestContextPatterns(TestContextPatterns.DEFAULT_PATHS, TestContextPatterns.DEFAULT_NAMESPACES);
+
+    public static boolean isTestContext(@NotNull PsiElement expression) {
+        final PsiFile file = expression.getContainingFile();
+        if (file == null) {
+            return false;
+        }
+
+        final Classification classification = CachedValuesManager.getCachedValue(
+                file,
+                classificationKey,
+                () -> {
+                    final EASettings settings = EASettings.getInstance();
+                    return CachedValueProvider.Result.create(
+                            new Classification(file, settings == null ? defaults : settings.getTestContextPatterns()),
+                            file,
+                            settings == null ? ModificationTracker.NEVER_CHANGED : settings.getTestContextTracker()
+                    );
+                }
+        );
+        if (classification.isTestFile) {
+            return true;
+        }
+
+        final PhpClass clazz = expression instanceof PhpClass
+                ? (PhpClass) expression
+                : PsiTreeUtil.getParentOfType(expression, PhpClass.class, false, (Class) PsiFile.class);
+        return clazz != null && classification.classes.computeIfAbsent(clazz, c -> classification.patterns.matchesClass(c.getFQN()));
+    }
+
+    private static final class Classification {
+        private final TestContextPatterns patterns;
+        private final boolean isTestFile;
+        private final Map<PhpClass, Boolean> classes = new ConcurrentHashMap<>();
+
+        private Classification(@NotNull PsiFile file, @NotNull TestContextPatterns patterns) {
+            this.patterns   = patterns;
+            this.isTestFile = matchesPath(file.getOriginalFile().getVirtualFile(), patterns);
+        }
+
+        private static boolean matchesPath(@Nullable VirtualFile file, @NotNull TestContextPatterns patterns) {
+            return file != null && patterns.matchesPath(file.getPath());
+        }
+    }
+}
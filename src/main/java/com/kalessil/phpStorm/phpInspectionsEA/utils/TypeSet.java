@@ -0,0 +1,326 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils;
+
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Normalized types (see Types.getType) as an immutable value: built-in types are bits of a mask, anything else
+ * (classes FQNs mostly) is interned into a slot, so the raw type strings are normalized once per process. Queries
+ * are not allocating and not interning, set algebra returns the same instance when nothing changes. Only interning
+ * new names takes a lock: the slots table grows by doubling and is published before the new code gets visible.
+ */
+final public class TypeSet implements Iterable<String> {
+    final static public int ARRAY     = 1;
+    final static public int ITERABLE  = 1 << 1;
+    final static public int STRING    = 1 << 2;
+    final static public int BOOLEAN   = 1 << 3;
+    final static public int INTEGER   = 1 << 4;
+    final static public int FLOAT     = 1 << 5;
+    final static public int NUMBER    = 1 << 6;
+    final static public int NULL      = 1 << 7;
+    final static public int VOID      = 1 << 8;
+    final static public int MIXED     = 1 << 9;
+    final static public int CALLABLE  = 1 << 10;
+    final static public int RESOURCE  = 1 << 11;
+    final static public int STATIC    = 1 << 12;
+    final static public int SELF      = 1 << 13;
+    final static public int OBJECT    = 1 << 14;
+    final static public int EMPTY_SET = 1 << 15;
+
+    /* bit positions of the built-in types, the same order as the constants above */
+    final static private String[] builtins = {
+        Types.strArray, Types.strIterable, Types.strString, Types.strBoolean, Types.strInteger, Types.strFloat,
+        Types.strNumber, Types.strNull, Types.strVoid, Types.strMixed, Types.strCallable, Types.strResource,
+        Types.strStatic, Types.strSelf, Types.strObject, Types.strEmptySet
+    };
+
+    /* normalized name to its code: bit positions for built-in types, builtins.length + slot for others */
+    final static private Map<String, Integer> names = new ConcurrentHashMap<>();
+    /* raw type to its code, saves the normalization: bounded, unlike the normalized names */
+    final static private Map<String, Integer> codes = new ConcurrentHashMap<>();
+    final static private int RAW_CODES_LIMIT        = 50_000;
+    static {
+        for (int position = 0; position < builtins.length; ++position) {
+            names.put(builtins[position], position);
+        }
+    }
+
+    final static private Object interning  = new Object();
+    /* slot to normalized name: written under the lock only, the array is replaced when full */
+    private static volatile String[] slots = new String[64];
+    private static int slotsCount          = 0;
+
+    final static public TypeSet EMPTY = new TypeSet(0, new int[0]);
+
+    private final int mask;
+    private final int[] others;
+    private final String[] names;
+    private final boolean hasOnlyClasses;
+
+    private TypeSet(int mask, @NotNull int[] others) {
+        final String[] table   = slots;
+        final String[] names   = new String[others.length];
+        boolean hasOnlyClasses = true;
+        for (int index = 0; index < others.length; ++index) {
+            names[index]   = table[others[index]];
+            hasOnlyClasses = hasOnlyClasses && names[index].startsWith("\\");
+        }
+        this.mask           = mask;
+        this.others         = others;
+        this.names          = names;
+        this.hasOnlyClasses = hasOnlyClasses;
+    }
+
+    /* the same non built-in types, no slots lookups needed */
+    private TypeSet(int mask, @NotNull TypeSet other) {
+        this.mask           = mask;
+        this.others         = other.others;
+        this.names          = other.names;
+        this.hasOnlyClasses = other.hasOnlyClasses;
+    }
+
+    /* the resolved types without unknown ones, use OpenapiResolveUtil.resolveTypeSet for cached results */
+    @NotNull
+    public static TypeSet of(@Nullable PhpType type) {
+        return type == null ? EMPTY : of(type.filterUnknown().getTypes());
+    }
+
+    @NotNull
+    public static TypeSet of(@NotNull Collection<String> types) {
+        int mask           = 0;
+        int othersCount    = 0;
+        final int[] others = new int[types.size()];
+        for (final String type : types) {
+            final int code = encode(type);
+            if (code < builtins.length) {
+                mask |= 1 << code;
+            } else {
+                others[othersCount++] = code - builtins.length;
+            }
+        }
+        return mask == 0 && othersCount == 0 ? EMPTY : new TypeSet(mask, normalize(others, othersCount));
+    }
+
+    private static int encode(@NotNull String type) {
+        final int known = lookup(type);
+        if (known >= 0) {
+            return known;
+        }
+        final String normalized = Types.getType(type);
+        final int code;
+        synchronized (interning) {
+            final Integer interned = names.get(normalized);
+            if (interned != null) {
+                code = interned;
+            } else {
+                String[] table = slots;
+                if (slotsCount == table.length) {
+                    table = Arrays.copyOf(table, table.length * 2);
+                }
+                table[slotsCount] = normalized;
+                code              = builtins.length + slotsCount++;
+                /* the volatile write publishes the name before the code gets visible via the names map */
+                slots = table;
+                names.put(normalized, code);
+            }
+        }
+        remember(type, code);
+        return code;
+    }
+
+    /* the code of already known types, -1 otherwise: queries are not interning anything */
+    private static int lookup(@NotNull String type) {
+        Integer known = codes.get(type);
+        if (known == null) {
+            /* normalized names are normalized to themselves */
+            known = names.get(type);
+        }
+        if (known != null) {
+            return known;
+        }
+        final Integer interned = names.get(Types.getType(type));
+        if (interned != null) {
+            remember(type, interned);
+            return interned;
+        }
+        return -1;
+    }
+
+    private static void remember(@NotNull String type, int code) {
+        if (codes.size() < RAW_CODES_LIMIT) {
+            codes.put(type, code);
+        }
+    }
+
+    /* sorted, without duplicates */
+    @NotNull
+    private static int[] normalize(@NotNull int[] others, int count) {
+        Arrays.sort(others, 0, count);
+        int unique = 0;
+        for (int index = 0; index < count; ++index) {
+            if (unique == 0 || others[unique - 1] != others[index]) {
+                others[unique++] = others[index];
+            }
+        }
+        return unique == others.length ? others : Arrays.copyOf(others, unique);
+    }
+
+    public boolean isEmpty() {
+        return this.mask == 0 && this.others.length == 0;
+    }
+
+    public int size() {
+        return Integer.bitCount(this.mask) + this.others.length;
+    }
+
+    /* all of the built-in types are present */
+    public boolean has(int types) {
+        return (this.mask & types) == types;
+    }
+
+    public boolean hasAny(int types) {
+        return (this.mask & types) != 0;
+    }
+
+    /* the built-in types are present and nothing else */
+    public boolean isExactly(int types) {
+        return this.mask == types && this.others.length == 0;
+    }
+
+    public boolean contains(@NotNull String type) {
+        final int code = lookup(type);
+        if (code < 0) {
+            return false;
+        }
+        return code < builtins.length ? (this.mask & (1 << code)) != 0 : Arrays.binarySearch(this.others, code - builtins.length) >= 0;
+    }
+
+    public boolean hasClasses() {
+        return this.others.length > 0 && this.anyClass(fqn -> true);
+    }
+
+    public boolean anyClass(@NotNull Predicate<String> predicate) {
+        for (final String type : this.names) {
+            if (type.startsWith("\\") && predicate.test(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Not counting the ignored built-in types: the set is not empty and consists of classes and the allowed built-in
+     * types only. E.g. isObjects(NULL, 0) checks for nullable class/interface references.
+     */
+    public boolean isObjects(int ignored, int allowed) {
+        final int rest = this.mask & ~ignored;
+        return (rest & ~allowed) == 0 && this.hasOnlyClasses && (rest != 0 || this.others.length > 0);
+    }
+
+    @NotNull
+    public List<String> getClasses() {
+        final List<String> result = new ArrayList<>(this.names.length);
+        for (final String type : this.names) {
+            if (type.startsWith("\\")) {
+                result.add(type);
+            }
+        }
+        return result;
+    }
+
+    /* normalized types, built-in ones first */
+    @NotNull
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (this.position < builtins.length && (mask & (1 << this.position)) == 0) {
+                    ++this.position;
+                }
+                return this.position < builtins.length + names.length;
+            }
+
+            @Override
+            public String next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int current = this.position++;
+                return current < builtins.length ? builtins[current] : names[current - builtins.length];
+            }
+        };
+    }
+
+    @NotNull
+    public TypeSet with(int types) {
+        return (this.mask | types) == this.mask ? this : new TypeSet(this.mask | types, this);
+    }
+
+    @NotNull
+    public TypeSet with(@NotNull String type) {
+        final int code = encode(type);
+        if (code < builtins.length) {
+            return this.with(1 << code);
+        }
+        if (Arrays.binarySearch(this.others, code - builtins.length) >= 0) {
+            return this;
+        }
+        final int[] others = Arrays.copyOf(this.others, this.others.length + 1);
+        others[this.others.length] = code - builtins.length;
+        return new TypeSet(this.mask, normalize(others, others.length));
+    }
+
+    @NotNull
+    public TypeSet without(int types) {
+        return (this.mask & types) == 0 ? this : new TypeSet(this.mask & ~types, this);
+    }
+
+    @NotNull
+    public TypeSet union(@NotNull TypeSet other) {
+        if (other.isEmpty() || this == other) {
+            return this;
+        } else if (this.isEmpty()) {
+            return other;
+        }
+        final int[] others = Arrays.copyOf(this.others, this.others.length + other.others.length);
+        System.arraycopy(other.others, 0, others, this.others.length, other.others.length);
+        final int[] merged = normalize(others, others.length);
+        if (merged.length == this.others.length) {
+            return (this.mask | other.mask) == this.mask ? this : new TypeSet(this.mask | other.mask, this);
+        }
+        return merged.length == other.others.length ? new TypeSet(this.mask | other.mask, other) : new TypeSet(this.mask | other.mask, merged);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TypeSet && ((TypeSet) other).mask == this.mask && Arrays.equals(((TypeSet) other).others, this.others);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.mask + Arrays.hashCode(this.others);
+    }
+}
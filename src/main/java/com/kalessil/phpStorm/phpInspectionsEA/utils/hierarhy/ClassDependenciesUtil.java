@@ -0,0 +1,163 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.jetbrains.php.lang.psi.elements.ClassReference;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.ClassDependenciesIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+/*
+ * Coupling metrics and inheritance edges from ClassDependenciesIndexer: no PSI of other classes gets loaded.
+ *  - efferent coupling (Ce): distinct classes the class references
+ *  - afferent coupling (Ca): distinct project classes referencing the class
+ *  - instability: Ce / (Ca + Ce), 0 stands for a stable class and 1 for an unstable one
+ */
+final public class ClassDependenciesUtil {
+    /* the FQNs referenced by the class (case as written in the sources) */
+    @NotNull
+    public static Set<String> getEfferentReferences(@NotNull PhpClass clazz) {
+        final PsiFile file        = clazz.getContainingFile();
+        final VirtualFile virtual = file == null ? null : file.getVirtualFile();
+        if (virtual != null) {
+            final List<String> values = FileBasedIndex.getInstance().getValues(
+                    ClassDependenciesIndexer.identity,
+                    "out:" + clazz.getFQN().toLowerCase(),
+                    GlobalSearchScope.fileScope(clazz.getProject(), virtual)
+            );
+            if (!values.isEmpty()) {
+                return split(values.get(0));
+            }
+        }
+
+        /* in-memory files and classes which are not top-level definitions are not indexed */
+        final Set<String> result = new HashSet<>();
+        for (final ClassReference reference : PsiTreeUtil.findChildrenOfType(clazz, ClassReference.class)) {
+            final String fqn = reference.getFQN();
+            if (fqn != null && !fqn.isEmpty()) {
+                result.add(fqn);
+            }
+        }
+        return result;
+    }
+
+    /* the FQNs referenced by the project class, the first declaration if the class is declared several times */
+    @NotNull
+    public static Set<String> getEfferentReferences(@NotNull Project project, @NotNull String fqn) {
+        final List<String> values = FileBasedIndex.getInstance().getValues(
+                ClassDependenciesIndexer.identity,
+                "out:" + fqn.toLowerCase(),
+                GlobalSearchScope.projectScope(project)
+        );
+        return values.isEmpty() ? Collections.emptySet() : split(values.get(0));
+    }
+
+    public static int getEfferentCoupling(@NotNull PhpClass clazz) {
+        return getEfferentReferences(clazz).size();
+    }
+
+    /* the lower-cased FQNs of project classes referencing the class */
+    @NotNull
+    public static Set<String> getAfferentReferences(@NotNull Project project, @NotNull String fqn) {
+        final Set<String> result  = new HashSet<>();
+        final List<String> values = FileBasedIndex.getInstance().getValues(
+                ClassDependenciesIndexer.identity,
+                "in:" + fqn.toLowerCase(),
+                GlobalSearchScope.projectScope(project)
+        );
+        for (final String value : values) {
+            for (final String dependent : value.split(",")) {
+                result.add(dependent.toLowerCase());
+            }
+        }
+        return result;
+    }
+
+    public static int getAfferentCoupling(@NotNull PhpClass clazz) {
+        return getAfferentReferences(clazz.getProject(), clazz.getFQN()).size();
+    }
+
+    public static double getInstability(@NotNull PhpClass clazz) {
+        final int efferent = getEfferentCoupling(clazz);
+        final int total    = efferent + getAfferentCoupling(clazz);
+        return total == 0 ? 0.0 : (double) efferent / total;
+    }
+
+    /* the indexed class declaration, the first one if the class is declared several times */
+    @Nullable
+    public static Declaration getDeclaration(@NotNull Project project, @NotNull String fqn) {
+        return getDeclaration(fqn, GlobalSearchScope.allScope(project));
+    }
+
+    @Nullable
+    public static Declaration getDeclaration(@NotNull String fqn, @NotNull GlobalSearchScope scope) {
+        final List<String> values = FileBasedIndex.getInstance().getValues(ClassDependenciesIndexer.identity, "class:" + fqn.toLowerCase(), scope);
+        return values.isEmpty() ? null : new Declaration(values.get(0));
+    }
+
+    /* lower-cased FQNs of all indexed classes, including libraries ones */
+    @NotNull
+    public static List<String> getIndexedClasses(@NotNull Project project) {
+        final List<String> result = new ArrayList<>();
+        for (final String key : FileBasedIndex.getInstance().getAllKeys(ClassDependenciesIndexer.identity, project)) {
+            if (key.startsWith("class:")) {
+                result.add(key.substring("class:".length()));
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static Set<String> split(@NotNull String references) {
+        return references.isEmpty() ? Collections.emptySet() : new HashSet<>(Arrays.asList(references.split(",")));
+    }
+
+    final public static class Declaration {
+        private final String fqn;
+        private final String superFqn;
+        private final boolean isAbstract;
+
+        private Declaration(@NotNull String meta) {
+            final String[] parts = meta.split(";", 3);
+            this.isAbstract      = parts[0].equals("abstract:1");
+            this.fqn             = parts[1].substring("fqn:".length());
+            this.superFqn        = parts[2].length() == "super:".length() ? null : parts[2].substring("super:".length());
+        }
+
+        /* the FQN as declared */
+        @NotNull
+        public String getFQN() {
+            return this.fqn;
+        }
+
+        @NotNull
+        public String getName() {
+            return this.fqn.substring(this.fqn.lastIndexOf('\\') + 1);
+        }
+
+        @Nullable
+        public String getSuperFQN() {
+            return this.superFqn;
+        }
+
+        public boolean isAbstract() {
+            return this.isAbstract;
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
 
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -17,15 +26,43 @@ import java.util.Set;
  */
 
 final public class InterfacesExtractUtil {
+    private static final Key<CachedValue<Map<String, Closure>>> closures = Key.create("ea.inheritance.closures");
+
+    /* project-wide closures cache, dropped on any structural (out of code block) PSI change */
     @NotNull
-    public static HashSet<PhpClass> getCrawlInheritanceTree(@NotNull PhpClass clazz, boolean withClasses) {
-        final HashSet<PhpClass> processed = new HashSet<>();
+    public static Set<PhpClass> getCrawlInheritanceTree(@NotNull PhpClass clazz, boolean withClasses) {
+        final Project project              = clazz.getProject();
+        final Map<String, Closure> storage = CachedValuesManager.getManager(project).getCachedValue(
+                project,
+                closures,
+                () -> CachedValueProvider.Result.create(
+                        new ConcurrentHashMap<String, Closure>(),
+                        PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT
+                ),
+                false
+        );
+
+        final String fqn = clazz.getFQN();
+        Closure closure  = storage.get(fqn);
+        if (closure == null) {
+            closure = new Closure(clazz);
+            storage.put(fqn, closure);
+        } else if (closure.clazz != clazz) {
+            /* duplicate declarations of the same FQN: closures can differ, hence not sharing them */
+            return crawlInheritanceTree(clazz, withClasses);
+        }
+        return closure.get(withClasses);
+    }
+
+    @NotNull
+    private static Set<PhpClass> crawlInheritanceTree(@NotNull PhpClass clazz, boolean withClasses) {
+        final Set<PhpClass> processed = new HashSet<>();
         if (clazz.isInterface()) {
             processInterface(clazz, processed);
         } else {
             processClass(clazz, processed, withClasses);
         }
-        return processed;
+        return Collections.unmodifiableSet(processed);
     }
 
     private static void processClass(@NotNull PhpClass clazz, @NotNull Set<PhpClass> processedItems, boolean withClasses) {
@@ -50,4 +87,29 @@ final public class InterfacesExtractUtil {
             OpenapiResolveUtil.resolveImplementedInterfaces(clazz).forEach(i -> processInterface(i, processedItems));
         }
     }
+
+    private static class Closure {
+        final private PhpClass clazz;
+        private volatile Set<PhpClass> withClasses;
+        private volatile Set<PhpClass> withoutClasses;
+
+        Closure(@NotNull PhpClass clazz) {
+            this.clazz = clazz;
+        }
+
+        @NotNull
+        Set<PhpClass> get(boolean withClasses) {
+            /* racing threads might compute the same closure twice, what is cheaper than locking */
+            if (withClasses) {
+                if (this.withClasses == null) {
+                    this.withClasses = crawlInheritanceTree(this.clazz, true);
+                }
+                return this.withClasses;
+            }
+            if (this.withoutClasses == null) {
+                this.withoutClasses = crawlInheritanceTree(this.clazz, false);
+            }
+            return this.withoutClasses;
+        }
+    }
 }
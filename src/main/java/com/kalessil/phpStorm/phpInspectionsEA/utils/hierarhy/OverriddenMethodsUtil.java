@@ -0,0 +1,58 @@
+package com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.indexers.OverriddenMethodsIndexer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/*
+ * This file is part of the Php Inspections (EA Extended) package.
+ *
+ * (c) Vladimir Reznichenko <kalessil@gmail.com>
+ *
+ * For the full copyright and license information, please view the LICENSE
+ * file that was distributed with this source code.
+ */
+
+final public class OverriddenMethodsUtil {
+    /* checks if any (direct or transitive) child declares the method, without loading children PSI */
+    public static boolean isOverridden(@NotNull PhpClass clazz, @NotNull String methodName) {
+        if (clazz.isFinal()) {
+            return false;
+        }
+
+        try {
+            final Project project         = clazz.getProject();
+            final FileBasedIndex index    = FileBasedIndex.getInstance();
+            final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+            final String method           = methodName.toLowerCase();
+
+            final Set<String> processed = new HashSet<>();
+            final Deque<String> queue   = new ArrayDeque<>();
+            queue.add(clazz.getFQN().toLowerCase());
+            while (!queue.isEmpty()) {
+                final String parent = queue.poll();
+                if (processed.add(parent)) {
+                    /* direct overrides are the most common case: one lookup per hierarchy level */
+                    if (!index.getValues(OverriddenMethodsIndexer.identity, String.format("%s.%s", parent, method), scope).isEmpty()) {
+                        return true;
+                    }
+                    for (final String children : index.getValues(OverriddenMethodsIndexer.identity, parent, scope)) {
+                        queue.addAll(Arrays.asList(children.split(",")));
+                    }
+                }
+            }
+            return false;
+        } catch (final Throwable error) {
+            if (error instanceof ProcessCanceledException) {
+                throw error;
+            }
+            return false;
+        }
+    }
+}
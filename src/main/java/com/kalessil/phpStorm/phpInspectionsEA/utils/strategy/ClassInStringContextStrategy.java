@@ -6,18 +6,15 @@ import com.intellij.psi.PsiElement;
 import com.jetbrains.php.PhpIndex;
 import com.jetbrains.php.lang.psi.elements.PhpClass;
 import com.jetbrains.php.lang.psi.elements.PhpTypedElement;
-import com.jetbrains.php.lang.psi.resolve.types.PhpType;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.MessagesPresentationUtil;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
-import com.kalessil.phpStorm.phpInspectionsEA.utils.Types;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TypeSet;
 import com.kalessil.phpStorm.phpInspectionsEA.utils.TypesSemanticsUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /*
  * This file is part of the Php Inspections (EA Extended) package.
@@ -39,25 +36,17 @@ final public class ClassInStringContextStrategy {
             return false;
         }
 
-        final Set<String> resolvedTypes = new HashSet<>();
-        if (nonStringOperand instanceof PhpTypedElement) {
-            final PhpType resolved = OpenapiResolveUtil.resolveType((PhpTypedElement) nonStringOperand, holder.getProject());
-            if (resolved != null) {
-                resolved.filterUnknown().getTypes().forEach(t -> resolvedTypes.add(Types.getType(t)));
-            }
-        }
+        final TypeSet resolvedTypes = nonStringOperand instanceof PhpTypedElement
+                ? OpenapiResolveUtil.resolveTypeSet((PhpTypedElement) nonStringOperand, holder.getProject())
+                : TypeSet.EMPTY;
         if (!TypesSemanticsUtil.isNullableObjectInterface(resolvedTypes)) {
-            resolvedTypes.clear();
             return false;
         }
 
         /* collect classes to check if __toString() is there */
         final PhpIndex index             = PhpIndex.getInstance(holder.getProject());
         final List<PhpClass> listClasses = new ArrayList<>();
-        resolvedTypes.stream()
-                .filter(fqn  -> fqn.charAt(0) == '\\')
-                .forEach(fqn -> listClasses.addAll(OpenapiResolveUtil.resolveClassesAndInterfacesByFQN(fqn, index)));
-        resolvedTypes.clear();
+        resolvedTypes.getClasses().forEach(fqn -> listClasses.addAll(OpenapiResolveUtil.resolveClassesAndInterfacesByFQN(fqn, index)));
 
         /* check methods, error on first one violated requirements */
         for (final PhpClass clazz : listClasses) {
@@ -0,0 +1,23 @@
+package com.kalessil.phpStorm.phpInspectionsEA.batch;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.TypesCastingCanBeUsedInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.languageConstructions.RedundantElseClauseInspector;
+
+final public class BatchFixerTest extends PhpCodeInsightFixtureTestCase {
+    public void testOverlappingAndAdjacentFixes() {
+        myFixture.enableInspections(new TypesCastingCanBeUsedInspector(), new RedundantElseClauseInspector());
+        myFixture.configureByFile("testData/fixtures/batch/batch-fixer.php");
+
+        /* the fixes are applied right away: the test is running on the dispatch thread */
+        final BatchFixer fixer = new BatchFixer(myFixture.getProject(), 1);
+        fixer.fix(myFixture.getFile().getVirtualFile());
+        assertEquals(0, fixer.getFailedFiles());
+        assertEquals(1, fixer.getFixedFiles());
+        assertEquals(5, fixer.getAppliedFixes());
+        assertEquals(1, fixer.getSkippedFixes());
+
+        myFixture.setTestDataPath(".");
+        myFixture.checkResultByFile("testData/fixtures/batch/batch-fixer.fixed.php");
+    }
+}
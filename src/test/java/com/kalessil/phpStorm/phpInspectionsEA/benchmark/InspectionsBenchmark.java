@@ -0,0 +1,206 @@
+package com.kalessil.phpStorm.phpInspectionsEA.benchmark;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalInspectionToolSession;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.impl.PsiModificationTrackerImpl;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Replays every inspection registered in plugin.xml against the fixtures corpus and synthetic large files.
+ * Cold passes run after the PSI modification counter was bumped, so the resolve caches and the inheritance closures
+ * are rebuilt as after an edit; warm passes follow right after them, with the caches populated.
+ * Not a part of the regular test run: use `./gradlew benchmark`, tunable with system properties
+ *  - ea.benchmark.inspections: comma-separated short names filter
+ *  - ea.benchmark.warmup, ea.benchmark.iterations: amount of warm-up and measured passes
+ *  - ea.benchmark.report: CSV report location
+ */
+final public class InspectionsBenchmark extends PhpCodeInsightFixtureTestCase {
+    private static final Pattern highlightingMarkup = Pattern.compile("</?(warning|weak_warning|error|info|caret)(\\s[^>]*)?>");
+
+    public void testBenchmarkInspections() throws Exception {
+        final int warmup     = Integer.getInteger("ea.benchmark.warmup", 3);
+        final int iterations = Integer.getInteger("ea.benchmark.iterations", 10);
+        final String filter  = System.getProperty("ea.benchmark.inspections", "");
+        final String report  = System.getProperty("ea.benchmark.report", "build/reports/ea-benchmark.csv");
+
+        final Set<String> selected = Arrays.stream(filter.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        final List<LocalInspectionTool> inspections = this.getRegisteredInspections().stream()
+                .filter(inspection -> selected.isEmpty() || selected.contains(inspection.getShortName()))
+                .collect(Collectors.toList());
+        final List<PsiFile> files = this.getCorpus();
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId                           = Thread.currentThread().getId();
+
+        final List<String> lines = new ArrayList<>();
+        lines.add("inspection,cold p50 ms,cold p90 ms,cold p99 ms,cold max ms,warm p50 ms,warm p90 ms,warm p99 ms,warm max ms,allocated KB per cold pass");
+        for (final LocalInspectionTool inspection : inspections) {
+            for (int pass = 0; pass < warmup; ++pass) {
+                this.invalidateCaches();
+                this.inspect(inspection, files);
+            }
+
+            final long[] cold = new long[iterations];
+            final long[] warm = new long[iterations];
+            long allocated    = 0;
+            for (int pass = 0; pass < iterations; ++pass) {
+                this.invalidateCaches();
+                final long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+                final long coldStart   = System.nanoTime();
+                this.inspect(inspection, files);
+                cold[pass]             = System.nanoTime() - coldStart;
+                allocated             += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+                final long warmStart = System.nanoTime();
+                this.inspect(inspection, files);
+                warm[pass]           = System.nanoTime() - warmStart;
+            }
+            Arrays.sort(cold);
+            Arrays.sort(warm);
+
+            lines.add(String.format(
+                    Locale.ROOT,
+                    "%s,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%d",
+                    inspection.getShortName(),
+                    percentile(cold, 0.50),
+                    percentile(cold, 0.90),
+                    percentile(cold, 0.99),
+                    percentile(cold, 1.00),
+                    percentile(warm, 0.50),
+                    percentile(warm, 0.90),
+                    percentile(warm, 0.99),
+                    percentile(warm, 1.00),
+                    iterations > 0 ? allocated / iterations / 1024 : 0
+            ));
+        }
+
+        final File output = new File(report);
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        try (final PrintWriter writer = new PrintWriter(output, StandardCharsets.UTF_8.name())) {
+            lines.forEach(writer::println);
+        }
+        lines.forEach(System.out::println);
+    }
+
+    /* the same as an edit does: cached values depending on the PSI modification counters are getting dropped */
+    private void invalidateCaches() {
+        final PsiManager manager = PsiManager.getInstance(myFixture.getProject());
+        ((PsiModificationTrackerImpl) manager.getModificationTracker()).incCounter();
+        manager.dropResolveCaches();
+    }
+
+    private void inspect(LocalInspectionTool inspection, List<PsiFile> files) {
+        final InspectionManager manager = InspectionManager.getInstance(myFixture.getProject());
+        for (final PsiFile file : files) {
+            final LocalInspectionToolSession session = new LocalInspectionToolSession(file, 0, file.getTextLength());
+            final ProblemsHolder holder              = new ProblemsHolder(manager, file, false);
+            final PsiElementVisitor visitor          = inspection.buildVisitor(holder, false, session);
+            file.accept(new PsiRecursiveElementWalkingVisitor() {
+                @Override
+                public void visitElement(PsiElement element) {
+                    element.accept(visitor);
+                    super.visitElement(element);
+                }
+            });
+        }
+    }
+
+    private static double percentile(long[] sorted, double rank) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        final int index = (int) Math.ceil(rank * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    private List<LocalInspectionTool> getRegisteredInspections() throws Exception {
+        final List<LocalInspectionTool> result = new ArrayList<>();
+        try (final InputStream descriptor = this.getClass().getResourceAsStream("/META-INF/plugin.xml")) {
+            final Element root       = new SAXBuilder().build(descriptor).getRootElement();
+            final Element extensions = root.getChild("extensions");
+            for (final Element inspection : extensions.getChildren("localInspection")) {
+                final Class<?> clazz = Class.forName(inspection.getAttributeValue("implementationClass"));
+                result.add((LocalInspectionTool) clazz.newInstance());
+            }
+        }
+        return result;
+    }
+
+    private List<PsiFile> getCorpus() throws IOException {
+        final List<PsiFile> result = new ArrayList<>();
+        try (final Stream<Path> paths = Files.walk(Paths.get("testData/fixtures"))) {
+            final List<Path> fixtures = paths
+                    .filter(path -> path.toString().endsWith(".php") && !path.toString().endsWith(".fixed.php"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            int index = 0;
+            for (final Path fixture : fixtures) {
+                final String content = new String(Files.readAllBytes(fixture), StandardCharsets.UTF_8);
+                result.add(myFixture.addFileToProject(
+                        String.format("corpus/%d-%s", ++index, fixture.getFileName()),
+                        highlightingMarkup.matcher(content).replaceAll("")
+                ));
+            }
+        }
+
+        final int syntheticSize = Integer.getInteger("ea.benchmark.synthetic", 2000);
+        result.add(myFixture.addFileToProject("corpus/synthetic-class.php", synthesizeClass(syntheticSize)));
+        result.add(myFixture.addFileToProject("corpus/synthetic-array.php", synthesizeArray(syntheticSize * 10)));
+
+        return result;
+    }
+
+    private static String synthesizeClass(int methods) {
+        final StringBuilder content = new StringBuilder("<?php\n\nnamespace Synthetic;\n\nclass Generated extends \\ArrayObject {\n");
+        for (int index = 0; index < methods; ++index) {
+            content.append("    public function method").append(index).append("($input, array $options = []) {\n")
+                   .append("        $result = [];\n")
+                   .append("        foreach ($options as $key => $value) {\n")
+                   .append("            if (isset($value['x']) && $value['x'] !== null && in_array($key, $result)) {\n")
+                   .append("                $result = array_merge($result, [$key => strtolower(trim($value['x']))]);\n")
+                   .append("            } elseif (preg_match('/^[a-z]+$/i', $key)) {\n")
+                   .append("                $result[] = $this->method").append(Math.max(0, index - 1)).append("($input, $value);\n")
+                   .append("            }\n")
+                   .append("        }\n")
+                   .append("        return count($result) > 0 ? $result : null;\n")
+                   .append("    }\n");
+        }
+        return content.append("}\n").toString();
+    }
+
+    private static String synthesizeArray(int entries) {
+        final StringBuilder content = new StringBuilder("<?php\n\nreturn [\n");
+        for (int index = 0; index < entries; ++index) {
+            content.append("    'key.").append(index).append("' => 'Translation #").append(index).append("',\n");
+        }
+        return content.append("];\n").toString();
+    }
+}
@@ -0,0 +1,192 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.regularExpressions;
+
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode.GroupType;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcreNode.Kind;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.regularExpressions.syntax.PcrePattern;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+final public class PcrePatternTest extends PhpCodeInsightFixtureTestCase {
+    public void testDelimitersAndModifiers() {
+        PcrePattern pattern;
+
+        pattern = PcrePattern.parse("/a+/i");
+        assertNotNull(pattern);
+        assertEquals("a+", pattern.getPattern());
+        assertEquals("i", pattern.getModifiers());
+        assertTrue(pattern.hasModifier('i'));
+        assertFalse(pattern.hasModifier('u'));
+
+        pattern = PcrePattern.parse("#a#");
+        assertNotNull(pattern);
+        assertEquals("a", pattern.getPattern());
+        assertNull(pattern.getModifiers());
+
+        /* the closing delimiter is the last one followed by modifiers only */
+        pattern = PcrePattern.parse("/a/b/ms");
+        assertNotNull(pattern);
+        assertEquals("a/b", pattern.getPattern());
+        assertEquals("ms", pattern.getModifiers());
+
+        /* bracket-style delimiters */
+        for (final String contents : Arrays.asList("{a}u", "(a)u", "[a]u", "<a>u")) {
+            pattern = PcrePattern.parse(contents);
+            assertNotNull(contents, pattern);
+            assertEquals(contents, "a", pattern.getPattern());
+            assertEquals(contents, "u", pattern.getModifiers());
+        }
+    }
+
+    public void testMalformedInput() {
+        /* missing or broken delimiters */
+        for (final String contents : Arrays.asList("", "/", "abc", "/abc", "/a/ ", "{a{")) {
+            assertNull(contents, PcrePattern.parse(contents));
+        }
+
+        /* broken constructs are consuming the rest of the pattern instead of failing */
+        final List<String> broken = Arrays.asList(
+                "(", ")", "[", "\\", "a{", "a{2,", "a{,3}", "(?", "(?<name", "[a-", "[[:alpha:", "\\x{", "\\Q", "\\k<", "(?#"
+        );
+        for (final String regex : broken) {
+            final PcrePattern pattern = PcrePattern.parse('/' + regex + '/');
+            assertNotNull(regex, pattern);
+            final PcreNode tree = pattern.getTree();
+            assertEquals(regex, Kind.ALTERNATION, tree.getKind());
+            assertEquals(regex, regex.length(), tree.getEnd());
+        }
+    }
+
+    public void testCharacterClasses() {
+        PcreNode clazz;
+
+        clazz = this.single("/[^a-z0-9_]/");
+        assertEquals(Kind.CLASS, clazz.getKind());
+        assertTrue(clazz.isNegated());
+        assertEquals("a-z0-9_", clazz.getBodyText());
+        assertEquals(Arrays.asList(Kind.RANGE, Kind.RANGE, Kind.LITERAL), kinds(clazz.getChildren()));
+        assertEquals(Arrays.asList("a", "z"), texts(clazz.getChildren().get(0).getChildren()));
+        assertTrue(clazz.getChildren().get(2).isInsideClass());
+
+        /* ']' right after the opening bracket is a literal */
+        clazz = this.single("/[]a]/");
+        assertFalse(clazz.isNegated());
+        assertEquals(Arrays.asList("]", "a"), texts(clazz.getChildren()));
+
+        /* not ranges: trailing '-' and shorthand classes as a bound */
+        clazz = this.single("/[a-]/");
+        assertEquals(Arrays.asList(Kind.LITERAL, Kind.LITERAL), kinds(clazz.getChildren()));
+        clazz = this.single("/[\\d-z]/");
+        assertEquals(Arrays.asList(Kind.ESCAPE, Kind.LITERAL, Kind.LITERAL), kinds(clazz.getChildren()));
+
+        /* escaped bounds */
+        clazz = this.single("/[\\x00-\\x7F]/");
+        assertEquals(Arrays.asList(Kind.RANGE), kinds(clazz.getChildren()));
+        assertEquals(Arrays.asList("\\x00", "\\x7F"), texts(clazz.getChildren().get(0).getChildren()));
+
+        /* POSIX classes */
+        clazz = this.single("/[[:alpha:][:digit:]_]/");
+        assertEquals(Arrays.asList(Kind.POSIX_CLASS, Kind.POSIX_CLASS, Kind.LITERAL), kinds(clazz.getChildren()));
+        assertEquals(Arrays.asList("[:alpha:]", "[:digit:]", "_"), texts(clazz.getChildren()));
+    }
+
+    public void testEscapes() {
+        final List<PcreNode> atoms = atoms("/\\d\\p{Lu}\\pL\\x41\\x{263A}\\Qa.b\\E\\k<name>\\g{-1}\\12\\cA/");
+        assertEquals(
+                Arrays.asList("\\d", "\\p{Lu}", "\\pL", "\\x41", "\\x{263A}", "\\Qa.b\\E", "\\k<name>", "\\g{-1}", "\\12", "\\cA"),
+                texts(atoms)
+        );
+        atoms.forEach(atom -> assertEquals(atom.getText(), Kind.ESCAPE, atom.getKind()));
+
+        assertTrue(atoms.get(0).isShorthandClass());
+        assertFalse(atoms.get(1).isShorthandClass());
+        assertEquals('p', atoms.get(1).getEscapedCharacter());
+
+        final PcrePattern pattern = PcrePattern.parse("/\\d\\p{Lu}/");
+        assertNotNull(pattern);
+        assertTrue(pattern.hasUnicodeCodepoints());
+        assertTrue(pattern.hasLetters());
+        assertFalse(PcrePattern.parse("/\\d\\s\\w/").hasLetters());
+    }
+
+    public void testQuantifiers() {
+        final List<PcreNode> atoms = atoms("/a*b+?c?+d{2}e{2,}f{2,5}?g{,3}/");
+        assertEquals(Arrays.asList("a*", "b+?", "c?+", "d{2}", "e{2,}", "f{2,5}?", "g", "{", ",", "3", "}"), texts(atoms));
+
+        this.assertQuantifier(atoms.get(0), "*", 0, PcreNode.UNBOUNDED, false, false);
+        this.assertQuantifier(atoms.get(1), "+", 1, PcreNode.UNBOUNDED, true, false);
+        this.assertQuantifier(atoms.get(2), "?", 0, 1, false, true);
+        this.assertQuantifier(atoms.get(3), "{2}", 2, 2, false, false);
+        this.assertQuantifier(atoms.get(4), "{2,}", 2, PcreNode.UNBOUNDED, false, false);
+        this.assertQuantifier(atoms.get(5), "{2,5}", 2, 5, true, false);
+
+        /* '{,3}' is not a quantifier */
+        assertFalse(atoms.get(6).isQuantified());
+        assertNull(atoms.get(6).getQuantifier());
+        assertEquals(1, atoms.get(6).getMinimum());
+        assertEquals(1, atoms.get(6).getMaximum());
+    }
+
+    public void testGroups() {
+        final List<PcreNode> atoms = atoms("/(a)(?:b)(?>c)(?=d)(?!e)(?<=f)(?<!g)(?<n>h)(?P<m>i)(?'o'j)(?i:k)(?R)(?i)(?#note)/");
+        assertEquals(
+                Arrays.asList(
+                        GroupType.CAPTURING, GroupType.NON_CAPTURING, GroupType.ATOMIC, GroupType.LOOKAHEAD,
+                        GroupType.NEGATIVE_LOOKAHEAD, GroupType.LOOKBEHIND, GroupType.NEGATIVE_LOOKBEHIND,
+                        GroupType.NAMED, GroupType.NAMED, GroupType.NAMED, GroupType.NON_CAPTURING, GroupType.OTHER
+                ),
+                atoms.subList(0, 12).stream().map(PcreNode::getGroupType).collect(Collectors.toList())
+        );
+        assertEquals(
+                Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k", "R"),
+                atoms.subList(0, 12).stream().map(PcreNode::getBodyText).collect(Collectors.toList())
+        );
+        assertEquals(Kind.OPTIONS, atoms.get(12).getKind());
+        assertEquals(Kind.COMMENT, atoms.get(13).getKind());
+        assertEquals(14, atoms.size());
+
+        /* nesting and quantified groups */
+        final PcrePattern pattern = PcrePattern.parse("/((a|b)c)+/");
+        assertNotNull(pattern);
+        final List<PcreNode> groups = pattern.getGroups();
+        assertEquals(2, groups.size());
+        assertEquals("+", groups.get(0).getQuantifier());
+        assertEquals("(a|b)c", groups.get(0).getBodyText());
+        assertEquals("a|b", groups.get(1).getBodyText());
+        assertEquals(2, groups.get(1).getChildren().get(0).getChildren().size());
+        assertSame(groups.get(0), groups.get(1).getParent().getParent().getParent());
+    }
+
+    private void assertQuantifier(PcreNode atom, String quantifier, int minimum, int maximum, boolean lazy, boolean possessive) {
+        assertTrue(atom.getText(), atom.isQuantified());
+        assertEquals(atom.getText(), quantifier, atom.getQuantifier());
+        assertEquals(atom.getText(), minimum, atom.getMinimum());
+        assertEquals(atom.getText(), maximum, atom.getMaximum());
+        assertEquals(atom.getText(), lazy, atom.isLazy());
+        assertEquals(atom.getText(), possessive, atom.isPossessive());
+    }
+
+    private PcreNode single(String contents) {
+        final List<PcreNode> atoms = atoms(contents);
+        assertEquals(contents, 1, atoms.size());
+        return atoms.get(0);
+    }
+
+    private static List<PcreNode> atoms(String contents) {
+        final PcrePattern pattern = PcrePattern.parse(contents);
+        assertNotNull(contents, pattern);
+        /* alternation -> sequence -> atoms */
+        return pattern.getTree().getChildren().get(0).getChildren();
+    }
+
+    private static List<Kind> kinds(List<PcreNode> nodes) {
+        return nodes.stream().map(PcreNode::getKind).collect(Collectors.toList());
+    }
+
+    private static List<String> texts(List<PcreNode> nodes) {
+        return nodes.stream().map(PcreNode::getText).collect(Collectors.toList());
+    }
+}
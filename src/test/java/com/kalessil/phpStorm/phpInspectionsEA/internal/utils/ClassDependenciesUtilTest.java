@@ -0,0 +1,79 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassDependenciesUtil;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.ClassDependenciesUtil.Declaration;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final public class ClassDependenciesUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testClassesHierarchy() {
+        final PsiFile file = myFixture.configureByText(
+                "test.php",
+                "<?php\n" +
+                "namespace Hierarchy;\n" +
+                "interface Contract {}\n" +
+                "abstract class Base implements Contract {}\n" +
+                "class Child extends Base {}\n" +
+                "class Left { public function right() { return new Right(); } }\n" +
+                "class Right extends Left { public function left() { return new Left(); } }\n"
+        );
+        final Project project = myFixture.getProject();
+
+        /* "class:" entries, lookups are case-insensitive */
+        final List<String> classes  = ClassDependenciesUtil.getIndexedClasses(project);
+        final List<String> expected = Arrays.asList(
+                "\\hierarchy\\contract", "\\hierarchy\\base", "\\hierarchy\\child", "\\hierarchy\\left", "\\hierarchy\\right"
+        );
+        for (final String fqn : expected) {
+            assertTrue(fqn, classes.contains(fqn));
+        }
+        final Declaration base = ClassDependenciesUtil.getDeclaration(project, "\\HIERARCHY\\base");
+        assertNotNull(base);
+        assertEquals("\\Hierarchy\\Base", base.getFQN());
+        assertEquals("Base", base.getName());
+        assertNull(base.getSuperFQN());
+        assertTrue(base.isAbstract());
+        final Declaration child = ClassDependenciesUtil.getDeclaration(project, "\\Hierarchy\\Child");
+        assertNotNull(child);
+        assertEquals("\\Hierarchy\\Base", child.getSuperFQN());
+        assertFalse(child.isAbstract());
+        assertNull(ClassDependenciesUtil.getDeclaration(project, "\\Hierarchy\\Unknown"));
+
+        /* "out:" entries, FQNs are as written in the sources */
+        assertEquals(Collections.emptySet(), ClassDependenciesUtil.getEfferentReferences(project, "\\Hierarchy\\Contract"));
+        assertEquals(Collections.singleton("\\Hierarchy\\Contract"), ClassDependenciesUtil.getEfferentReferences(project, "\\Hierarchy\\Base"));
+        assertEquals(Collections.singleton("\\Hierarchy\\Base"), ClassDependenciesUtil.getEfferentReferences(project, "\\hierarchy\\child"));
+
+        /* "in:" entries, FQNs are lower-cased */
+        assertEquals(Collections.singleton("\\hierarchy\\base"), ClassDependenciesUtil.getAfferentReferences(project, "\\Hierarchy\\Contract"));
+        assertEquals(Collections.singleton("\\hierarchy\\child"), ClassDependenciesUtil.getAfferentReferences(project, "\\Hierarchy\\Base"));
+        assertEquals(Collections.emptySet(), ClassDependenciesUtil.getAfferentReferences(project, "\\Hierarchy\\Child"));
+
+        /* a cycle: the classes are referencing each other, the references are counted once */
+        assertEquals(Collections.singleton("\\Hierarchy\\Right"), ClassDependenciesUtil.getEfferentReferences(project, "\\Hierarchy\\Left"));
+        assertEquals(Collections.singleton("\\Hierarchy\\Left"), ClassDependenciesUtil.getEfferentReferences(project, "\\Hierarchy\\Right"));
+        assertEquals(Collections.singleton("\\hierarchy\\right"), ClassDependenciesUtil.getAfferentReferences(project, "\\Hierarchy\\Left"));
+        assertEquals(Collections.singleton("\\hierarchy\\left"), ClassDependenciesUtil.getAfferentReferences(project, "\\Hierarchy\\Right"));
+
+        /* metrics of the classes in the sources */
+        for (final PhpClass clazz : PsiTreeUtil.findChildrenOfType(file, PhpClass.class)) {
+            if (clazz.getName().equals("Base")) {
+                assertEquals(1, ClassDependenciesUtil.getEfferentCoupling(clazz));
+                assertEquals(1, ClassDependenciesUtil.getAfferentCoupling(clazz));
+                assertEquals(0.5, ClassDependenciesUtil.getInstability(clazz), 0.0);
+            } else if (clazz.getName().equals("Left")) {
+                assertEquals(Collections.singleton("\\Hierarchy\\Right"), ClassDependenciesUtil.getEfferentReferences(clazz));
+                assertEquals(0.5, ClassDependenciesUtil.getInstability(clazz), 0.0);
+            } else if (clazz.getName().equals("Child")) {
+                assertEquals(1.0, ClassDependenciesUtil.getInstability(clazz), 0.0);
+            }
+        }
+    }
+}
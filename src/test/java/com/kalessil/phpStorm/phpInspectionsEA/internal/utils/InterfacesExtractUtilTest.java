@@ -0,0 +1,41 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.PhpClass;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.apiUsage.pdo.PdoApiUsageInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.inspectors.semanticalAnalysis.classes.ClassReImplementsParentInterfaceInspector;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.hierarhy.InterfacesExtractUtil;
+
+final public class InterfacesExtractUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testSharedClosuresSurviveCallers() {
+        myFixture.enableInspections(new ClassReImplementsParentInterfaceInspector(), new PdoApiUsageInspector());
+        final PsiFile file = myFixture.configureByText(
+                "test.php",
+                "<?php\n" +
+                "namespace Holder {\n" +
+                "    interface ParentInterface {}\n" +
+                "    abstract class AbstractOne implements ParentInterface {}\n" +
+                "    class ClassOne extends AbstractOne implements <warning descr=\"[EA] '\\Holder\\ParentInterface' is already announced in '\\Holder\\AbstractOne'.\">ParentInterface</warning> {}\n" +
+                "    class Connection extends \\PDO { public function prepare($statement, $options = null) {} }\n" +
+                "    function cases_holder(Connection $x) {\n" +
+                "        $y = $x->prepare('');\n" +
+                "        <weak_warning descr=\"[EA] 'PDO::query(...)' should be used instead of 'prepare-execute' calls chain.\">$y->execute()</weak_warning>;\n" +
+                "    }\n" +
+                "}"
+        );
+
+        /* the second pass is served from the shared closures, the first one must have left them intact */
+        myFixture.testHighlighting(true, false, true);
+        myFixture.testHighlighting(true, false, true);
+
+        for (final PhpClass clazz : PsiTreeUtil.findChildrenOfType(file, PhpClass.class)) {
+            if (clazz.getName().equals("AbstractOne")) {
+                assertEquals(1, InterfacesExtractUtil.getCrawlInheritanceTree(clazz, false).size());
+            } else if (clazz.getName().equals("Connection")) {
+                assertFalse(InterfacesExtractUtil.getCrawlInheritanceTree(clazz, true).isEmpty());
+            }
+        }
+    }
+}
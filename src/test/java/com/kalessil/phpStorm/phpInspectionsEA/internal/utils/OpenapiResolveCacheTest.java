@@ -0,0 +1,26 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.PhpTypedElement;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveCache;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.OpenapiResolveUtil;
+
+final public class OpenapiResolveCacheTest extends PhpCodeInsightFixtureTestCase {
+    public void testRepeatedResolvingIsCached() {
+        PsiFile file = myFixture.configureByText("test.php", "<?php function f() { return 1; } echo f();");
+        FunctionReference reference = PsiTreeUtil.findChildOfType(file, FunctionReference.class);
+        assertNotNull(reference);
+
+        OpenapiResolveCache.resetCounters();
+        assertSame(OpenapiResolveUtil.resolveReference(reference), OpenapiResolveUtil.resolveReference(reference));
+        assertSame(
+                OpenapiResolveUtil.resolveType((PhpTypedElement) reference, myFixture.getProject()),
+                OpenapiResolveUtil.resolveType((PhpTypedElement) reference, myFixture.getProject())
+        );
+        assertTrue(OpenapiResolveCache.getHits() >= 2);
+        assertTrue(OpenapiResolveCache.getMisses() >= 2);
+    }
+}
@@ -0,0 +1,35 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.jetbrains.php.lang.psi.elements.AssignmentExpression;
+import com.jetbrains.php.lang.psi.elements.Function;
+import com.jetbrains.php.lang.psi.elements.FunctionReference;
+import com.jetbrains.php.lang.psi.elements.Variable;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.PsiNodesInventoryUtil;
+
+import java.util.ArrayList;
+
+final public class PsiNodesInventoryUtilTest extends PhpCodeInsightFixtureTestCase {
+    public void testLookupsMatchTreeWalking() {
+        PsiFile file = myFixture.configureByText(
+                "test.php",
+                "<?php function f($x) { $y = $x = strlen($x); return g($y); } function g($z) { return $z; }"
+        );
+        for (Function function : PsiTreeUtil.findChildrenOfType(file, Function.class)) {
+            assertEquals(
+                    new ArrayList<>(PsiTreeUtil.findChildrenOfType(function, Variable.class)),
+                    PsiNodesInventoryUtil.findChildrenOfType(function, Variable.class)
+            );
+            assertEquals(
+                    new ArrayList<>(PsiTreeUtil.findChildrenOfAnyType(function, AssignmentExpression.class, FunctionReference.class)),
+                    PsiNodesInventoryUtil.findChildrenOfAnyType(function, AssignmentExpression.class, FunctionReference.class)
+            );
+        }
+
+        AssignmentExpression outer = PsiTreeUtil.findChildOfType(file, AssignmentExpression.class);
+        assertNotNull(outer);
+        assertEquals(1, PsiNodesInventoryUtil.findChildrenOfType(outer, AssignmentExpression.class).size());
+    }
+}
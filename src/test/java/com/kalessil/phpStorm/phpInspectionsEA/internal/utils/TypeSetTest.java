@@ -0,0 +1,125 @@
+package com.kalessil.phpStorm.phpInspectionsEA.internal.utils;
+
+import com.jetbrains.php.lang.psi.resolve.types.PhpType;
+import com.kalessil.phpStorm.phpInspectionsEA.PhpCodeInsightFixtureTestCase;
+import com.kalessil.phpStorm.phpInspectionsEA.utils.TypeSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+final public class TypeSetTest extends PhpCodeInsightFixtureTestCase {
+    public void testOf() {
+        assertSame(TypeSet.EMPTY, TypeSet.of((PhpType) null));
+        assertSame(TypeSet.EMPTY, TypeSet.of(Collections.emptyList()));
+        assertTrue(TypeSet.EMPTY.isEmpty());
+
+        /* raw types are normalized, duplicates are dropped */
+        final TypeSet set = TypeSet.of(Arrays.asList("\\string", "int", "integer", "\\TypeSetTest\\Of", "\\TypeSetTest\\Of"));
+        assertEquals(3, set.size());
+        assertTrue(set.has(TypeSet.STRING | TypeSet.INTEGER));
+        assertFalse(set.hasAny(TypeSet.NULL | TypeSet.ARRAY));
+        assertFalse(set.isExactly(TypeSet.STRING | TypeSet.INTEGER));
+        assertEquals(Collections.singletonList("\\TypeSetTest\\Of"), set.getClasses());
+        assertTrue(set.hasClasses());
+
+        assertTrue(TypeSet.of(Arrays.asList("string[]", "\\array")).isExactly(TypeSet.ARRAY));
+        assertEquals(set, TypeSet.of(Arrays.asList("\\TypeSetTest\\Of", "string", "int")));
+        assertEquals(set.hashCode(), TypeSet.of(Arrays.asList("\\TypeSetTest\\Of", "string", "int")).hashCode());
+    }
+
+    public void testWith() {
+        final TypeSet set = TypeSet.of(Collections.singletonList("string"));
+        assertSame(set, set.with(TypeSet.STRING));
+        assertSame(set, set.with("\\string"));
+
+        final TypeSet nullable = set.with(TypeSet.NULL);
+        assertNotSame(set, nullable);
+        assertTrue(nullable.isExactly(TypeSet.STRING | TypeSet.NULL));
+        assertTrue(set.isExactly(TypeSet.STRING));
+
+        final TypeSet withClass = nullable.with("\\TypeSetTest\\With");
+        assertEquals(3, withClass.size());
+        assertSame(withClass, withClass.with("\\TypeSetTest\\With"));
+        assertTrue(withClass.with("integer").has(TypeSet.INTEGER));
+    }
+
+    public void testWithout() {
+        final TypeSet set = TypeSet.of(Arrays.asList("string", "null", "\\TypeSetTest\\Without"));
+        assertSame(set, set.without(TypeSet.ARRAY));
+
+        final TypeSet result = set.without(TypeSet.NULL | TypeSet.ARRAY);
+        assertEquals(2, result.size());
+        assertFalse(result.hasAny(TypeSet.NULL));
+        assertEquals(Collections.singletonList("\\TypeSetTest\\Without"), result.getClasses());
+        assertTrue(set.hasAny(TypeSet.NULL));
+    }
+
+    public void testUnion() {
+        final TypeSet first  = TypeSet.of(Arrays.asList("string", "\\TypeSetTest\\Union\\First"));
+        final TypeSet second = TypeSet.of(Arrays.asList("null", "\\TypeSetTest\\Union\\Second"));
+
+        assertSame(first, first.union(TypeSet.EMPTY));
+        assertSame(first, TypeSet.EMPTY.union(first));
+        assertSame(first, first.union(first));
+        assertSame(first, first.union(TypeSet.of(Collections.singletonList("\\TypeSetTest\\Union\\First"))));
+
+        final TypeSet union = first.union(second);
+        assertEquals(4, union.size());
+        assertTrue(union.has(TypeSet.STRING | TypeSet.NULL));
+        assertEquals(union, second.union(first));
+        assertTrue(union.contains("\\TypeSetTest\\Union\\First"));
+        assertTrue(union.contains("\\TypeSetTest\\Union\\Second"));
+    }
+
+    public void testContains() {
+        final TypeSet set = TypeSet.of(Arrays.asList("int", "\\TypeSetTest\\Contains"));
+        assertTrue(set.contains("int"));
+        assertTrue(set.contains("\\integer"));
+        assertTrue(set.contains("\\TypeSetTest\\Contains"));
+        assertFalse(set.contains("string"));
+
+        /* unknown types are not interned: otherwise the slot order below would be reversed */
+        assertFalse(set.contains("\\TypeSetTest\\Contains\\Unknown"));
+        TypeSet.of(Collections.singletonList("\\TypeSetTest\\Contains\\Known"));
+        final TypeSet both = TypeSet.of(Arrays.asList("\\TypeSetTest\\Contains\\Unknown", "\\TypeSetTest\\Contains\\Known"));
+        assertEquals(Arrays.asList("\\TypeSetTest\\Contains\\Known", "\\TypeSetTest\\Contains\\Unknown"), both.getClasses());
+    }
+
+    public void testIsObjects() {
+        assertTrue(TypeSet.of(Collections.singletonList("\\TypeSetTest\\Objects")).isObjects(0, 0));
+        assertTrue(TypeSet.of(Arrays.asList("\\TypeSetTest\\Objects", "null")).isObjects(TypeSet.NULL, 0));
+        assertFalse(TypeSet.of(Arrays.asList("\\TypeSetTest\\Objects", "null")).isObjects(0, 0));
+        assertFalse(TypeSet.of(Arrays.asList("\\TypeSetTest\\Objects", "string")).isObjects(TypeSet.NULL, 0));
+        assertTrue(TypeSet.of(Arrays.asList("\\TypeSetTest\\Objects", "string")).isObjects(TypeSet.NULL, TypeSet.STRING));
+
+        /* nothing left after ignoring */
+        assertFalse(TypeSet.of(Collections.singletonList("null")).isObjects(TypeSet.NULL, 0));
+        assertFalse(TypeSet.EMPTY.isObjects(0, 0));
+    }
+
+    public void testIterationOrder() {
+        TypeSet.of(Collections.singletonList("\\TypeSetTest\\Iteration\\Second"));
+        TypeSet.of(Collections.singletonList("\\TypeSetTest\\Iteration\\First"));
+        final TypeSet set = TypeSet.of(
+                Arrays.asList("\\TypeSetTest\\Iteration\\First", "null", "\\TypeSetTest\\Iteration\\Second", "array")
+        );
+
+        /* built-in types in the constants order first, then others in the interning order */
+        final List<String> types = new ArrayList<>();
+        set.forEach(types::add);
+        assertEquals(Arrays.asList("array", "null", "\\TypeSetTest\\Iteration\\Second", "\\TypeSetTest\\Iteration\\First"), types);
+    }
+
+    public void testInterningGrowth() {
+        final List<String> names = new ArrayList<>();
+        for (int index = 0; index < 500; ++index) {
+            names.add("\\TypeSetTest\\Growth\\Class" + index);
+        }
+        final TypeSet set = TypeSet.of(names);
+        assertEquals(names.size(), set.size());
+        assertEquals(names, set.getClasses());
+        names.forEach(name -> assertTrue(name, set.contains(name)));
+    }
+}
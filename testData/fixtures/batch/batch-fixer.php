@@ -0,0 +1,14 @@
+<?php
+
+function cases_holder($y, $z) {
+    /* overlapping: the nested call is left for the next run */
+    $x = intval(strval($y));
+
+    /* not overlapping: both are getting fixed */
+    $x = [intval($y), strval($z)];
+}
+
+/* adjacent: the first fix range (incl. the trailing whitespace) ends where the second one starts */
+if ($condition) { die; }  else { ; }
+
+if ($condition) { exit; } else { ; }
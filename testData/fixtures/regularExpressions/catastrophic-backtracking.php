@@ -0,0 +1,20 @@
+<?php
+
+    /* exponential: a loop can be consumed by several nested or alternative loops */
+    preg_match(<error descr="[EA] Exponential backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with str_repeat('0', 32) . ' '.">'/^(\w+\d+)*$/'</error>, '');
+    preg_match(<error descr="[EA] Exponential backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with str_repeat('a', 32) . '0'.">'/(a|aa)*b/'</error>, '');
+    preg_replace(<error descr="[EA] Exponential backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with str_repeat('a', 32) . '-'.">'/^(\w+\s?)*$/'</error>, '', '');
+    preg_split(<error descr="[EA] Exponential backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with 'x' . str_repeat('0', 32) . ' '.">'/x(\w+\d+)+y/i'</error>, '');
+
+    /* polynomial: loops consuming the same input are chained */
+    preg_match(<weak_warning descr="[EA] O(n^2) backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with str_repeat('0', 5000) . 'a'.">'/^\d+\d+$/'</weak_warning>, '');
+    preg_match(<weak_warning descr="[EA] O(n^2) backtracking: the pattern might be exploited (ReDoS, Regular Expression Denial of Service), e.g. with str_repeat('a', 5000) . ' '.">'/^[a-z]+[a-z0-9]*$/'</weak_warning>, '');
+
+    /* false-positives: atomic groups, possessive quantifiers, unambiguous loops, successful matches */
+    preg_match('/^(?>a+)+$/', '');
+    preg_match('/^(a++)+$/', '');
+    preg_match('/^(a|b)*$/', '');
+    preg_match('/^\d+\.\d+$/', '');
+    preg_match('/(\w+\d+)*/', '');
+    preg_match('/(\d+)\1/', '');
+    preg_quote('(a+)+$');
@@ -18,4 +18,18 @@ return [
 
     "key-style" => '...',
     <warning descr="[EA] The key-value pair is duplicated (and you can safely remove it).">'key-style' => '...'</warning>,
+
+    '10' => '...',
+    '010' => '...',
+    <warning descr="[EA] The key is duplicated (and you should remove the outdated one).">'10'</warning> => '.',
+
+    '1'  => '...',
+    '01' => '.',
+    '+1' => '.',
+    <warning descr="[EA] The key is duplicated (and you should remove the outdated one).">'+1'</warning> => '...',
+
+    '0'  => '...',
+    '-0' => '.',
+    <warning descr="[EA] The key is duplicated (and you should remove the outdated one).">'01'</warning> => '...',
+    <warning descr="[EA] The key is duplicated (and you should remove the outdated one).">'-0'</warning> => '...',
 ];
\ No newline at end of file